@@ -0,0 +1,105 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import board.Board;
+import board.Square;
+import movegen.Move;
+import pieces.Piece;
+import pieces.PieceColor;
+import utilz.HelpMethods;
+import utilz.Position;
+
+/**
+ * Benchmarks de l'API du plateau en notation algébrique :
+ * accès aux cases, déplacements et validation des paramètres.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private Board board;
+    private Piece pawn;
+    private int move;
+
+    @Setup
+    public void setup() {
+        board = new Board();
+        pawn = board.getPieceAt("e2");
+        move = Move.encode(Square.parse("e2"), Square.parse("e4"), Move.FLAG_DOUBLE_PUSH);
+    }
+
+    @Benchmark
+    public Piece getPieceAt() {
+        return board.getPieceAt("e2");
+    }
+
+    @Benchmark
+    public void getPieceAtAllSquares(Blackhole blackhole) {
+        for (char file = 'a'; file <= 'h'; file++) {
+            for (char rank = '1'; rank <= '8'; rank++) {
+                blackhole.consume(board.getPieceAt(String.valueOf(file) + rank));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getPieceAtAllSquareIndices(Blackhole blackhole) {
+        for (int square = 0; square < Square.COUNT; square++) {
+            blackhole.consume(board.getPieceAt(square));
+        }
+    }
+
+    /**
+     * Joue puis annule e2e4 : le plateau et les piles d'historique restent stables.
+     */
+    @Benchmark
+    public void makeUnmakeMove() {
+        board.makeMove(move);
+        board.unmakeMove();
+    }
+
+    /**
+     * Même coup par l'ancienne API en notation algébrique (recherche du coup encodé comprise).
+     */
+    @Benchmark
+    public void movePiece() {
+        board.movePiece("e2", "e4", pawn);
+        board.unmakeMove();
+    }
+
+    @Benchmark
+    public Object pawnGetPossibleMoves() {
+        return board.getPieceAt("e2").getPossibleMoves(board);
+    }
+
+    @Benchmark
+    public Position positionFromAlgebraic() {
+        return Position.fromAlgebraic("e4");
+    }
+
+    @Benchmark
+    public int squareParse() {
+        return Square.parse("e4");
+    }
+
+    @Benchmark
+    public void verifyParameters() {
+        HelpMethods.verifyParameters("e4", PieceColor.WHITE);
+    }
+}
@@ -0,0 +1,68 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import board.BitboardPosition;
+import engine.Evaluation;
+import engine.PawnHashTable;
+import engine.PawnStructure;
+
+/**
+ * Benchmarks de l'évaluation : lecture des sommes incrémentales contre recalcul complet,
+ * structure de pions en cache contre recalculée.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+    @Param({
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"
+    })
+    public String fen;
+
+    private BitboardPosition position;
+    private final PawnHashTable pawnTable = new PawnHashTable();
+    private final int[] pawnTerms = new int[2];
+
+    @Setup
+    public void setup() {
+        position = BitboardPosition.fromFen(fen);
+    }
+
+    @Benchmark
+    public int evaluateIncremental() {
+        return Evaluation.evaluate(position);
+    }
+
+    @Benchmark
+    public int evaluateWithPawnTable() {
+        return Evaluation.evaluate(position, pawnTable);
+    }
+
+    @Benchmark
+    public int pawnStructureUncached() {
+        PawnStructure.evaluate(position, pawnTerms);
+        return pawnTerms[0] + pawnTerms[1];
+    }
+
+    @Benchmark
+    public int evaluateFromScratch() {
+        return Evaluation.evaluateFromScratch(position);
+    }
+}
@@ -0,0 +1,98 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import board.BitboardPosition;
+import movegen.Attacks;
+import movegen.MoveGenerator;
+import movegen.MoveList;
+import movegen.Perft;
+
+/**
+ * Benchmarks du générateur de coups bitboard, des attaques glissantes et du perft.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGeneratorBenchmark {
+    @Param({
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"
+    })
+    public String fen;
+
+    private BitboardPosition position;
+    private MoveList moves;
+    private Perft perft;
+
+    @Setup
+    public void setup() {
+        position = BitboardPosition.fromFen(fen);
+        moves = new MoveList();
+        perft = new Perft();
+    }
+
+    @Benchmark
+    public int generatePseudoLegal() {
+        MoveGenerator.generate(position, moves);
+        return moves.size();
+    }
+
+    @Benchmark
+    public int generateLegal() {
+        MoveGenerator.generateLegal(position, moves);
+        return moves.size();
+    }
+
+    /**
+     * Référence : coups pseudo-légaux filtrés en jouant chaque coup, l'approche remplacée par generateLegal.
+     */
+    @Benchmark
+    public int generateMakeAndTest() {
+        MoveGenerator.generate(position, moves);
+        int us = position.getSideToMove();
+        int legal = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.get(i));
+            if (!Attacks.isInCheck(position, us)) {
+                legal++;
+            }
+            position.unmakeMove();
+        }
+        return legal;
+    }
+
+    /**
+     * Attaques de dame depuis les 64 cases pour l'occupation de la position (lectures de tables magiques).
+     */
+    @Benchmark
+    public long queenAttacksAllSquares() {
+        long occupied = position.occupied();
+        long acc = 0L;
+        for (int square = 0; square < 64; square++) {
+            acc ^= Attacks.queen(square, occupied);
+        }
+        return acc;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long perft3() {
+        return perft.perft(position, 3);
+    }
+}
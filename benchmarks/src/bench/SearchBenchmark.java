@@ -0,0 +1,58 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import board.BitboardPosition;
+import engine.Search;
+import engine.SearchLimits;
+import engine.TranspositionTable;
+
+/**
+ * Benchmark de la recherche complète à profondeur fixe.
+ * La table de transposition est vidée avant chaque appel pour mesurer une recherche à froid.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"
+    })
+    public String fen;
+
+    @Param({ "6" })
+    public int depth;
+
+    private BitboardPosition position;
+    private TranspositionTable transpositionTable;
+    private Search search;
+
+    @Setup
+    public void setup() {
+        position = BitboardPosition.fromFen(fen);
+        transpositionTable = new TranspositionTable(16);
+        search = new Search(transpositionTable);
+    }
+
+    @Benchmark
+    public long searchFixedDepth() {
+        transpositionTable.clear();
+        return search.search(position, SearchLimits.depth(depth), null).nodes();
+    }
+}
@@ -0,0 +1,82 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import board.BitboardPosition;
+import engine.LazySmpSearch;
+import engine.SearchLimits;
+import engine.TranspositionTable;
+
+/**
+ * Passage à l'échelle de la recherche Lazy SMP : nœuds par seconde de 1 à N threads.
+ * Chaque appel cherche pendant un temps fixe ; le compteur auxiliaire "nodes" donne
+ * directement le NPS agrégé (en nœuds par seconde) à comparer entre les valeurs de threads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SmpScalingBenchmark {
+    @Param({
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"
+    })
+    public String fen;
+
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    @Param({ "200" })
+    public int moveTimeMillis;
+
+    private BitboardPosition position;
+    private TranspositionTable transpositionTable;
+    private LazySmpSearch search;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class NodeCounter {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        position = BitboardPosition.fromFen(fen);
+        transpositionTable = new TranspositionTable(64);
+        search = new LazySmpSearch(transpositionTable, threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        search.shutdown();
+    }
+
+    @Benchmark
+    public long searchFixedTime(NodeCounter counter) {
+        transpositionTable.clear();
+        long nodes = search.search(position, SearchLimits.moveTime(moveTimeMillis), null).nodes();
+        counter.nodes += nodes;
+        return nodes;
+    }
+}
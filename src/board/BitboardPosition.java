@@ -0,0 +1,668 @@
+package board;
+
+import static board.Bitboards.*;
+
+import movegen.Attacks;
+import movegen.Move;
+
+/**
+ * Représentation bitboard d'une position d'échecs.
+ * Un masque 64 bits par type de pièce et par couleur, les occupations agrégées,
+ * et l'état de la partie (trait, roques, prise en passant, règle des 50 coups).
+ * Un mailbox de 64 entiers complète les bitboards pour retrouver en O(1)
+ * la pièce présente sur une case.
+ * La clé Zobrist et les sommes d'évaluation matériel + pièce-case (milieu et fin de
+ * partie, voir PieceSquareTables) sont tenues à jour de façon incrémentale à chaque
+ * ajout, retrait ou déplacement de pièce, donc aussi par makeMove et unmakeMove.
+ */
+public class BitboardPosition {
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // Lettres FEN indexées par type de pièce (ordre de pieces.PiecesEnum)
+    static final String FEN_PIECES = "prnbqk";
+
+    private final long[] pieces = new long[2 * PIECE_TYPES];
+    private final long[] colors = new long[2];
+    private long occupied;
+    private final int[] mailbox = new int[64];
+
+    private int sideToMove;
+    private int castlingRights;
+    // Case de prise en passant, seulement si un pion du camp au trait peut y prendre :
+    // une transposition donne ainsi la même clé avec ou sans double pas inutile
+    private int enPassantSquare;
+    private int halfmoveClock;
+    private int fullmoveNumber;
+    private long key;
+    private long pawnKey; // clé Zobrist restreinte aux pions
+
+    // Évaluation incrémentale, du point de vue des blancs
+    private int midgameScore;
+    private int endgameScore;
+    private int phase;
+
+    // Pile d'annulation préallouée, un tableau par champ restauré
+    private static final int INITIAL_HISTORY = 1024;
+    private int[] historyMoves = new int[INITIAL_HISTORY];
+    private int[] historyCaptured = new int[INITIAL_HISTORY];
+    private int[] historyCastling = new int[INITIAL_HISTORY];
+    private int[] historyEnPassant = new int[INITIAL_HISTORY];
+    private int[] historyHalfmove = new int[INITIAL_HISTORY];
+    private long[] historyKeys = new long[INITIAL_HISTORY];
+    private int historyPly;
+
+    public BitboardPosition() {
+        clear();
+    }
+
+    /**
+     * Constructeur de copie, utilisé pour donner à chaque thread sa propre position.
+     *
+     * @param other La position à copier
+     */
+    public BitboardPosition(BitboardPosition other) {
+        copyFrom(other);
+    }
+
+    public void copyFrom(BitboardPosition other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        System.arraycopy(other.mailbox, 0, mailbox, 0, mailbox.length);
+        occupied = other.occupied;
+        sideToMove = other.sideToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        key = other.key;
+        pawnKey = other.pawnKey;
+        midgameScore = other.midgameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+
+        if (historyMoves.length < other.historyPly) {
+            growHistory(other.historyMoves.length);
+        }
+        historyPly = other.historyPly;
+        System.arraycopy(other.historyMoves, 0, historyMoves, 0, historyPly);
+        System.arraycopy(other.historyCaptured, 0, historyCaptured, 0, historyPly);
+        System.arraycopy(other.historyCastling, 0, historyCastling, 0, historyPly);
+        System.arraycopy(other.historyEnPassant, 0, historyEnPassant, 0, historyPly);
+        System.arraycopy(other.historyHalfmove, 0, historyHalfmove, 0, historyPly);
+        System.arraycopy(other.historyKeys, 0, historyKeys, 0, historyPly);
+    }
+
+    /**
+     * Vide le plateau et remet l'état de la partie à zéro.
+     */
+    public void clear() {
+        java.util.Arrays.fill(pieces, 0L);
+        java.util.Arrays.fill(colors, 0L);
+        java.util.Arrays.fill(mailbox, EMPTY);
+        occupied = 0L;
+        sideToMove = WHITE;
+        castlingRights = 0;
+        enPassantSquare = NO_SQUARE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        historyPly = 0;
+        pawnKey = 0L;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        key = computeKey();
+    }
+
+    /**
+     * Place toutes les pièces en position de départ.
+     */
+    public void setupStartPosition() {
+        clear();
+        int[] backRank = { ROOK, KNIGHT, BISHOP, QUEEN, KING, BISHOP, KNIGHT, ROOK };
+        for (int file = 0; file < 8; file++) {
+            addPiece(square(file, 0), pieceCode(WHITE, backRank[file]));
+            addPiece(square(file, 1), pieceCode(WHITE, PAWN));
+            addPiece(square(file, 6), pieceCode(BLACK, PAWN));
+            addPiece(square(file, 7), pieceCode(BLACK, backRank[file]));
+        }
+        castlingRights = ALL_CASTLING;
+        key = computeKey();
+    }
+
+    /**
+     * Charge une position depuis une chaîne FEN.
+     * Les compteurs de coups sont optionnels (valeurs par défaut 0 et 1).
+     *
+     * @param fen La position en notation FEN
+     * @throws IllegalArgumentException si la chaîne FEN est invalide (8 rangées de 8 colonnes),
+     *         n'a pas exactement un roi de chaque camp ou donne un droit de roque sans le roi
+     *         et la tour sur leurs cases d'origine
+     */
+    public void setFromFen(String fen) {
+        if (fen == null) {
+            throw new IllegalArgumentException("FEN cannot be null");
+        }
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("FEN must have at least 4 fields: " + fen);
+        }
+        clear();
+
+        int rank = 7;
+        int file = 0;
+        for (int i = 0; i < fields[0].length(); i++) {
+            char c = fields[0].charAt(i);
+            if (c == '/') {
+                if (file != 8 || rank == 0) {
+                    throw new IllegalArgumentException("FEN must have 8 ranks of 8 files: " + fields[0]);
+                }
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+                if (file > 8) {
+                    throw new IllegalArgumentException("FEN must have 8 ranks of 8 files: " + fields[0]);
+                }
+            } else {
+                int type = FEN_PIECES.indexOf(Character.toLowerCase(c));
+                if (type < 0 || file > 7 || rank < 0) {
+                    throw new IllegalArgumentException("Invalid FEN piece placement: " + fields[0]);
+                }
+                addPiece(square(file, rank), pieceCode(Character.isUpperCase(c) ? WHITE : BLACK, type));
+                file++;
+            }
+        }
+        if (rank != 0 || file != 8) {
+            throw new IllegalArgumentException("FEN must have 8 ranks of 8 files: " + fields[0]);
+        }
+        // Sans roi, isInCheck et le générateur de coups lisent une case inexistante
+        if (popCount(pieces(WHITE, KING)) != 1 || popCount(pieces(BLACK, KING)) != 1) {
+            throw new IllegalArgumentException("FEN must have exactly one king per side: " + fields[0]);
+        }
+
+        switch (fields[1]) {
+            case "w" -> sideToMove = WHITE;
+            case "b" -> sideToMove = BLACK;
+            default -> throw new IllegalArgumentException("Invalid FEN side to move: " + fields[1]);
+        }
+
+        for (int i = 0; i < fields[2].length(); i++) {
+            switch (fields[2].charAt(i)) {
+                case 'K' -> castlingRights |= WHITE_KINGSIDE;
+                case 'Q' -> castlingRights |= WHITE_QUEENSIDE;
+                case 'k' -> castlingRights |= BLACK_KINGSIDE;
+                case 'q' -> castlingRights |= BLACK_QUEENSIDE;
+                case '-' -> { }
+                default -> throw new IllegalArgumentException("Invalid FEN castling rights: " + fields[2]);
+            }
+        }
+        // Un droit sans le roi et la tour sur leurs cases d'origine ferait roquer une pièce absente
+        if (!hasCastlingPieces(WHITE_KINGSIDE, WHITE, 4, 7) || !hasCastlingPieces(WHITE_QUEENSIDE, WHITE, 4, 0)
+                || !hasCastlingPieces(BLACK_KINGSIDE, BLACK, 60, 63) || !hasCastlingPieces(BLACK_QUEENSIDE, BLACK, 60, 56)) {
+            throw new IllegalArgumentException("FEN castling rights do not match the board: " + fields[2]);
+        }
+
+        if (!fields[3].equals("-")) {
+            int square = squareOf(fields[3]);
+            if (square == NO_SQUARE) {
+                throw new IllegalArgumentException("Invalid FEN en passant square: " + fields[3]);
+            }
+            enPassantSquare = capturableEnPassant(square, sideToMove);
+        }
+
+        try {
+            halfmoveClock = fields.length > 4 ? Integer.parseInt(fields[4]) : 0;
+            fullmoveNumber = fields.length > 5 ? Integer.parseInt(fields[5]) : 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid FEN move counters: " + fen, e);
+        }
+        key = computeKey();
+    }
+
+    private boolean hasCastlingPieces(int right, int color, int kingSquare, int rookSquare) {
+        return (castlingRights & right) == 0
+                || (mailbox[kingSquare] == pieceCode(color, KING) && mailbox[rookSquare] == pieceCode(color, ROOK));
+    }
+
+    /**
+     * Garde la case de prise en passant seulement si un pion du camp donné l'attaque,
+     * comme les clés Polyglot ; le clouage éventuel du pion n'est pas vérifié.
+     *
+     * @param square La case sautée par le double pas
+     * @param capturer Le camp qui pourrait prendre
+     * @return La case, ou NO_SQUARE si aucun pion ne peut y prendre
+     */
+    private int capturableEnPassant(int square, int capturer) {
+        return (Attacks.pawn(capturer ^ 1, square) & pieces(capturer, PAWN)) != 0 ? square : NO_SQUARE;
+    }
+
+    public static BitboardPosition fromFen(String fen) {
+        BitboardPosition position = new BitboardPosition();
+        position.setFromFen(fen);
+        return position;
+    }
+
+    /**
+     * Sérialise la position en FEN (six champs).
+     *
+     * @return La position en notation FEN
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int pieceCode = mailbox[square(file, rank)];
+                if (pieceCode == EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                char c = FEN_PIECES.charAt(typeOf(pieceCode));
+                fen.append(colorOf(pieceCode) == WHITE ? Character.toUpperCase(c) : c);
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (rank > 0) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(sideToMove == WHITE ? " w " : " b ");
+        if (castlingRights == 0) {
+            fen.append('-');
+        } else {
+            if ((castlingRights & WHITE_KINGSIDE) != 0) {
+                fen.append('K');
+            }
+            if ((castlingRights & WHITE_QUEENSIDE) != 0) {
+                fen.append('Q');
+            }
+            if ((castlingRights & BLACK_KINGSIDE) != 0) {
+                fen.append('k');
+            }
+            if ((castlingRights & BLACK_QUEENSIDE) != 0) {
+                fen.append('q');
+            }
+        }
+        fen.append(' ').append(enPassantSquare == NO_SQUARE ? "-" : squareName(enPassantSquare));
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
+    public void addPiece(int square, int pieceCode) {
+        long mask = bit(square);
+        pieces[pieceCode] |= mask;
+        colors[colorOf(pieceCode)] |= mask;
+        occupied |= mask;
+        mailbox[square] = pieceCode;
+        key ^= Zobrist.pieceSquare(pieceCode, square);
+        if (typeOf(pieceCode) == PAWN) {
+            pawnKey ^= Zobrist.pieceSquare(pieceCode, square);
+        }
+        midgameScore += PieceSquareTables.MG[pieceCode][square];
+        endgameScore += PieceSquareTables.EG[pieceCode][square];
+        phase += PieceSquareTables.PHASE[pieceCode];
+    }
+
+    /**
+     * Retire la pièce d'une case.
+     *
+     * @param square La case à vider
+     * @return Le code de la pièce retirée, ou EMPTY
+     */
+    public int removePiece(int square) {
+        int pieceCode = mailbox[square];
+        if (pieceCode != EMPTY) {
+            long mask = ~bit(square);
+            pieces[pieceCode] &= mask;
+            colors[colorOf(pieceCode)] &= mask;
+            occupied &= mask;
+            mailbox[square] = EMPTY;
+            key ^= Zobrist.pieceSquare(pieceCode, square);
+            if (typeOf(pieceCode) == PAWN) {
+                pawnKey ^= Zobrist.pieceSquare(pieceCode, square);
+            }
+            midgameScore -= PieceSquareTables.MG[pieceCode][square];
+            endgameScore -= PieceSquareTables.EG[pieceCode][square];
+            phase -= PieceSquareTables.PHASE[pieceCode];
+        }
+        return pieceCode;
+    }
+
+    /**
+     * Déplace une pièce d'une case vide ou adverse à une autre sans toucher à l'état de la partie.
+     */
+    public void movePieceRaw(int from, int to) {
+        int pieceCode = mailbox[from];
+        removePiece(to);
+        long fromTo = bit(from) | bit(to);
+        pieces[pieceCode] ^= fromTo;
+        colors[colorOf(pieceCode)] ^= fromTo;
+        occupied ^= fromTo;
+        mailbox[from] = EMPTY;
+        mailbox[to] = pieceCode;
+        key ^= Zobrist.pieceSquare(pieceCode, from) ^ Zobrist.pieceSquare(pieceCode, to);
+        if (typeOf(pieceCode) == PAWN) {
+            pawnKey ^= Zobrist.pieceSquare(pieceCode, from) ^ Zobrist.pieceSquare(pieceCode, to);
+        }
+        midgameScore += PieceSquareTables.MG[pieceCode][to] - PieceSquareTables.MG[pieceCode][from];
+        endgameScore += PieceSquareTables.EG[pieceCode][to] - PieceSquareTables.EG[pieceCode][from];
+    }
+
+    /**
+     * Joue un coup encodé (voir movegen.Move) sans vérifier sa légalité.
+     * Gère captures, prise en passant, promotions et déplacement de la tour au roque.
+     * L'état précédent est empilé pour que unmakeMove puisse le restaurer sans copie du plateau.
+     *
+     * @param move Le coup encodé
+     */
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int us = sideToMove;
+        int movedPiece = mailbox[from];
+
+        int captureSquare = Move.isEnPassant(move) ? (us == WHITE ? to - 8 : to + 8) : to;
+        int captured = mailbox[captureSquare];
+        pushHistory(move, captured);
+        removePiece(captureSquare);
+
+        movePieceRaw(from, to);
+        if (Move.isPromotion(move)) {
+            removePiece(to);
+            addPiece(to, pieceCode(us, Move.promotion(move)));
+        } else if (Move.isCastling(move)) {
+            // La tour saute par-dessus le roi : h -> f ou a -> d
+            if (to > from) {
+                movePieceRaw(to + 1, to - 1);
+            } else {
+                movePieceRaw(to - 2, to + 1);
+            }
+        }
+
+        key ^= Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+        halfmoveClock = (captured != EMPTY || typeOf(movedPiece) == PAWN) ? 0 : halfmoveClock + 1;
+        enPassantSquare = Move.isDoublePush(move) ? capturableEnPassant((from + to) / 2, us ^ 1) : NO_SQUARE;
+        castlingRights &= castlingMask(from) & castlingMask(to);
+        if (us == BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = us ^ 1;
+        key ^= Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare) ^ Zobrist.SIDE_TO_MOVE;
+    }
+
+    /**
+     * Annule le dernier coup joué par makeMove.
+     * Restaure la pièce capturée, les droits de roque, la case de prise en passant
+     * le compteur des 50 coups et la clé Zobrist depuis la pile d'annulation.
+     *
+     * @throws IllegalStateException si aucun coup n'a été joué
+     */
+    public void unmakeMove() {
+        if (historyPly == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        historyPly--;
+        int move = historyMoves[historyPly];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int us = sideToMove ^ 1;
+
+        if (Move.isPromotion(move)) {
+            removePiece(to);
+            addPiece(to, pieceCode(us, PAWN));
+        } else if (Move.isCastling(move)) {
+            if (to > from) {
+                movePieceRaw(to - 1, to + 1);
+            } else {
+                movePieceRaw(to + 1, to - 2);
+            }
+        }
+        movePieceRaw(to, from);
+
+        int captured = historyCaptured[historyPly];
+        if (captured != EMPTY) {
+            addPiece(Move.isEnPassant(move) ? (us == WHITE ? to - 8 : to + 8) : to, captured);
+        }
+
+        castlingRights = historyCastling[historyPly];
+        enPassantSquare = historyEnPassant[historyPly];
+        halfmoveClock = historyHalfmove[historyPly];
+        key = historyKeys[historyPly];
+        if (us == BLACK) {
+            fullmoveNumber--;
+        }
+        sideToMove = us;
+    }
+
+    /**
+     * Passe le trait sans jouer de coup (élagage par coup nul).
+     * Doit être annulé par unmakeNullMove, jamais par unmakeMove.
+     */
+    public void makeNullMove() {
+        pushHistory(Move.NONE, EMPTY);
+        key ^= Zobrist.enPassant(enPassantSquare) ^ Zobrist.SIDE_TO_MOVE;
+        enPassantSquare = NO_SQUARE;
+        // Les répétitions ne doivent pas être cherchées au-delà d'un coup nul
+        halfmoveClock = 0;
+        sideToMove ^= 1;
+    }
+
+    public void unmakeNullMove() {
+        historyPly--;
+        enPassantSquare = historyEnPassant[historyPly];
+        halfmoveClock = historyHalfmove[historyPly];
+        key = historyKeys[historyPly];
+        sideToMove ^= 1;
+    }
+
+    private void pushHistory(int move, int captured) {
+        if (historyPly == historyMoves.length) {
+            growHistory(historyPly * 2);
+        }
+        historyMoves[historyPly] = move;
+        historyCaptured[historyPly] = captured;
+        historyCastling[historyPly] = castlingRights;
+        historyEnPassant[historyPly] = enPassantSquare;
+        historyHalfmove[historyPly] = halfmoveClock;
+        historyKeys[historyPly] = key;
+        historyPly++;
+    }
+
+    /**
+     * Agrandit la pile d'annulation ; n'arrive que pour des parties très longues.
+     */
+    private void growHistory(int capacity) {
+        historyMoves = java.util.Arrays.copyOf(historyMoves, capacity);
+        historyCaptured = java.util.Arrays.copyOf(historyCaptured, capacity);
+        historyCastling = java.util.Arrays.copyOf(historyCastling, capacity);
+        historyEnPassant = java.util.Arrays.copyOf(historyEnPassant, capacity);
+        historyHalfmove = java.util.Arrays.copyOf(historyHalfmove, capacity);
+        historyKeys = java.util.Arrays.copyOf(historyKeys, capacity);
+    }
+
+    /**
+     * Nombre de coups actuellement sur la pile d'annulation.
+     */
+    public int getHistoryPly() {
+        return historyPly;
+    }
+
+    /**
+     * Indique si la position courante est déjà apparue depuis le dernier coup irréversible.
+     * Seules les positions avec le même trait (un coup sur deux) sont comparées.
+     */
+    public boolean isRepetition() {
+        int limit = Math.max(0, historyPly - halfmoveClock);
+        for (int ply = historyPly - 2; ply >= limit; ply -= 2) {
+            if (historyKeys[ply] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recalcule entièrement la clé Zobrist, pour vérifier la mise à jour incrémentale.
+     *
+     * @return La clé calculée à partir de l'état complet
+     */
+    public long computeKey() {
+        long computed = 0L;
+        long occupancy = occupied;
+        while (occupancy != 0) {
+            int square = lsb(occupancy);
+            occupancy = popLsb(occupancy);
+            computed ^= Zobrist.pieceSquare(mailbox[square], square);
+        }
+        return computed ^ Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare)
+                ^ Zobrist.sideToMove(sideToMove);
+    }
+
+    /**
+     * Clé Zobrist 64 bits de la position, tenue à jour de façon incrémentale.
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Clé Zobrist de la seule structure de pions (mêmes clés pièce-case que getKey),
+     * utilisée par la table de hachage des pions.
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * Recalcule entièrement la clé des pions, pour vérifier la mise à jour incrémentale.
+     */
+    public long computePawnKey() {
+        long computed = 0L;
+        for (int color = WHITE; color <= BLACK; color++) {
+            int pieceCode = pieceCode(color, PAWN);
+            long pawns = pieces[pieceCode];
+            while (pawns != 0) {
+                computed ^= Zobrist.pieceSquare(pieceCode, lsb(pawns));
+                pawns = popLsb(pawns);
+            }
+        }
+        return computed;
+    }
+
+    /**
+     * Somme matériel + pièce-case de milieu de partie, blancs moins noirs.
+     */
+    public int getMidgameScore() {
+        return midgameScore;
+    }
+
+    /**
+     * Somme matériel + pièce-case de fin de partie, blancs moins noirs.
+     */
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * Phase de jeu : somme des poids des pièces présentes (24 au départ, dépasse 24
+     * après une promotion). Voir PieceSquareTables.PHASE_WEIGHTS.
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Dernier coup joué, ou Move.NONE si la pile est vide.
+     */
+    public int lastMove() {
+        return historyPly == 0 ? Move.NONE : historyMoves[historyPly - 1];
+    }
+
+    /**
+     * Droits de roque conservés quand une case de roi ou de tour est touchée.
+     */
+    static int castlingMask(int square) {
+        switch (square) {
+            case 0: return ~WHITE_QUEENSIDE;
+            case 4: return ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+            case 7: return ~WHITE_KINGSIDE;
+            case 56: return ~BLACK_QUEENSIDE;
+            case 60: return ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+            case 63: return ~BLACK_KINGSIDE;
+            default: return ALL_CASTLING;
+        }
+    }
+
+    public int pieceAt(int square) {
+        return mailbox[square];
+    }
+
+    public long pieces(int pieceCode) {
+        return pieces[pieceCode];
+    }
+
+    public long pieces(int color, int type) {
+        return pieces[pieceCode(color, type)];
+    }
+
+    public long colorOccupancy(int color) {
+        return colors[color];
+    }
+
+    public long occupied() {
+        return occupied;
+    }
+
+    public int kingSquare(int color) {
+        return lsb(pieces[pieceCode(color, KING)]);
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(int sideToMove) {
+        key ^= Zobrist.sideToMove(this.sideToMove) ^ Zobrist.sideToMove(sideToMove);
+        this.sideToMove = sideToMove;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        key ^= Zobrist.castling(this.castlingRights) ^ Zobrist.castling(castlingRights);
+        this.castlingRights = castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int enPassantSquare) {
+        key ^= Zobrist.enPassant(this.enPassantSquare) ^ Zobrist.enPassant(enPassantSquare);
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+}
@@ -0,0 +1,113 @@
+package board;
+
+/**
+ * Constantes et opérations élémentaires sur les bitboards.
+ * Une case est un index 0..63 (a1 = 0, h1 = 7, a8 = 56, h8 = 63) :
+ * le bit {@code 1L << square} la représente dans un masque 64 bits.
+ */
+public final class Bitboards {
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    // Types de pièces, dans l'ordre de pieces.PiecesEnum
+    public static final int PAWN = 0;
+    public static final int ROOK = 1;
+    public static final int KNIGHT = 2;
+    public static final int BISHOP = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+    public static final int PIECE_TYPES = 6;
+
+    public static final int EMPTY = -1;
+    public static final int NO_SQUARE = -1;
+
+    // Droits de roque
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_2 = RANK_1 << 8;
+    public static final long RANK_4 = RANK_1 << 24;
+    public static final long RANK_5 = RANK_1 << 32;
+    public static final long RANK_7 = RANK_1 << 48;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    private Bitboards() {
+    }
+
+    /**
+     * Code d'une pièce dans les tableaux du plateau : couleur * 6 + type.
+     */
+    public static int pieceCode(int color, int type) {
+        return color * PIECE_TYPES + type;
+    }
+
+    public static int colorOf(int pieceCode) {
+        return pieceCode / PIECE_TYPES;
+    }
+
+    public static int typeOf(int pieceCode) {
+        return pieceCode % PIECE_TYPES;
+    }
+
+    public static int square(int file, int rank) {
+        return rank * 8 + file;
+    }
+
+    public static int fileOf(int square) {
+        return square & 7;
+    }
+
+    public static int rankOf(int square) {
+        return square >>> 3;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Convertit une case algébrique ("e4") en index, sans allocation.
+     *
+     * @param position La position en notation algébrique
+     * @return L'index de la case, ou NO_SQUARE si la chaîne est invalide
+     */
+    public static int squareOf(String position) {
+        return Square.parse(position);
+    }
+
+    /**
+     * Nom algébrique précalculé d'une case (aucune allocation).
+     */
+    public static String squareName(int square) {
+        return Square.name(square);
+    }
+
+    /**
+     * Ligne d'affichage (0 = 8e rangée) d'une case, comme dans utilz.Position.
+     */
+    public static int rowOf(int square) {
+        return 7 - rankOf(square);
+    }
+
+    public static int squareFromRowCol(int row, int col) {
+        return square(col, 7 - row);
+    }
+
+    public static int lsb(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    public static long popLsb(long bitboard) {
+        return bitboard & (bitboard - 1);
+    }
+
+    public static int popCount(long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+}
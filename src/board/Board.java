@@ -2,35 +2,157 @@ package board;
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+import movegen.Move;
+import movegen.MoveGenerator;
+import movegen.MoveList;
+import pieces.Bishop;
+import pieces.King;
+import pieces.Knight;
 import pieces.Pawn;
 import pieces.Piece;
 import pieces.PieceColor;
+import pieces.PiecesEnum;
+import pieces.Queen;
+import pieces.Rook;
 import utilz.Constants;
-import utilz.Position;
 
 /**
  * Classe représentant l'échiquier.
- * Encapsule la logique de gestion du plateau et utilise Position pour les conversions.
+ * Façade au-dessus de BitboardPosition : les bitboards sont la source de vérité,
+ * les objets Piece ne servent qu'au rendu et à l'API en notation algébrique.
  */
 public class Board {
-    private final Piece[][] board;
+    // Initiale de chaque type (ordre de PiecesEnum) ; N pour le cavalier, comme en notation anglaise
+    private static final String PIECE_LETTERS = "PRNBQK";
+
+    private final BitboardPosition position;
+    private final Piece[] pieces; // Objets Piece indexés par case (a1 = 0)
+
+    // Objets Piece déplacés et capturés, empilés en parallèle de la pile d'annulation bitboard
+    private final List<Piece> movedHistory = new ArrayList<>();
+    private final List<Piece> capturedHistory = new ArrayList<>();
+    private final MoveList moveBuffer = new MoveList();
+
+    // Fond pré-rendu (cases seules) et cases à redessiner depuis le dernier affichage
+    private BufferedImage background;
+    private long dirtySquares = -1L;
 
     public Board() {
-        board = new Piece[8][8];
+        position = new BitboardPosition();
+        pieces = new Piece[64];
         setupBoard();
     }
 
+    /**
+     * Construit un plateau depuis une position FEN.
+     * 
+     * @param fen La position en notation FEN
+     * @throws IllegalArgumentException si la chaîne FEN est invalide
+     */
+    public Board(String fen) {
+        position = new BitboardPosition();
+        pieces = new Piece[64];
+        setFromFen(fen);
+    }
+
+    /**
+     * Remplace la position du plateau par une position FEN.
+     * L'historique des coups est effacé et tout le plateau est à redessiner.
+     * 
+     * @param fen La position en notation FEN
+     * @throws IllegalArgumentException si la chaîne FEN est invalide
+     */
+    public void setFromFen(String fen) {
+        position.setFromFen(fen);
+        Arrays.fill(pieces, null);
+        long occupancy = position.occupied();
+        while (occupancy != 0) {
+            int square = Bitboards.lsb(occupancy);
+            occupancy = Bitboards.popLsb(occupancy);
+            pieces[square] = createPiece(position.pieceAt(square), square);
+        }
+        movedHistory.clear();
+        capturedHistory.clear();
+        dirtySquares = -1L;
+    }
+
+    /**
+     * Sérialise la position courante en FEN.
+     * 
+     * @return La position en notation FEN
+     */
+    public String toFen() {
+        return position.toFen();
+    }
+
     /**
      * Récupère la pièce à une position donnée.
-     * Utilise Position pour la conversion, respectant le principe DRY.
+     * La conversion en index de case se fait sans allocation.
      * 
      * @param position La position en notation algébrique
      * @return La pièce à cette position, ou null si la case est vide
      */
     public Piece getPieceAt(String position) {
-        Position pos = Position.fromAlgebraic(position);
-        return board[pos.getRow()][pos.getCol()];
+        return pieces[toSquare(position)];
+    }
+
+    /**
+     * Récupère la pièce sur une case donnée par son index.
+     * 
+     * @param square La case (a1 = 0 .. h8 = 63)
+     * @return La pièce sur cette case, ou null si la case est vide
+     */
+    public Piece getPieceAt(int square) {
+        return pieces[square];
+    }
+
+    /**
+     * Retourne la représentation bitboard sous-jacente.
+     * 
+     * @return La position bitboard du plateau
+     */
+    public BitboardPosition getBitboardPosition() {
+        return position;
+    }
+
+    /**
+     * Retourne la clé Zobrist 64 bits de la position courante.
+     * 
+     * @return La clé, mise à jour de façon incrémentale à chaque coup
+     */
+    public long getZobristKey() {
+        return position.getKey();
+    }
+
+    private static int toSquare(String position) {
+        int square = Square.parse(position);
+        if (square == Square.NONE) {
+            throw new IllegalArgumentException("Position must be in the format a1 to h8");
+        }
+        return square;
+    }
+
+    /**
+     * Calcule le code bitboard (couleur et type) d'un objet Piece.
+     */
+    private static int pieceCode(Piece piece) {
+        int color = piece.getColor() == PieceColor.WHITE ? Bitboards.WHITE : Bitboards.BLACK;
+        return Bitboards.pieceCode(color, PiecesEnum.valueOf(piece.getType()).ordinal());
+    }
+
+    private void placePiece(Piece piece) {
+        int square = piece.getSquare();
+        pieces[square] = piece;
+        position.addPiece(square, pieceCode(piece));
+        dirtySquares |= Bitboards.bit(square);
     }
 
     /**
@@ -38,57 +160,117 @@ public class Board {
      * Utilise PieceColor pour la type-safety.
      */
     private void setupBoard() {
-        // Initialiser les pions blancs sur la rangée 2
-        for (int i = 0; i < 8; i++) {
-            char col = (char) ('a' + i);
-            String whitePosition = String.valueOf(col) + "2";
-            Position whitePos = Position.fromAlgebraic(whitePosition);
-            board[whitePos.getRow()][whitePos.getCol()] = new Pawn(whitePosition, PieceColor.WHITE);
-            
-            // Initialiser les pions noirs sur la rangée 7
-            String blackPosition = String.valueOf(col) + "7";
-            Position blackPos = Position.fromAlgebraic(blackPosition);
-            board[blackPos.getRow()][blackPos.getCol()] = new Pawn(blackPosition, PieceColor.BLACK);
-        }
-
-        // Initialize black pieces
-        // board[0][0] = new Rook("a8", "BLACK");
-        // board[0][1] = new Knight("b8", "BLACK");
-        // board[0][2] = new Bishop("c8", "BLACK");
-        // board[0][3] = new Queen("d8", "BLACK");
-        // board[0][4] = new King("e8", "BLACK");
-        // board[0][5] = new Bishop("f8", "BLACK");
-        // board[0][6] = new Knight("g8", "BLACK");
-        // board[0][7] = new Rook("h8", "BLACK");
-
-        // // Initialize white pieces
-        // board[7][0] = new Rook("a1", "WHITE");
-        // board[7][1] = new Knight("b1", "WHITE");
-        // board[7][2] = new Bishop("c1", "WHITE");
-        // board[7][3] = new Queen("d1", "WHITE");
-        // board[7][4] = new King("e1", "WHITE");
-        // board[7][5] = new Bishop("f1", "WHITE");
-        // board[7][6] = new Knight("g1", "WHITE");
-        // board[7][7] = new Rook("h1", "WHITE");
+        // Pièces de la première rangée, de la colonne a à la colonne h
+        int[] backRank = {
+            Bitboards.ROOK, Bitboards.KNIGHT, Bitboards.BISHOP, Bitboards.QUEEN,
+            Bitboards.KING, Bitboards.BISHOP, Bitboards.KNIGHT, Bitboards.ROOK
+        };
+        for (int file = 0; file < 8; file++) {
+            placePiece(createPiece(Bitboards.pieceCode(Bitboards.WHITE, backRank[file]), Square.of(file, 0)));
+            placePiece(new Pawn(Square.of(file, 1), PieceColor.WHITE));
+            placePiece(new Pawn(Square.of(file, 6), PieceColor.BLACK));
+            placePiece(createPiece(Bitboards.pieceCode(Bitboards.BLACK, backRank[file]), Square.of(file, 7)));
+        }
+        position.setCastlingRights(Bitboards.ALL_CASTLING);
     }
 
+    /**
+     * Dessine le plateau dans la zone de découpage du contexte graphique.
+     * Le fond est copié depuis une image pré-rendue ; seules les pièces des cases qui
+     * coupent la zone sont redessinées. Avec un repaint limité aux cases modifiées
+     * (voir takeDirtySquares), une image ne coûte que quelques drawImage.
+     * 
+     * @param g Le contexte graphique
+     */
     public void render(Graphics g) {
-        // Render the board and pieces
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                if ((row + col) % 2 == 0) {
-                    g.setColor(Color.WHITE);
-                } else {
-                    g.setColor(Color.BLACK);
-                }
-                g.fillRect(col * Constants.SQUARE_SIZE, row * Constants.SQUARE_SIZE, Constants.SQUARE_SIZE, Constants.SQUARE_SIZE);
-                if (board[row][col] != null) {
-                    board[row][col].render(g);
-                }
-                
+        Rectangle clip = g.getClipBounds();
+        long squares;
+        if (clip == null) {
+            g.drawImage(getBackground(), 0, 0, null);
+            squares = -1L;
+        } else {
+            g.drawImage(getBackground(), clip.x, clip.y, clip.x + clip.width, clip.y + clip.height,
+                    clip.x, clip.y, clip.x + clip.width, clip.y + clip.height, null);
+            squares = squaresIn(clip);
+        }
+
+        squares &= position.occupied();
+        while (squares != 0) {
+            int square = Bitboards.lsb(squares);
+            squares = Bitboards.popLsb(squares);
+            if (pieces[square] != null) {
+                pieces[square].render(g);
+            }
+        }
+    }
+
+    /**
+     * Cases du plateau qui coupent un rectangle en pixels.
+     */
+    private static long squaresIn(Rectangle area) {
+        int size = Constants.SQUARE_SIZE;
+        int firstCol = Math.max(0, area.x / size);
+        int lastCol = Math.min(7, (area.x + area.width - 1) / size);
+        int firstRow = Math.max(0, area.y / size);
+        int lastRow = Math.min(7, (area.y + area.height - 1) / size);
+        long squares = 0L;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                squares |= Bitboards.bit(Square.fromRowCol(row, col));
+            }
+        }
+        return squares;
+    }
 
+    // Construit le fond une seule fois, dans un format compatible avec l'écran
+    private BufferedImage getBackground() {
+        if (background == null) {
+            int size = Constants.SQUARE_SIZE;
+            background = GraphicsEnvironment.isHeadless()
+                    ? new BufferedImage(8 * size, 8 * size, BufferedImage.TYPE_INT_RGB)
+                    : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                            .getDefaultConfiguration().createCompatibleImage(8 * size, 8 * size, Transparency.OPAQUE);
+            Graphics g = background.getGraphics();
+            for (int row = 0; row < 8; row++) {
+                for (int col = 0; col < 8; col++) {
+                    g.setColor((row + col) % 2 == 0 ? Color.WHITE : Color.BLACK);
+                    g.fillRect(col * size, row * size, size, size);
+                }
             }
+            g.dispose();
         }
+        return background;
+    }
+
+    /**
+     * Marque une case à redessiner (sélection, survol, glisser-déposer).
+     * 
+     * @param position La case en notation algébrique
+     */
+    public void markDirty(String position) {
+        markDirty(toSquare(position));
+    }
+
+    /**
+     * Marque une case à redessiner.
+     * 
+     * @param square La case (a1 = 0 .. h8 = 63)
+     */
+    public void markDirty(int square) {
+        dirtySquares |= Bitboards.bit(square);
+    }
+
+    /**
+     * Retourne les cases modifiées depuis le dernier appel (bit i = case i, a1 = 0)
+     * et les marque comme propres. La boucle de jeu les passe à Game.requestRender(long) ;
+     * toutes les cases (-1L, après setFromFen) demandent un redessin complet.
+     * 
+     * @return Le masque des cases à redessiner
+     */
+    public long takeDirtySquares() {
+        long squares = dirtySquares;
+        dirtySquares = 0L;
+        return squares;
     }
 
     /**
@@ -104,24 +286,161 @@ public class Board {
         }
         return piece.getPossibleMoves(this);
     }
+
+    /**
+     * Écrit les coups légaux de la pièce d'une case, encodés en entiers, dans un tampon réutilisable.
+     * 
+     * @param position La position de la pièce en notation algébrique
+     * @param moves Le tampon de coups à remplir (vide si aucune pièce n'est présente)
+     */
+    public void getPossibleMoves(String position, MoveList moves) {
+        getPossibleMoves(toSquare(position), moves);
+    }
+
+    /**
+     * Écrit les coups légaux de la pièce d'une case, encodés en entiers, dans un tampon réutilisable.
+     * 
+     * @param square La case de la pièce (a1 = 0 .. h8 = 63)
+     * @param moves Le tampon de coups à remplir (vide si aucune pièce n'est présente)
+     */
+    public void getPossibleMoves(int square, MoveList moves) {
+        MoveGenerator.generateLegalFrom(this.position, square, moves);
+    }
     
     /**
      * Met à jour la position d'une pièce sur le plateau après un mouvement.
-     * Gère la suppression de l'ancienne position et l'ajout à la nouvelle position.
+     * Le déplacement passe par makeMove : la pièce capturée et l'état de la partie
+     * sont conservés et unmakeMove peut annuler le coup.
      * 
      * @param oldPosition L'ancienne position en notation algébrique
      * @param newPosition La nouvelle position en notation algébrique
      * @param piece La pièce à déplacer
      */
     public void movePiece(String oldPosition, String newPosition, Piece piece) {
-        Position oldPos = Position.fromAlgebraic(oldPosition);
-        Position newPos = Position.fromAlgebraic(newPosition);
-        
-        // Retirer la pièce de l'ancienne position
-        board[oldPos.getRow()][oldPos.getCol()] = null;
-        
-        // Placer la pièce à la nouvelle position (peut capturer une pièce adverse)
-        board[newPos.getRow()][newPos.getCol()] = piece;
+        movePiece(toSquare(oldPosition), toSquare(newPosition), piece);
+    }
+
+    /**
+     * Déplace une pièce de case à case, sans conversion de chaîne (voir movePiece(String, String, Piece)).
+     * 
+     * @param from La case de départ
+     * @param to La case d'arrivée
+     * @param piece La pièce à déplacer
+     */
+    public void movePiece(int from, int to, Piece piece) {
+        // Garder les bitboards synchronisés si la pièce n'était pas connue du plateau
+        if (position.pieceAt(from) == Bitboards.EMPTY) {
+            position.addPiece(from, pieceCode(piece));
+        }
+        pieces[from] = piece;
+        makeMove(findMove(from, to));
+    }
+
+    /**
+     * Retrouve le coup encodé correspondant à un déplacement de case à case.
+     * Les drapeaux (prise en passant, roque, promotion en dame) viennent du générateur ;
+     * un déplacement que le générateur ne connaît pas est encodé comme un coup simple.
+     */
+    private int findMove(int from, int to) {
+        MoveGenerator.generateFrom(position, from, moveBuffer);
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            if (Move.to(moveBuffer.get(i)) == to) {
+                return moveBuffer.get(i);
+            }
+        }
+        int flags = position.pieceAt(to) != Bitboards.EMPTY ? Move.FLAG_CAPTURE : Move.FLAG_QUIET;
+        if (Bitboards.typeOf(position.pieceAt(from)) == Bitboards.PAWN && Math.abs(to - from) == 16) {
+            flags |= Move.FLAG_DOUBLE_PUSH;
+        }
+        return Move.encode(from, to, flags);
+    }
+
+    /**
+     * Joue un coup encodé sur le plateau, bitboards et objets Piece compris.
+     * 
+     * @param move Le coup encodé (voir movegen.Move)
+     */
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int captureSquare = captureSquare(move, Bitboards.colorOf(position.pieceAt(from)));
+
+        Piece moved = pieces[from];
+        movedHistory.add(moved);
+        capturedHistory.add(pieces[captureSquare]);
+        position.makeMove(move);
+
+        dirtySquares |= Bitboards.bit(from) | Bitboards.bit(to) | Bitboards.bit(captureSquare);
+        pieces[from] = null;
+        pieces[captureSquare] = null;
+        pieces[to] = Move.isPromotion(move) ? createPiece(position.pieceAt(to), to) : moved;
+        placeObject(to);
+        if (Move.isCastling(move)) {
+            moveObject(to > from ? to + 1 : to - 2, to > from ? to - 1 : to + 1);
+        }
+    }
+
+    /**
+     * Annule le dernier coup joué et restaure la pièce éventuellement capturée.
+     * 
+     * @throws IllegalStateException si aucun coup n'a été joué
+     */
+    public void unmakeMove() {
+        int move = position.lastMove();
+        position.unmakeMove();
+        int from = Move.from(move);
+        int to = Move.to(move);
+
+        if (Move.isCastling(move)) {
+            moveObject(to > from ? to - 1 : to + 1, to > from ? to + 1 : to - 2);
+        }
+        dirtySquares |= Bitboards.bit(from) | Bitboards.bit(to);
+        pieces[to] = null;
+        pieces[from] = movedHistory.remove(movedHistory.size() - 1);
+        placeObject(from);
+        int captureSquare = captureSquare(move, Bitboards.colorOf(position.pieceAt(from)));
+        pieces[captureSquare] = capturedHistory.remove(capturedHistory.size() - 1);
+        placeObject(captureSquare);
+        dirtySquares |= Bitboards.bit(captureSquare);
+    }
+
+    private static int captureSquare(int move, int color) {
+        if (!Move.isEnPassant(move)) {
+            return Move.to(move);
+        }
+        return color == Bitboards.WHITE ? Move.to(move) - 8 : Move.to(move) + 8;
+    }
+
+    private void moveObject(int from, int to) {
+        dirtySquares |= Bitboards.bit(from) | Bitboards.bit(to);
+        pieces[to] = pieces[from];
+        pieces[from] = null;
+        placeObject(to);
+    }
+
+    /**
+     * Recale un objet Piece sur sa case.
+     */
+    private void placeObject(int square) {
+        if (pieces[square] != null) {
+            pieces[square].setSquare(square);
+        }
+    }
+
+    /**
+     * Crée l'objet Piece correspondant à un code bitboard.
+     */
+    private static Piece createPiece(int pieceCode, int square) {
+        PieceColor color = Bitboards.colorOf(pieceCode) == Bitboards.WHITE ? PieceColor.WHITE : PieceColor.BLACK;
+        switch (Bitboards.typeOf(pieceCode)) {
+            case Bitboards.PAWN: return new Pawn(square, color);
+            case Bitboards.ROOK: return new Rook(square, color);
+            case Bitboards.KNIGHT: return new Knight(square, color);
+            case Bitboards.BISHOP: return new Bishop(square, color);
+            case Bitboards.QUEEN: return new Queen(square, color);
+            case Bitboards.KING: return new King(square, color);
+            default: throw new IllegalArgumentException("Invalid piece code: " + pieceCode);
+        }
     }
     
     public void update() {
@@ -133,8 +452,9 @@ public class Board {
         StringBuilder sb = new StringBuilder();
         for (int row = 0; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
-                if (board[row][col] != null) {
-                    sb.append(board[row][col].getType().charAt(0));
+                int pieceCode = position.pieceAt(Square.fromRowCol(row, col));
+                if (pieceCode != Bitboards.EMPTY) {
+                    sb.append(PIECE_LETTERS.charAt(Bitboards.typeOf(pieceCode)));
                 } else {
                     sb.append(".");
                 }
@@ -0,0 +1,106 @@
+package board;
+
+/**
+ * API des cases par index 0..63 (a1 = 0, h1 = 7, a8 = 56, h8 = 63).
+ *
+ * Les noms, colonnes, rangées et lignes d'affichage sont précalculés une fois pour toutes :
+ * name() retourne toujours la même instance de String (internée) et parse() convertit
+ * une chaîne sans expression régulière ni allocation. La notation algébrique ne sert plus
+ * qu'aux frontières (interface, tests, API historique en String).
+ */
+public final class Square {
+    public static final int A1 = 0, B1 = 1, C1 = 2, D1 = 3, E1 = 4, F1 = 5, G1 = 6, H1 = 7;
+    public static final int A2 = 8, B2 = 9, C2 = 10, D2 = 11, E2 = 12, F2 = 13, G2 = 14, H2 = 15;
+    public static final int A3 = 16, B3 = 17, C3 = 18, D3 = 19, E3 = 20, F3 = 21, G3 = 22, H3 = 23;
+    public static final int A4 = 24, B4 = 25, C4 = 26, D4 = 27, E4 = 28, F4 = 29, G4 = 30, H4 = 31;
+    public static final int A5 = 32, B5 = 33, C5 = 34, D5 = 35, E5 = 36, F5 = 37, G5 = 38, H5 = 39;
+    public static final int A6 = 40, B6 = 41, C6 = 42, D6 = 43, E6 = 44, F6 = 45, G6 = 46, H6 = 47;
+    public static final int A7 = 48, B7 = 49, C7 = 50, D7 = 51, E7 = 52, F7 = 53, G7 = 54, H7 = 55;
+    public static final int A8 = 56, B8 = 57, C8 = 58, D8 = 59, E8 = 60, F8 = 61, G8 = 62, H8 = 63;
+
+    public static final int NONE = Bitboards.NO_SQUARE;
+    public static final int COUNT = 64;
+
+    private static final String[] NAMES = new String[COUNT];
+    private static final byte[] FILES = new byte[COUNT];
+    private static final byte[] RANKS = new byte[COUNT];
+    private static final byte[] ROWS = new byte[COUNT];
+
+    static {
+        for (int square = 0; square < COUNT; square++) {
+            FILES[square] = (byte) (square & 7);
+            RANKS[square] = (byte) (square >>> 3);
+            ROWS[square] = (byte) (7 - RANKS[square]);
+            NAMES[square] = ("" + (char) ('a' + FILES[square]) + (char) ('1' + RANKS[square])).intern();
+        }
+    }
+
+    private Square() {
+    }
+
+    /**
+     * Convertit une case algébrique ("e4") en index, sans expression régulière ni allocation.
+     *
+     * @param name La case en notation algébrique
+     * @return L'index de la case, ou NONE si la chaîne n'est pas une case
+     */
+    public static int parse(String name) {
+        if (name == null || name.length() != 2) {
+            return NONE;
+        }
+        int file = name.charAt(0) - 'a';
+        int rank = name.charAt(1) - '1';
+        if ((file | rank) < 0 || file > 7 || rank > 7) {
+            return NONE;
+        }
+        return (rank << 3) | file;
+    }
+
+    /**
+     * @return Le nom algébrique de la case, toujours la même instance
+     */
+    public static String name(int square) {
+        return NAMES[square];
+    }
+
+    public static boolean isValid(int square) {
+        return (square & ~63) == 0;
+    }
+
+    public static int of(int file, int rank) {
+        return (rank << 3) | file;
+    }
+
+    public static int file(int square) {
+        return FILES[square];
+    }
+
+    public static int rank(int square) {
+        return RANKS[square];
+    }
+
+    /**
+     * Ligne d'affichage (0 = 8e rangée).
+     */
+    public static int row(int square) {
+        return ROWS[square];
+    }
+
+    public static int fromRowCol(int row, int col) {
+        return ((7 - row) << 3) | col;
+    }
+
+    /**
+     * Case décalée de (df, dr) colonnes et rangées.
+     *
+     * @return La case d'arrivée, ou NONE si elle sort du plateau
+     */
+    public static int offset(int square, int df, int dr) {
+        int file = FILES[square] + df;
+        int rank = RANKS[square] + dr;
+        if ((file | rank) < 0 || file > 7 || rank > 7) {
+            return NONE;
+        }
+        return (rank << 3) | file;
+    }
+}
@@ -0,0 +1,69 @@
+package board;
+
+/**
+ * Clés aléatoires de hachage Zobrist.
+ * La clé d'une position est le XOR des clés de chaque (pièce, case), des droits de roque,
+ * de la colonne de prise en passant et du trait. Les clés sont tirées d'un générateur
+ * à graine fixe : une position a la même clé d'une exécution à l'autre.
+ */
+public final class Zobrist {
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+
+    static final long[][] PIECE_SQUARE = new long[2 * Bitboards.PIECE_TYPES][64];
+    static final long[] CASTLING = new long[16];
+    static final long[] EN_PASSANT_FILE = new long[8];
+    static final long SIDE_TO_MOVE;
+
+    static {
+        long state = SEED;
+        for (long[] keys : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                state = next(state);
+                keys[square] = mix(state);
+            }
+        }
+        for (int rights = 0; rights < 16; rights++) {
+            state = next(state);
+            CASTLING[rights] = mix(state);
+        }
+        for (int file = 0; file < 8; file++) {
+            state = next(state);
+            EN_PASSANT_FILE[file] = mix(state);
+        }
+        state = next(state);
+        SIDE_TO_MOVE = mix(state);
+    }
+
+    private Zobrist() {
+    }
+
+    // SplitMix64 : incrément de Weyl puis mélange des bits
+    private static long next(long state) {
+        return state + 0x9E3779B97F4A7C15L;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static long pieceSquare(int pieceCode, int square) {
+        return PIECE_SQUARE[pieceCode][square];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * Clé de la case de prise en passant, ou 0 si aucune.
+     */
+    public static long enPassant(int square) {
+        return square == Bitboards.NO_SQUARE ? 0L : EN_PASSANT_FILE[Bitboards.fileOf(square)];
+    }
+
+    public static long sideToMove(int side) {
+        return side == Bitboards.BLACK ? SIDE_TO_MOVE : 0L;
+    }
+}
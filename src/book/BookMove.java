@@ -0,0 +1,10 @@
+package book;
+
+/**
+ * Un coup de bibliothèque d'ouvertures, déjà vérifié légal dans la position.
+ *
+ * @param move Le coup encodé (voir movegen.Move)
+ * @param weight Le poids de l'entrée (fréquence ou qualité du coup, 0..65535)
+ */
+public record BookMove(int move, int weight) {
+}
@@ -0,0 +1,254 @@
+package book;
+
+import static board.Bitboards.*;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import board.BitboardPosition;
+import board.Board;
+import movegen.Move;
+import movegen.MoveGenerator;
+import movegen.MoveList;
+
+/**
+ * Bibliothèque d'ouvertures au format Polyglot (.bin), projetée en mémoire.
+ *
+ * Le fichier est une suite d'entrées de 16 octets gros-boutistes (clé 8, coup 2, poids 2,
+ * apprentissage 4), triées par clé. Il est projeté par FileChannel.map en lecture seule :
+ * rien n'est copié sur le tas, l'ouverture est immédiate quelle que soit la taille, et
+ * les pages lues sont partagées par le cache du système entre tous les processus qui
+ * ouvrent le même livre. Une recherche coûte une dichotomie, soit une vingtaine de
+ * lectures pour des millions d'entrées.
+ *
+ * Les lectures sont absolues (sans position de tampon) : un même livre peut être
+ * interrogé par plusieurs threads.
+ */
+public class PolyglotBook implements AutoCloseable {
+    private static final int ENTRY_SIZE = 16;
+    // Taille d'une projection (multiple de ENTRY_SIZE) : un MappedByteBuffer est limité à 2 Go
+    private static final long SEGMENT_SIZE = 1L << 30;
+    // Types de promotion Polyglot (1 = cavalier .. 4 = dame) vers les types de Bitboards
+    private static final int[] PROMOTIONS = { 0, KNIGHT, BISHOP, ROOK, QUEEN };
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long entries;
+
+    private PolyglotBook(FileChannel channel, MappedByteBuffer[] segments, long entries) {
+        this.channel = channel;
+        this.segments = segments;
+        this.entries = entries;
+    }
+
+    /**
+     * Ouvre et projette un livre Polyglot.
+     *
+     * @param file Le fichier .bin
+     * @return Le livre
+     * @throws IOException si le fichier ne peut pas être ouvert ou projeté
+     * @throws IllegalStateException si la table Random64 est introuvable (voir PolyglotKeys)
+     */
+    public static PolyglotBook open(Path file) throws IOException {
+        PolyglotKeys.ensureLoaded();
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size % ENTRY_SIZE != 0) {
+                throw new IOException("Not a Polyglot book (size " + size + " is not a multiple of 16): " + file);
+            }
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+            for (int i = 0; i < segments.length; i++) {
+                long offset = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(SEGMENT_SIZE, size - offset));
+            }
+            return new PolyglotBook(channel, segments, size / ENTRY_SIZE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Nombre d'entrées du livre.
+     */
+    public long size() {
+        return entries;
+    }
+
+    /**
+     * Coups du livre pour la position du plateau.
+     *
+     * @see #probe(BitboardPosition)
+     */
+    public List<BookMove> probe(Board board) {
+        return probe(board.getBitboardPosition());
+    }
+
+    /**
+     * Coups du livre pour une position, dans l'ordre du fichier (poids décroissants pour
+     * les livres produits par polyglot make-book). Les entrées qui ne correspondent à aucun
+     * coup légal (collision de clé, livre corrompu) sont ignorées.
+     *
+     * @param position La position (non modifiée)
+     * @return Les coups légaux du livre, vide si la position n'y est pas
+     */
+    public List<BookMove> probe(BitboardPosition position) {
+        List<BookMove> moves = new ArrayList<>();
+        long key = PolyglotKeys.key(position);
+        long index = lowerBound(key);
+        if (index == entries || keyAt(index) != key) {
+            return moves;
+        }
+        MoveList legal = new MoveList();
+        MoveGenerator.generateLegal(position, legal);
+        for (; index < entries && keyAt(index) == key; index++) {
+            int move = decode(position, legal, moveAt(index));
+            if (move != Move.NONE) {
+                moves.add(new BookMove(move, weightAt(index)));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Coup de plus fort poids, ou Move.NONE si la position n'est pas dans le livre.
+     */
+    public int bestMove(BitboardPosition position) {
+        int best = Move.NONE;
+        int bestWeight = -1;
+        for (BookMove move : probe(position)) {
+            if (move.weight() > bestWeight) {
+                best = move.move();
+                bestWeight = move.weight();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Coup tiré au hasard proportionnellement aux poids (uniformément si tous sont nuls),
+     * ou Move.NONE si la position n'est pas dans le livre.
+     */
+    public int weightedMove(BitboardPosition position, RandomGenerator random) {
+        List<BookMove> moves = probe(position);
+        if (moves.isEmpty()) {
+            return Move.NONE;
+        }
+        long total = 0;
+        for (BookMove move : moves) {
+            total += move.weight();
+        }
+        if (total == 0) {
+            return moves.get(random.nextInt(moves.size())).move();
+        }
+        long pick = random.nextLong(total);
+        for (BookMove move : moves) {
+            pick -= move.weight();
+            if (pick < 0) {
+                return move.move();
+            }
+        }
+        return moves.get(moves.size() - 1).move();
+    }
+
+    /**
+     * Première entrée dont la clé (non signée) est supérieure ou égale à key.
+     */
+    private long lowerBound(long key) {
+        long low = 0;
+        long high = entries;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(long index) {
+        long offset = index * ENTRY_SIZE;
+        return segments[(int) (offset / SEGMENT_SIZE)].getLong((int) (offset % SEGMENT_SIZE));
+    }
+
+    private int moveAt(long index) {
+        long offset = index * ENTRY_SIZE + 8;
+        return segments[(int) (offset / SEGMENT_SIZE)].getShort((int) (offset % SEGMENT_SIZE)) & 0xFFFF;
+    }
+
+    private int weightAt(long index) {
+        long offset = index * ENTRY_SIZE + 10;
+        return segments[(int) (offset / SEGMENT_SIZE)].getShort((int) (offset % SEGMENT_SIZE)) & 0xFFFF;
+    }
+
+    /**
+     * Convertit un coup Polyglot (colonne et rangée d'arrivée sur 3 bits chacune, puis de
+     * départ, puis promotion) en coup légal encodé. Polyglot écrit le roque comme la prise
+     * de sa propre tour par le roi (e1h1) : il est ramené à e1g1.
+     */
+    private static int decode(BitboardPosition position, MoveList legal, int polyglotMove) {
+        int to = square(polyglotMove & 7, (polyglotMove >>> 3) & 7);
+        int from = square((polyglotMove >>> 6) & 7, (polyglotMove >>> 9) & 7);
+        int promotionCode = (polyglotMove >>> 12) & 7;
+        if (promotionCode >= PROMOTIONS.length) {
+            return Move.NONE;
+        }
+        int promotion = PROMOTIONS[promotionCode];
+
+        int piece = position.pieceAt(from);
+        if (piece != EMPTY && typeOf(piece) == KING && (from == 4 || from == 60) && rankOf(to) == rankOf(from)
+                && (fileOf(to) == 0 || fileOf(to) == 7)) {
+            to = fileOf(to) == 7 ? from + 2 : from - 2;
+        }
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            if (Move.from(move) == from && Move.to(move) == to && Move.promotion(move) == promotion) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Ferme le fichier. Les projections restent valides jusqu'à leur libération par le
+     * ramasse-miettes (Java ne permet pas de les détruire explicitement).
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Ligne de commande : book &lt;fichier.bin&gt; [fen] — liste les coups du livre et leurs poids.
+     *
+     * @param args Les arguments de la commande
+     * @throws IOException si le livre ne peut pas être lu
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: book <file.bin> [fen]");
+            return;
+        }
+        StringBuilder fen = new StringBuilder();
+        for (int i = 1; i < args.length; i++) {
+            fen.append(args[i]).append(' ');
+        }
+        BitboardPosition position = BitboardPosition.fromFen(
+                fen.length() == 0 ? BitboardPosition.START_FEN : fen.toString());
+        try (PolyglotBook book = open(Path.of(args[0]))) {
+            System.out.printf("%d entries, key %016x%n", book.size(), PolyglotKeys.key(position));
+            for (BookMove move : book.probe(position)) {
+                System.out.println(Move.toUci(move.move()) + " " + move.weight());
+            }
+        }
+    }
+}
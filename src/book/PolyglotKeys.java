@@ -0,0 +1,263 @@
+package book;
+
+import static board.Bitboards.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import board.BitboardPosition;
+import movegen.Attacks;
+import movegen.Move;
+import movegen.MoveGenerator;
+import movegen.MoveList;
+
+/**
+ * Clés de hachage au format Polyglot, distinctes des clés Zobrist du moteur (voir
+ * board.Zobrist) : les livres .bin sont indexés par les 781 nombres aléatoires
+ * « Random64 » publiés avec la spécification Polyglot.
+ *
+ * Ces nombres ne sont pas livrés avec le projet. Ils sont lus, au premier appel, dans
+ * le fichier désigné par la propriété système polyglot.random64, ou à défaut dans la
+ * ressource /polyglot/random64.txt (res/polyglot/random64.txt). Le fichier contient
+ * les 781 valeurs en hexadécimal préfixé par 0x, séparées par des blancs ou des
+ * virgules : le tableau C de la spécification peut être collé tel quel. La table est
+ * validée par les clés de test publiées avec la spécification : position initiale, puis
+ * deux suites de coups qui font intervenir roques, prise en passant et trait.
+ *
+ * La commande {@code java book.PolyglotKeys <source>} écrit cette ressource à partir de
+ * n'importe quel fichier qui contient le tableau (random.c de Polyglot, page de la
+ * spécification enregistrée...) : la lecture commence à la première valeur de la table.
+ */
+public final class PolyglotKeys {
+    public static final String PATH_PROPERTY = "polyglot.random64";
+    public static final String RESOURCE = "/polyglot/random64.txt";
+
+    static final long START_POSITION_KEY = 0x463B96181691FC9CL;
+    // Première valeur de la table, repère de début dans un fichier source quelconque
+    private static final long FIRST_VALUE = 0x9D39247E33776D41L;
+    // Suites de test de la spécification depuis la position initiale, et clé attendue
+    // après chaque coup (0 : clé non publiée)
+    private static final String[] TEST_LINES = {
+        "e2e4 d7d5 e4e5 f7f5 e1e2 e8f7",
+        "a2a4 b7b5 h2h4 b5b4 c2c4 b4c3 a1a2",
+    };
+    private static final long[][] TEST_KEYS = {
+        { 0x823C9B50FD114196L, 0x0756B94461C50FB0L, 0x662FAFB965DB29D4L, 0x22A48B5A8E47FF78L,
+          0x652A607CA3F242C1L, 0x00FDD303C946BDD9L },
+        { 0, 0, 0, 0, 0x3C8123EA7B067637L, 0, 0x5C3F9B829B279560L },
+    };
+
+    private static final int COUNT = 781;
+    private static final int CASTLING_OFFSET = 768;
+    private static final int EN_PASSANT_OFFSET = 772;
+    private static final int TURN_OFFSET = 780;
+    // Rang Polyglot de chaque type de Bitboards (pion, cavalier, fou, tour, dame, roi)
+    private static final int[] POLYGLOT_TYPES = { 0, 3, 1, 2, 4, 5 };
+    // Ordre Polyglot des droits de roque
+    private static final int[] CASTLING_FLAGS = { WHITE_KINGSIDE, WHITE_QUEENSIDE, BLACK_KINGSIDE, BLACK_QUEENSIDE };
+
+    private static volatile long[] random;
+
+    private PolyglotKeys() {
+    }
+
+    /**
+     * Indique si la table Random64 peut être chargée.
+     */
+    public static boolean isAvailable() {
+        try {
+            table();
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Charge la table Random64 si ce n'est pas déjà fait.
+     *
+     * @throws IllegalStateException si la table est introuvable ou invalide
+     */
+    static void ensureLoaded() {
+        table();
+    }
+
+    /**
+     * Calcule la clé Polyglot d'une position.
+     *
+     * @param position La position
+     * @return La clé Polyglot
+     * @throws IllegalStateException si la table Random64 est introuvable ou invalide
+     */
+    public static long key(BitboardPosition position) {
+        return key(position, table());
+    }
+
+    private static long key(BitboardPosition position, long[] random) {
+        long key = 0L;
+        long occupancy = position.occupied();
+        while (occupancy != 0) {
+            int square = lsb(occupancy);
+            occupancy = popLsb(occupancy);
+            int pieceCode = position.pieceAt(square);
+            int kind = 2 * POLYGLOT_TYPES[typeOf(pieceCode)] + (colorOf(pieceCode) == WHITE ? 1 : 0);
+            key ^= random[64 * kind + square];
+        }
+
+        int rights = position.getCastlingRights();
+        for (int i = 0; i < CASTLING_FLAGS.length; i++) {
+            if ((rights & CASTLING_FLAGS[i]) != 0) {
+                key ^= random[CASTLING_OFFSET + i];
+            }
+        }
+
+        // La colonne de prise en passant ne compte que si un pion du camp au trait peut prendre
+        int us = position.getSideToMove();
+        int epSquare = position.getEnPassantSquare();
+        if (epSquare != NO_SQUARE && (Attacks.pawn(us ^ 1, epSquare) & position.pieces(us, PAWN)) != 0) {
+            key ^= random[EN_PASSANT_OFFSET + fileOf(epSquare)];
+        }
+
+        if (us == WHITE) {
+            key ^= random[TURN_OFFSET];
+        }
+        return key;
+    }
+
+    private static long[] table() {
+        long[] table = random;
+        if (table == null) {
+            synchronized (PolyglotKeys.class) {
+                table = random;
+                if (table == null) {
+                    table = load();
+                    random = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    private static long[] load() {
+        String text;
+        try {
+            String path = System.getProperty(PATH_PROPERTY);
+            if (path != null) {
+                text = Files.readString(Path.of(path), StandardCharsets.US_ASCII);
+            } else {
+                try (InputStream in = PolyglotKeys.class.getResourceAsStream(RESOURCE)) {
+                    if (in == null) {
+                        throw new IllegalStateException("Polyglot Random64 table not found: set -D" + PATH_PROPERTY
+                                + "=<file> or run book.PolyglotKeys <source> to write res" + RESOURCE);
+                    }
+                    text = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read Polyglot Random64 table", e);
+        }
+        return parse(text, false);
+    }
+
+    /**
+     * Lit et valide une table Random64.
+     *
+     * @param text Le texte qui contient les valeurs en hexadécimal préfixé par 0x
+     * @param embedded true si la table est noyée dans un fichier plus large : la lecture
+     *        commence à la première valeur de la table et s'arrête à la 781e
+     * @return La table validée
+     * @throws IllegalStateException si la table est incomplète ou ne donne pas les clés de test
+     */
+    private static long[] parse(String text, boolean embedded) {
+        long[] table = new long[COUNT];
+        int count = 0;
+        for (String token : text.split("[\\s,;{}()]+")) {
+            if (!token.startsWith("0x") && !token.startsWith("0X")) {
+                continue;
+            }
+            int end = token.length();
+            while (end > 2 && (token.charAt(end - 1) == 'U' || token.charAt(end - 1) == 'L')) {
+                end--;
+            }
+            long value;
+            try {
+                value = Long.parseUnsignedLong(token.substring(2, end), 16);
+            } catch (NumberFormatException e) {
+                if (embedded) {
+                    continue;
+                }
+                throw new IllegalStateException("Invalid value in Polyglot Random64 table: " + token, e);
+            }
+            if (embedded && count == 0 && value != FIRST_VALUE) {
+                continue;
+            }
+            if (count == COUNT) {
+                if (embedded) {
+                    break;
+                }
+                throw new IllegalStateException("Polyglot Random64 table has more than " + COUNT + " values");
+            }
+            table[count++] = value;
+        }
+        if (count != COUNT) {
+            throw new IllegalStateException("Polyglot Random64 table has " + count + " values, expected " + COUNT);
+        }
+
+        BitboardPosition start = BitboardPosition.fromFen(BitboardPosition.START_FEN);
+        if (key(start, table) != START_POSITION_KEY) {
+            throw new IllegalStateException("Polyglot Random64 table does not match the specification");
+        }
+        MoveList legal = new MoveList();
+        for (int line = 0; line < TEST_LINES.length; line++) {
+            BitboardPosition position = new BitboardPosition(start);
+            String[] moves = TEST_LINES[line].split(" ");
+            for (int i = 0; i < moves.length; i++) {
+                position.makeMove(findMove(position, moves[i], legal));
+                if (TEST_KEYS[line][i] != 0 && key(position, table) != TEST_KEYS[line][i]) {
+                    throw new IllegalStateException("Polyglot Random64 table does not match the specification (after "
+                            + String.join(" ", Arrays.copyOf(moves, i + 1)) + ")");
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Ligne de commande : extrait la table d'un fichier source, la valide et l'écrit au
+     * format de la ressource (par défaut res/polyglot/random64.txt).
+     *
+     * @param args Le fichier source, puis éventuellement le fichier à écrire
+     * @throws IOException si un fichier ne peut pas être lu ou écrit
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: PolyglotKeys <source> [out]");
+            return;
+        }
+        long[] table = parse(Files.readString(Path.of(args[0]), StandardCharsets.ISO_8859_1), true);
+        Path out = Path.of(args.length > 1 ? args[1] : "res" + RESOURCE);
+        StringBuilder text = new StringBuilder(COUNT * 20);
+        for (int i = 0; i < COUNT; i++) {
+            text.append(String.format("0x%016X", table[i])).append(i % 4 == 3 || i == COUNT - 1 ? "\n" : ", ");
+        }
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        Files.writeString(out, text, StandardCharsets.US_ASCII);
+        System.out.println("Wrote " + COUNT + " values to " + out);
+    }
+
+    private static int findMove(BitboardPosition position, String uci, MoveList legal) {
+        MoveGenerator.generateLegal(position, legal);
+        for (int i = 0; i < legal.size(); i++) {
+            if (Move.toUci(legal.get(i)).equals(uci)) {
+                return legal.get(i);
+            }
+        }
+        throw new IllegalStateException("Illegal move in Polyglot test line: " + uci);
+    }
+}
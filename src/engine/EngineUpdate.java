@@ -0,0 +1,12 @@
+package engine;
+
+/**
+ * Résultat intermédiaire ou final publié par EngineWorker.
+ *
+ * @param requestId L'identifiant de la demande de recherche (voir EngineWorker.start)
+ * @param bestMove Le meilleur coup courant (movegen.Move.NONE si aucun coup légal)
+ * @param info Le compte rendu de la dernière itération terminée, ou null
+ * @param finished true si la recherche est terminée et bestMove est le coup à jouer
+ */
+public record EngineUpdate(long requestId, int bestMove, SearchInfo info, boolean finished) {
+}
@@ -0,0 +1,125 @@
+package engine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import board.BitboardPosition;
+import movegen.Move;
+
+/**
+ * Moteur asynchrone pour l'interface : les recherches tournent sur des threads dédiés,
+ * jamais sur la boucle de jeu ni sur le thread Swing.
+ *
+ * Les résultats passent par une boîte aux lettres sans verrou (AtomicReference) où seul
+ * le plus récent est conservé : la recherche publie chaque itération terminée puis le
+ * résultat final, et la boucle de jeu relève la boîte à chaque mise à jour (poll) sans
+ * jamais attendre. Chaque demande a un identifiant ; un résultat d'une demande annulée
+ * ou remplacée n'est jamais délivré.
+ *
+ * Les threads de recherche ont une priorité réduite et, par défaut, un cœur est laissé
+ * libre pour l'interface.
+ */
+public class EngineWorker {
+    private static final int ENGINE_PRIORITY = Thread.NORM_PRIORITY - 1;
+
+    private final TranspositionTable transpositionTable;
+    private final LazySmpSearch search;
+    private final ExecutorService searchThread;
+    private final AtomicLong currentRequest = new AtomicLong();
+    private final AtomicReference<EngineUpdate> mailbox = new AtomicReference<>();
+
+    public EngineWorker() {
+        this(TranspositionTable.DEFAULT_SIZE_MB, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * @param hashMb La taille de la table de transposition en Mo
+     * @param threads Le nombre de threads de recherche
+     */
+    public EngineWorker(int hashMb, int threads) {
+        transpositionTable = new TranspositionTable(hashMb);
+        search = new LazySmpSearch(transpositionTable, threads, ENGINE_PRIORITY);
+        searchThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "engine-worker");
+            thread.setDaemon(true);
+            thread.setPriority(ENGINE_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Lance une recherche ; la recherche en cours, s'il y en a une, est annulée.
+     * Ne bloque pas : la position est copiée et la recherche démarre sur le thread du moteur.
+     *
+     * @param position La position à chercher
+     * @param limits Les limites de la recherche
+     * @return L'identifiant de la demande, repris dans chaque EngineUpdate
+     */
+    public long start(BitboardPosition position, SearchLimits limits) {
+        long requestId = cancel();
+        BitboardPosition root = new BitboardPosition(position);
+        searchThread.execute(() -> run(requestId, root, limits));
+        return requestId;
+    }
+
+    private void run(long requestId, BitboardPosition root, SearchLimits limits) {
+        // Un cancel() reçu hors recherche a pu laisser le drapeau d'arrêt levé
+        search.clearStop();
+        if (requestId != currentRequest.get()) {
+            return;
+        }
+        SearchResult result = search.search(root, limits,
+                info -> publish(new EngineUpdate(requestId, info.pv().length > 0 ? info.pv()[0] : Move.NONE, info, false)));
+        publish(new EngineUpdate(requestId, result.bestMove(), null, true));
+    }
+
+    private void publish(EngineUpdate update) {
+        if (update.requestId() == currentRequest.get()) {
+            mailbox.set(update);
+        }
+    }
+
+    /**
+     * Annule la recherche en cours (coup joué par l'utilisateur, nouvelle partie...).
+     * Ses résultats ne seront plus délivrés. Ne bloque pas.
+     *
+     * @return Le nouvel identifiant courant
+     */
+    public long cancel() {
+        long requestId = currentRequest.incrementAndGet();
+        mailbox.set(null);
+        search.stop();
+        return requestId;
+    }
+
+    /**
+     * Relève le dernier résultat publié, sans attendre. Appelé depuis la boucle de jeu.
+     *
+     * @return Le résultat le plus récent de la demande courante, ou null s'il n'y a rien de nouveau
+     */
+    public EngineUpdate poll() {
+        EngineUpdate update = mailbox.getAndSet(null);
+        if (update == null || update.requestId() != currentRequest.get()) {
+            return null;
+        }
+        return update;
+    }
+
+    /**
+     * @return true si la demande n'a été ni annulée ni remplacée
+     */
+    public boolean isCurrent(long requestId) {
+        return requestId == currentRequest.get();
+    }
+
+    /**
+     * Arrête la recherche et libère les threads du moteur.
+     */
+    public void shutdown() {
+        cancel();
+        searchThread.shutdownNow();
+        search.shutdown();
+    }
+}
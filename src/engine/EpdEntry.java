@@ -0,0 +1,71 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import movegen.San;
+
+/**
+ * Une ligne d'une suite de tests EPD : quatre champs FEN suivis d'opérations
+ * "opcode opérandes;". Seules bm (meilleurs coups), am (coups à éviter) et id sont lues.
+ *
+ * Exemple : {@code 2rr3k/pp3pp1/1nnqbN1p/3pN3/2pP4/2P3Q1/PPB4P/R4RK1 w - - bm Qg6; id "WAC.001";}
+ *
+ * @param fen La position (champs de demi-coups et de numéro de coup ajoutés : "0 1")
+ * @param bestMoves Les coups attendus, en SAN normalisée (voir San.normalize)
+ * @param avoidMoves Les coups à éviter, en SAN normalisée
+ * @param id L'identifiant de la position, ou le numéro de ligne à défaut
+ */
+public record EpdEntry(String fen, List<String> bestMoves, List<String> avoidMoves, String id) {
+
+    /**
+     * Lit une ligne EPD.
+     *
+     * @param line La ligne
+     * @param lineNumber Le numéro de ligne, identifiant par défaut
+     * @return L'entrée
+     * @throws IllegalArgumentException si la ligne n'a pas quatre champs FEN
+     */
+    public static EpdEntry parse(String line, int lineNumber) {
+        String[] fields = line.trim().split("\\s+", 5);
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("EPD line " + lineNumber + " must start with 4 FEN fields: " + line);
+        }
+        String fen = fields[0] + " " + fields[1] + " " + fields[2] + " " + fields[3] + " 0 1";
+        List<String> bestMoves = new ArrayList<>();
+        List<String> avoidMoves = new ArrayList<>();
+        String id = String.valueOf(lineNumber);
+
+        String operations = fields.length > 4 ? fields[4] : "";
+        for (String operation : operations.split(";")) {
+            String[] parts = operation.trim().split("\\s+", 2);
+            if (parts.length < 2) {
+                continue;
+            }
+            switch (parts[0]) {
+                case "bm" -> addMoves(bestMoves, parts[1]);
+                case "am" -> addMoves(avoidMoves, parts[1]);
+                case "id" -> id = parts[1].replace("\"", "").trim();
+                default -> { }
+            }
+        }
+        return new EpdEntry(fen, bestMoves, avoidMoves, id);
+    }
+
+    private static void addMoves(List<String> moves, String operands) {
+        for (String san : operands.trim().split("\\s+")) {
+            moves.add(San.normalize(san));
+        }
+    }
+
+    /**
+     * Indique si le coup joué résout la position : parmi bm si bm est donné,
+     * hors de am si am est donné.
+     *
+     * @param san Le coup joué, en SAN
+     */
+    public boolean isSolvedBy(String san) {
+        String move = San.normalize(san);
+        return (bestMoves.isEmpty() || bestMoves.contains(move)) && !avoidMoves.contains(move);
+    }
+}
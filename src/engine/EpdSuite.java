@@ -0,0 +1,221 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import board.BitboardPosition;
+import movegen.Move;
+import movegen.San;
+
+/**
+ * Banc d'essai EPD : cherche chaque position d'une suite (bm / am) avec un temps fixe
+ * et compte les positions résolues. Le taux de réussite et les nœuds par seconde servent
+ * à comparer la force par seconde de calcul d'une version à l'autre.
+ *
+ * Les positions sont réparties sur un pool de threads. Chaque thread a sa propre
+ * recherche et sa propre table de transposition, vidée avant chaque position : le
+ * résultat d'une position ne dépend pas de l'ordre de passage.
+ */
+public class EpdSuite {
+    private static final long DEFAULT_MOVE_TIME_MS = 1000;
+
+    /**
+     * Résultat d'une position.
+     *
+     * @param entry La position de la suite
+     * @param move Le coup joué, en SAN ("-" si aucun)
+     * @param solved true si le coup résout la position
+     * @param nodes Les nœuds cherchés
+     * @param nanos La durée de la recherche
+     * @param error La cause de l'échec si la position n'a pas pu être cherchée, null sinon
+     */
+    public record Result(EpdEntry entry, String move, boolean solved, long nodes, long nanos, String error) {
+        static Result failed(EpdEntry entry, String error) {
+            return new Result(entry, "-", false, 0, 0, error);
+        }
+    }
+
+    /**
+     * Bilan d'une suite.
+     *
+     * @param results Les résultats, dans l'ordre de la suite
+     * @param wallNanos La durée totale, du lancement au dernier résultat
+     */
+    public record Report(List<Result> results, long wallNanos) {
+        public int solved() {
+            return (int) results.stream().filter(Result::solved).count();
+        }
+
+        /**
+         * Positions qui n'ont pas pu être cherchées (ligne EPD ou FEN invalide, erreur de la recherche).
+         */
+        public int errors() {
+            return (int) results.stream().filter(result -> result.error() != null).count();
+        }
+
+        public long nodes() {
+            return results.stream().mapToLong(Result::nodes).sum();
+        }
+
+        /**
+         * Nœuds par seconde de l'ensemble du pool (débit, temps réel écoulé).
+         */
+        public long aggregateNps() {
+            return nodes() * 1_000_000_000L / Math.max(1, wallNanos);
+        }
+
+        /**
+         * Nœuds par seconde d'un thread de recherche (somme des durées de recherche).
+         */
+        public long npsPerThread() {
+            return nodes() * 1_000_000_000L / Math.max(1, results.stream().mapToLong(Result::nanos).sum());
+        }
+    }
+
+    // Recherche et table de transposition propres à un thread du pool
+    private static final class Worker {
+        private final TranspositionTable transpositionTable;
+        private final Search search;
+
+        private Worker(int hashMb) {
+            transpositionTable = new TranspositionTable(hashMb);
+            search = new Search(transpositionTable);
+        }
+
+        private Result solve(EpdEntry entry, long moveTimeMs) {
+            BitboardPosition position = BitboardPosition.fromFen(entry.fen());
+            transpositionTable.clear();
+            long start = System.nanoTime();
+            SearchResult result = search.search(position, SearchLimits.moveTime(moveTimeMs), null);
+            long elapsed = System.nanoTime() - start;
+            String move = result.bestMove() == Move.NONE ? "-" : San.toSan(position, result.bestMove());
+            return new Result(entry, move, result.bestMove() != Move.NONE && entry.isSolvedBy(move),
+                    result.nodes(), elapsed, null);
+        }
+    }
+
+    /**
+     * Charge une suite EPD ; les lignes vides et les commentaires (#) sont ignorés.
+     * Une ligne illisible est gardée telle quelle comme FEN : la suite la compte en erreur
+     * au lieu de s'arrêter.
+     *
+     * @param file Le fichier EPD
+     * @return Les positions, dans l'ordre du fichier
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    public static List<EpdEntry> load(Path file) throws IOException {
+        List<EpdEntry> entries = new ArrayList<>();
+        List<String> lines = Files.readAllLines(file);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                try {
+                    entries.add(EpdEntry.parse(line, i + 1));
+                } catch (IllegalArgumentException e) {
+                    entries.add(new EpdEntry(line, List.of(), List.of(), String.valueOf(i + 1)));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Cherche toutes les positions sur un pool de threads. Une position invalide ou une
+     * erreur de la recherche donne un résultat en erreur et la suite continue.
+     *
+     * @param entries Les positions
+     * @param threads Le nombre de threads (une position par thread à la fois)
+     * @param moveTimeMs Le temps de recherche par position
+     * @param hashMb La taille de la table de transposition de chaque thread
+     * @return Le bilan, résultats dans l'ordre des positions
+     */
+    public static Report run(List<EpdEntry> entries, int threads, long moveTimeMs, int hashMb) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("EPD suite needs at least one thread");
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(() -> new Worker(hashMb));
+        long start = System.nanoTime();
+        try {
+            List<Future<Result>> futures = new ArrayList<>(entries.size());
+            for (EpdEntry entry : entries) {
+                futures.add(executor.submit(() -> workers.get().solve(entry, moveTimeMs)));
+            }
+            List<Result> results = new ArrayList<>(entries.size());
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(result(entries.get(i), futures.get(i)));
+            }
+            return new Report(results, System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Result result(EpdEntry entry, Future<Result> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("EPD suite interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            return Result.failed(entry, cause.getClass().getSimpleName() + ": " + cause.getMessage());
+        }
+    }
+
+    /**
+     * Ligne de commande : epd &lt;fichier.epd&gt; [--threads N] [--time ms] [--hash MB]
+     *
+     * @param args Les arguments de la commande
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: epd <file.epd> [--threads N] [--time ms] [--hash MB]");
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        long moveTime = DEFAULT_MOVE_TIME_MS;
+        int hashMb = TranspositionTable.DEFAULT_SIZE_MB;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(value(args, ++i));
+                case "--time" -> moveTime = Long.parseLong(value(args, ++i));
+                case "--hash" -> hashMb = Integer.parseInt(value(args, ++i));
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        List<EpdEntry> entries = load(Path.of(args[0]));
+        Report report = run(entries, threads, moveTime, hashMb);
+        for (Result result : report.results()) {
+            EpdEntry entry = result.entry();
+            String expected = !entry.bestMoves().isEmpty() ? "bm " + String.join(" ", entry.bestMoves())
+                    : "am " + String.join(" ", entry.avoidMoves());
+            if (result.error() != null) {
+                System.out.printf("  %s: ERROR %s%n", entry.id(), result.error());
+                continue;
+            }
+            System.out.printf("  %s: %s (%s) %s%n", entry.id(), result.move(), expected, result.solved() ? "OK" : "FAIL");
+        }
+        int total = report.results().size();
+        System.out.printf("Solved: %d/%d (%.1f%%), %d errors, %d threads, %d ms per position%n",
+                report.solved(), total, 100.0 * report.solved() / Math.max(1, total), report.errors(), threads, moveTime);
+        System.out.printf("Total: %d nodes, %d ms, %d nps aggregate, %d nps per thread%n",
+                report.nodes(), report.wallNanos() / 1_000_000, report.aggregateNps(), report.npsPerThread());
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+}
@@ -0,0 +1,113 @@
+package engine;
+
+import static board.Bitboards.*;
+
+import board.BitboardPosition;
+import board.PieceSquareTables;
+
+/**
+ * Évaluation statique d'une position, en centipions, du point de vue du camp au trait.
+ *
+ * Matériel et tables pièce-case sont tenus à jour par la position elle-même à chaque
+ * coup joué ou annulé (deux sommes : milieu et fin de partie). L'évaluation d'une feuille
+ * se réduit à une interpolation entre ces deux sommes selon la phase de jeu.
+ * Les termes de structure de pions s'y ajoutent, lus dans une PawnHashTable.
+ * Avec -ea, chaque évaluation est comparée à un recalcul complet.
+ */
+public final class Evaluation {
+    // Valeurs en centipions, indexées par type de pièce (ordre de pieces.PiecesEnum)
+    public static final int[] PIECE_VALUES = { 100, 500, 320, 330, 900, 0 };
+
+    private Evaluation() {
+    }
+
+    /**
+     * Évalue la position en recalculant la structure de pions (sans cache).
+     */
+    public static int evaluate(BitboardPosition position) {
+        assert checkIncremental(position);
+        int[] pawnTerms = new int[2];
+        PawnStructure.evaluate(position, pawnTerms);
+        int score = taper(position.getMidgameScore() + pawnTerms[0], position.getEndgameScore() + pawnTerms[1],
+                position.getPhase());
+        return position.getSideToMove() == WHITE ? score : -score;
+    }
+
+    /**
+     * Évalue la position, la structure de pions venant du cache du thread appelant.
+     *
+     * @param position La position
+     * @param pawnTable La table de hachage des pions du thread
+     */
+    public static int evaluate(BitboardPosition position, PawnHashTable pawnTable) {
+        assert checkIncremental(position);
+        int[] pawnTerms = pawnTable.probe(position);
+        int score = taper(position.getMidgameScore() + pawnTerms[0], position.getEndgameScore() + pawnTerms[1],
+                position.getPhase());
+        return position.getSideToMove() == WHITE ? score : -score;
+    }
+
+    /**
+     * Interpole entre les scores de milieu et de fin de partie.
+     *
+     * @param phase La phase de jeu (24 = toutes les pièces, 0 = rois et pions)
+     */
+    static int taper(int midgame, int endgame, int phase) {
+        int weight = Math.min(phase, PieceSquareTables.TOTAL_PHASE);
+        return (midgame * weight + endgame * (PieceSquareTables.TOTAL_PHASE - weight)) / PieceSquareTables.TOTAL_PHASE;
+    }
+
+    /**
+     * Évalue la position en parcourant toutes les pièces, sans les sommes incrémentales.
+     * Sert de référence pour le débogage ; trop lent pour la recherche.
+     */
+    public static int evaluateFromScratch(BitboardPosition position) {
+        int[] terms = recompute(position);
+        int[] pawnTerms = new int[2];
+        PawnStructure.evaluate(position, pawnTerms);
+        int score = taper(terms[0] + pawnTerms[0], terms[1] + pawnTerms[1], terms[2]);
+        return position.getSideToMove() == WHITE ? score : -score;
+    }
+
+    /**
+     * Vérifie que les sommes incrémentales de la position égalent un recalcul complet.
+     *
+     * @return true (pour être utilisé dans un assert)
+     * @throws IllegalStateException si elles divergent
+     */
+    public static boolean checkIncremental(BitboardPosition position) {
+        int[] terms = recompute(position);
+        if (terms[0] != position.getMidgameScore() || terms[1] != position.getEndgameScore()
+                || terms[2] != position.getPhase() || position.computePawnKey() != position.getPawnKey()) {
+            throw new IllegalStateException("Incremental evaluation out of sync: mg " + position.getMidgameScore()
+                    + "/" + terms[0] + ", eg " + position.getEndgameScore() + "/" + terms[1]
+                    + ", phase " + position.getPhase() + "/" + terms[2]
+                    + ", pawn key " + Long.toHexString(position.getPawnKey()));
+        }
+        return true;
+    }
+
+    private static int[] recompute(BitboardPosition position) {
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        long occupancy = position.occupied();
+        while (occupancy != 0) {
+            int square = lsb(occupancy);
+            occupancy = popLsb(occupancy);
+            int pieceCode = position.pieceAt(square);
+            midgame += PieceSquareTables.midgame(pieceCode, square);
+            endgame += PieceSquareTables.endgame(pieceCode, square);
+            phase += PieceSquareTables.phase(pieceCode);
+        }
+        return new int[] { midgame, endgame, phase };
+    }
+
+    /**
+     * Indique si un camp a encore des pièces autres que pions et roi ;
+     * sans elles, l'élagage par coup nul est désactivé (risque de zugzwang).
+     */
+    public static boolean hasNonPawnMaterial(BitboardPosition position, int color) {
+        return (position.colorOccupancy(color) & ~position.pieces(color, PAWN) & ~position.pieces(color, KING)) != 0;
+    }
+}
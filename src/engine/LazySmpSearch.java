@@ -0,0 +1,171 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import board.BitboardPosition;
+import tablebase.Syzygy;
+
+/**
+ * Recherche multi-thread Lazy SMP.
+ *
+ * Tous les threads cherchent la même racine et ne partagent que la table de transposition :
+ * chacun a sa propre instance de Search (copie de la position, tampons de coups, tables
+ * d'historique). Les threads auxiliaires sautent des profondeurs, chacun selon son
+ * motif, pour diversifier l'arbre ; le thread appelant fait office de thread principal et c'est son
+ * résultat qui est retenu. Quand il s'arrête, les auxiliaires sont arrêtés aussi.
+ */
+public class LazySmpSearch {
+    // Profondeurs sautées par les auxiliaires, par blocs de SKIP_SIZE décalés de SKIP_PHASE
+    // (voir Search.joinGroup) : deux auxiliaires voisins ne suivent pas la même séquence
+    private static final int[] SKIP_SIZE = { 1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4 };
+    private static final int[] SKIP_PHASE = { 0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7 };
+
+    private final TranspositionTable transpositionTable;
+    private final AtomicBoolean stopFlag = new AtomicBoolean();
+    private final List<Search> searches = new ArrayList<>();
+    private final int threadPriority;
+    private ExecutorService helperPool;
+    private Syzygy tablebases;
+    private int probeLimit;
+
+    /**
+     * @param transpositionTable La table partagée par tous les threads
+     * @param threads Le nombre total de threads, thread principal compris
+     */
+    public LazySmpSearch(TranspositionTable transpositionTable, int threads) {
+        this(transpositionTable, threads, Thread.NORM_PRIORITY);
+    }
+
+    /**
+     * @param transpositionTable La table partagée par tous les threads
+     * @param threads Le nombre total de threads, thread principal compris
+     * @param threadPriority La priorité des threads auxiliaires
+     */
+    public LazySmpSearch(TranspositionTable transpositionTable, int threads, int threadPriority) {
+        this.transpositionTable = transpositionTable;
+        this.threadPriority = threadPriority;
+        setThreads(threads);
+    }
+
+    /**
+     * Change le nombre de threads ; ne doit pas être appelé pendant une recherche.
+     *
+     * @param threads Le nombre total de threads, au moins 1
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        shutdown();
+        searches.clear();
+        for (int i = 0; i < threads; i++) {
+            Search search = new Search(transpositionTable);
+            int pattern = Math.max(0, i - 1) % SKIP_SIZE.length;
+            search.joinGroup(stopFlag, SKIP_SIZE[pattern], SKIP_PHASE[pattern], i > 0, this::getNodes);
+            search.setTablebases(tablebases, probeLimit);
+            searches.add(search);
+        }
+        helperPool = threads > 1 ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            thread.setPriority(threadPriority);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Branche les mêmes tables de finales sur tous les threads ; ne doit pas être appelé
+     * pendant une recherche.
+     *
+     * @param tablebases Les tables, ou null pour les retirer
+     * @param probeLimit Le nombre maximal de pièces pour lire les tables dans l'arbre
+     */
+    public void setTablebases(Syzygy tablebases, int probeLimit) {
+        this.tablebases = tablebases;
+        this.probeLimit = probeLimit;
+        for (Search search : searches) {
+            search.setTablebases(tablebases, probeLimit);
+        }
+    }
+
+    public int getThreads() {
+        return searches.size();
+    }
+
+    /**
+     * Cherche la position sur tous les threads et retourne le résultat du thread principal.
+     *
+     * @param root La position à chercher (chaque thread en fait sa propre copie)
+     * @param limits Les limites de la recherche
+     * @param listener Reçoit les comptes rendus du thread principal, ou null
+     * @return Le résultat du thread principal
+     */
+    public SearchResult search(BitboardPosition root, SearchLimits limits, SearchListener listener) {
+        for (Search search : searches) {
+            search.resetNodes();
+        }
+        List<Future<SearchResult>> helpers = new ArrayList<>();
+        for (int i = 1; i < searches.size(); i++) {
+            Search helper = searches.get(i);
+            helpers.add(helperPool.submit(() -> helper.search(root, limits, null)));
+        }
+
+        SearchResult result = searches.get(0).search(root, limits, listener);
+        stopFlag.set(true);
+        for (Future<SearchResult> helper : helpers) {
+            try {
+                helper.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search helper failed", e.getCause());
+            }
+        }
+        // Réarmé en fin de recherche : un stop reçu juste avant le démarrage n'est pas perdu
+        stopFlag.set(false);
+        return new SearchResult(result.bestMove(), result.ponderMove(), result.score(), result.depth(), getNodes());
+    }
+
+    /**
+     * Arrête la recherche en cours sur tous les threads ; peut être appelé depuis un autre thread.
+     * Appelé avant le démarrage d'une recherche, celle-ci s'arrête dès la première itération.
+     */
+    public void stop() {
+        stopFlag.set(true);
+    }
+
+    /**
+     * Efface un arrêt demandé alors qu'aucune recherche n'était en cours.
+     */
+    void clearStop() {
+        stopFlag.set(false);
+    }
+
+    /**
+     * Nombre total de nœuds visités par tous les threads pendant la recherche courante.
+     */
+    public long getNodes() {
+        long nodes = 0;
+        for (Search search : searches) {
+            nodes += search.getNodes();
+        }
+        return nodes;
+    }
+
+    /**
+     * Libère les threads auxiliaires.
+     */
+    public void shutdown() {
+        if (helperPool != null) {
+            helperPool.shutdownNow();
+            helperPool = null;
+        }
+    }
+}
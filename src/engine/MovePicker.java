@@ -0,0 +1,333 @@
+package engine;
+
+import static board.Bitboards.*;
+
+import board.BitboardPosition;
+import movegen.Attacks;
+import movegen.Move;
+import movegen.MoveGenerator;
+import movegen.MoveList;
+
+/**
+ * Sélecteur de coups par étapes pour la recherche : les coups sont produits dans l'ordre
+ * où ils ont le plus de chances de provoquer une coupure, et chaque étape n'est générée
+ * que si les précédentes n'ont pas suffi.
+ *
+ * 1. Coup de la table de transposition, vérifié sans rien générer d'autre
+ * 2. Bonnes captures et promotions, par MVV-LVA (victime la plus chère, attaquant le
+ *    moins cher) ; une capture d'une pièce moins chère que l'attaquant n'est bonne que si
+ *    l'échange statique (SEE) ne perd pas de matériel
+ * 3. Coups meurtriers (killers) du ply puis coup de réfutation (countermove) du coup
+ *    adverse précédent, s'ils sont calmes et légaux ici
+ * 4. Mauvaises captures, dans l'ordre de MVV-LVA : elles restent plus souvent
+ *    réfutantes que le coup calme moyen (mesuré sur un banc de positions à profondeur
+ *    fixe : moins de nœuds qu'en les gardant pour la fin)
+ * 5. Coups calmes, par l'historique papillon (départ, arrivée) du camp au trait
+ *
+ * En recherche de quiétude, seules les captures et promotions sont produites, par
+ * MVV-LVA, sans séparation par SEE. Un sélecteur par ply, réutilisé : rien n'est alloué.
+ */
+final class MovePicker {
+    // Valeurs de l'échange statique : celles de l'évaluation, roi imprenable
+    private static final int[] SEE_VALUES = {
+        Evaluation.PIECE_VALUES[PAWN], Evaluation.PIECE_VALUES[ROOK], Evaluation.PIECE_VALUES[KNIGHT],
+        Evaluation.PIECE_VALUES[BISHOP], Evaluation.PIECE_VALUES[QUEEN], 20_000
+    };
+    // Attaquants du moins cher au plus cher
+    private static final int[] LEAST_VALUABLE_FIRST = { PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING };
+
+    private static final int STAGE_TT_MOVE = 0;
+    private static final int STAGE_GENERATE_CAPTURES = 1;
+    private static final int STAGE_GOOD_CAPTURES = 2;
+    private static final int STAGE_KILLER_1 = 3;
+    private static final int STAGE_KILLER_2 = 4;
+    private static final int STAGE_COUNTER_MOVE = 5;
+    private static final int STAGE_BAD_CAPTURES = 6;
+    private static final int STAGE_GENERATE_QUIETS = 7;
+    private static final int STAGE_QUIETS = 8;
+    private static final int STAGE_DONE = 9;
+    private static final int STAGE_QUIESCENCE_GENERATE = 10;
+    private static final int STAGE_QUIESCENCE_CAPTURES = 11;
+
+    private final int[][] history;
+    private final MoveList captures = new MoveList();
+    private final int[] captureScores = new int[MoveList.MAX_MOVES];
+    private final MoveList quiets = new MoveList();
+    private final int[] quietScores = new int[MoveList.MAX_MOVES];
+    private final MoveList badCaptures = new MoveList();
+    private final MoveList scratch = new MoveList();
+    private final int[] swapList = new int[32];
+
+    private BitboardPosition position;
+    private int stage;
+    private int index;
+    private int ttMove;
+    private int killer1;
+    private int killer2;
+    private int counterMove;
+
+    /**
+     * @param history L'historique papillon de la recherche, [camp][départ * 64 + arrivée]
+     */
+    MovePicker(int[][] history) {
+        this.history = history;
+    }
+
+    /**
+     * Prépare la sélection des coups d'un nœud de la recherche principale.
+     *
+     * @param position La position du nœud (jouée et annulée par l'appelant entre deux next)
+     * @param ttMove Le coup de la table, ou Move.NONE
+     * @param killer1 Le premier coup meurtrier du ply, ou Move.NONE
+     * @param killer2 Le second coup meurtrier du ply, ou Move.NONE
+     * @param counterMove La réfutation connue du coup précédent, ou Move.NONE
+     */
+    void init(BitboardPosition position, int ttMove, int killer1, int killer2, int counterMove) {
+        this.position = position;
+        this.ttMove = ttMove;
+        this.killer1 = killer1;
+        this.killer2 = killer2 != killer1 ? killer2 : Move.NONE;
+        this.counterMove = counterMove != killer1 && counterMove != killer2 ? counterMove : Move.NONE;
+        stage = ttMove != Move.NONE ? STAGE_TT_MOVE : STAGE_GENERATE_CAPTURES;
+    }
+
+    /**
+     * Prépare la sélection des captures et promotions d'un nœud de quiétude.
+     */
+    void initQuiescence(BitboardPosition position) {
+        this.position = position;
+        ttMove = killer1 = killer2 = counterMove = Move.NONE;
+        stage = STAGE_QUIESCENCE_GENERATE;
+    }
+
+    /**
+     * Coup suivant, légal dans la position, jamais deux fois le même.
+     *
+     * @return Le coup, ou Move.NONE quand il n'y en a plus
+     */
+    int next() {
+        while (true) {
+            switch (stage) {
+                case STAGE_TT_MOVE -> {
+                    stage = STAGE_GENERATE_CAPTURES;
+                    if (isLegal(ttMove)) {
+                        return ttMove;
+                    }
+                }
+                case STAGE_GENERATE_CAPTURES, STAGE_QUIESCENCE_GENERATE -> {
+                    MoveGenerator.generateLegalCaptures(position, captures);
+                    scoreCaptures();
+                    badCaptures.clear();
+                    index = 0;
+                    stage = stage == STAGE_GENERATE_CAPTURES ? STAGE_GOOD_CAPTURES : STAGE_QUIESCENCE_CAPTURES;
+                }
+                case STAGE_GOOD_CAPTURES -> {
+                    while (index < captures.size()) {
+                        int move = pickBest(captures, captureScores, index++);
+                        if (move == ttMove) {
+                            continue;
+                        }
+                        if (!isGoodCapture(move)) {
+                            badCaptures.add(move);
+                            continue;
+                        }
+                        return move;
+                    }
+                    stage = STAGE_KILLER_1;
+                }
+                case STAGE_KILLER_1 -> {
+                    stage = STAGE_KILLER_2;
+                    if (isRefutation(killer1)) {
+                        return killer1;
+                    }
+                }
+                case STAGE_KILLER_2 -> {
+                    stage = STAGE_COUNTER_MOVE;
+                    if (isRefutation(killer2)) {
+                        return killer2;
+                    }
+                }
+                case STAGE_COUNTER_MOVE -> {
+                    index = 0;
+                    stage = STAGE_BAD_CAPTURES;
+                    if (isRefutation(counterMove)) {
+                        return counterMove;
+                    }
+                }
+                case STAGE_BAD_CAPTURES -> {
+                    if (index < badCaptures.size()) {
+                        return badCaptures.get(index++);
+                    }
+                    stage = STAGE_GENERATE_QUIETS;
+                }
+                case STAGE_GENERATE_QUIETS -> {
+                    generateQuiets();
+                    index = 0;
+                    stage = STAGE_QUIETS;
+                }
+                case STAGE_QUIETS -> {
+                    if (index < quiets.size()) {
+                        return pickBest(quiets, quietScores, index++);
+                    }
+                    stage = STAGE_DONE;
+                }
+                case STAGE_QUIESCENCE_CAPTURES -> {
+                    if (index < captures.size()) {
+                        return pickBest(captures, captureScores, index++);
+                    }
+                    stage = STAGE_DONE;
+                }
+                default -> {
+                    return Move.NONE;
+                }
+            }
+        }
+    }
+
+    /**
+     * MVV-LVA : dix fois la valeur gagnée (victime et promotion), moins un dixième de
+     * la valeur de l'attaquant.
+     */
+    private void scoreCaptures() {
+        for (int i = 0; i < captures.size(); i++) {
+            int move = captures.get(i);
+            int attacker = typeOf(position.pieceAt(Move.from(move)));
+            captureScores[i] = 10 * gain(move) - Evaluation.PIECE_VALUES[attacker] / 10;
+        }
+    }
+
+    private int gain(int move) {
+        int victim = Move.isEnPassant(move) ? PAWN : typeOf(position.pieceAt(Move.to(move)));
+        int victimValue = Move.isCapture(move) ? Evaluation.PIECE_VALUES[victim] : 0;
+        int promotionValue = Move.isPromotion(move) ? Evaluation.PIECE_VALUES[Move.promotion(move)] : 0;
+        return victimValue + promotionValue;
+    }
+
+    /**
+     * Une capture est bonne si la victime vaut au moins l'attaquant, sinon si l'échange
+     * statique ne perd rien. Les sous-promotions sont renvoyées avec les mauvaises captures.
+     */
+    private boolean isGoodCapture(int move) {
+        if (Move.isPromotion(move) && Move.promotion(move) != QUEEN) {
+            return false;
+        }
+        int attacker = typeOf(position.pieceAt(Move.from(move)));
+        if (Move.isCapture(move) && !Move.isPromotion(move) && gain(move) >= Evaluation.PIECE_VALUES[attacker]) {
+            return true;
+        }
+        return see(move) >= 0;
+    }
+
+    /**
+     * Les coups calmes légaux, hors coups déjà essayés, notés par l'historique.
+     */
+    private void generateQuiets() {
+        MoveGenerator.generateLegal(position, quiets);
+        int[] table = history[position.getSideToMove()];
+        int size = 0;
+        for (int i = 0; i < quiets.size(); i++) {
+            int move = quiets.get(i);
+            if (Move.isTactical(move) || move == ttMove || move == killer1 || move == killer2 || move == counterMove) {
+                continue;
+            }
+            quiets.set(size, move);
+            quietScores[size++] = table[Move.from(move) << 6 | Move.to(move)];
+        }
+        while (quiets.size() > size) {
+            quiets.removeAt(quiets.size() - 1);
+        }
+    }
+
+    /**
+     * Sélection paresseuse : amène à l'index donné le coup restant le mieux noté.
+     */
+    private static int pickBest(MoveList moves, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int tmp = scores[index];
+            scores[index] = scores[best];
+            scores[best] = tmp;
+        }
+        return moves.get(index);
+    }
+
+    /**
+     * Un killer ou un countermove n'est joué à son étape que s'il est calme, différent du
+     * coup de la table et légal dans cette position (il vient d'une autre position).
+     */
+    private boolean isRefutation(int move) {
+        return move != Move.NONE && move != ttMove && !Move.isTactical(move) && isLegal(move);
+    }
+
+    /**
+     * Vérifie un coup venu d'ailleurs (table, killers) en ne générant que les coups de sa
+     * pièce de départ.
+     */
+    private boolean isLegal(int move) {
+        int piece = position.pieceAt(Move.from(move));
+        if (piece == EMPTY || colorOf(piece) != position.getSideToMove()) {
+            return false;
+        }
+        MoveGenerator.generateLegalFrom(position, Move.from(move), scratch);
+        return scratch.contains(move);
+    }
+
+    /**
+     * Échange statique sur la case d'arrivée : chaque camp reprend avec son attaquant le
+     * moins cher, les pièces glissantes masquées (rayons X) entrant en jeu à mesure que
+     * l'occupation se vide. Chaque camp peut ensuite s'arrêter plutôt que reprendre :
+     * la liste des gains est remontée en gardant, à chaque prise, le meilleur des deux.
+     *
+     * @return Le gain matériel du coup pour le camp qui le joue, en centipions
+     */
+    int see(int move) {
+        if (Move.isCastling(move)) {
+            return 0;
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int side = colorOf(position.pieceAt(from));
+        long occupied = position.occupied() ^ bit(from);
+        if (Move.isEnPassant(move)) {
+            occupied ^= bit(side == WHITE ? to - 8 : to + 8);
+        }
+        int onSquare = SEE_VALUES[Move.isPromotion(move) ? Move.promotion(move) : typeOf(position.pieceAt(from))];
+        swapList[0] = gain(move) - (Move.isPromotion(move) ? SEE_VALUES[PAWN] : 0);
+
+        int depth = 0;
+        long attackers = Attacks.attackersTo(position, to, occupied) & occupied;
+        side ^= 1;
+        while (depth + 1 < swapList.length) {
+            long ours = attackers & position.colorOccupancy(side);
+            if (ours == 0) {
+                break;
+            }
+            int type = PAWN;
+            long candidates = 0;
+            for (int attacker : LEAST_VALUABLE_FIRST) {
+                candidates = ours & position.pieces(side, attacker);
+                if (candidates != 0) {
+                    type = attacker;
+                    break;
+                }
+            }
+            depth++;
+            swapList[depth] = onSquare - swapList[depth - 1];
+            occupied ^= candidates & -candidates;
+            attackers = Attacks.attackersTo(position, to, occupied) & occupied;
+            onSquare = SEE_VALUES[type];
+            side ^= 1;
+        }
+        while (depth > 0) {
+            swapList[depth - 1] = -Math.max(-swapList[depth - 1], swapList[depth]);
+            depth--;
+        }
+        return swapList[0];
+    }
+}
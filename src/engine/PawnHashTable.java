@@ -0,0 +1,98 @@
+package engine;
+
+import java.util.Arrays;
+
+import board.BitboardPosition;
+
+/**
+ * Table de hachage des structures de pions, à taille fixe.
+ *
+ * La structure de pions change rarement d'un nœud à l'autre : ses termes (voir
+ * PawnStructure) sont mis en cache sous la clé Zobrist des pions. Une entrée est
+ * remplacée sans condition en cas de collision d'index.
+ *
+ * Chaque thread de recherche a sa propre table (quelques centaines de Ko, qui tiennent
+ * dans le cache L2) : ni synchronisation ni entrées déchirées.
+ */
+public class PawnHashTable {
+    public static final int DEFAULT_ENTRIES = 1 << 14;
+
+    private final long[] keys;
+    private final int[] midgameScores;
+    private final int[] endgameScores;
+    private final boolean[] used;
+    private final int mask;
+    private final int[] scores = new int[2];
+
+    private long probes;
+    private long hits;
+
+    public PawnHashTable() {
+        this(DEFAULT_ENTRIES);
+    }
+
+    /**
+     * @param entries Le nombre d'entrées, arrondi à la puissance de 2 inférieure
+     */
+    public PawnHashTable(int entries) {
+        if (entries < 1) {
+            throw new IllegalArgumentException("Pawn hash table must have at least one entry");
+        }
+        int size = Integer.highestOneBit(entries);
+        keys = new long[size];
+        midgameScores = new int[size];
+        endgameScores = new int[size];
+        used = new boolean[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Retourne les termes de structure de pions de la position, depuis le cache si possible.
+     *
+     * @param position La position
+     * @return Score de milieu (indice 0) et de fin de partie (indice 1), blancs moins noirs ;
+     *         le tableau est réutilisé par l'appel suivant
+     */
+    public int[] probe(BitboardPosition position) {
+        long key = position.getPawnKey();
+        int index = (int) key & mask;
+        probes++;
+        if (used[index] && keys[index] == key) {
+            hits++;
+            scores[0] = midgameScores[index];
+            scores[1] = endgameScores[index];
+        } else {
+            PawnStructure.evaluate(position, scores);
+            keys[index] = key;
+            midgameScores[index] = scores[0];
+            endgameScores[index] = scores[1];
+            used[index] = true;
+        }
+        return scores;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        resetCounters();
+    }
+
+    public long getProbes() {
+        return probes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Taux de succès depuis la dernière remise à zéro, entre 0 et 1.
+     */
+    public double hitRate() {
+        return probes == 0 ? 0.0 : (double) hits / probes;
+    }
+
+    public void resetCounters() {
+        probes = 0;
+        hits = 0;
+    }
+}
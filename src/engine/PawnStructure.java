@@ -0,0 +1,121 @@
+package engine;
+
+import static board.Bitboards.*;
+
+import board.BitboardPosition;
+import movegen.Attacks;
+
+/**
+ * Termes de structure de pions : pions doublés, isolés, arriérés et passés.
+ * Ne dépend que des pions ; le résultat est donc mis en cache par PawnHashTable
+ * sous la clé de pions de la position.
+ *
+ * Définitions (du point de vue du pion, qui avance vers la rangée de promotion) :
+ * - doublé : un autre pion ami sur la même colonne, pénalité par pion en trop
+ * - isolé : aucun pion ami sur les colonnes voisines
+ * - arriéré : non isolé, aucun pion ami voisin à sa hauteur ou derrière pour le soutenir,
+ *   et sa case d'arrêt est attaquée par un pion adverse
+ * - passé : aucun pion adverse devant lui sur sa colonne ou les colonnes voisines,
+ *   bonus croissant avec la rangée
+ */
+public final class PawnStructure {
+    private static final int DOUBLED_MG = -10;
+    private static final int DOUBLED_EG = -20;
+    private static final int ISOLATED_MG = -10;
+    private static final int ISOLATED_EG = -15;
+    private static final int BACKWARD_MG = -8;
+    private static final int BACKWARD_EG = -10;
+    // Bonus de pion passé par rangée relative (0 = rangée de départ du camp)
+    private static final int[] PASSED_MG = { 0, 5, 10, 15, 25, 40, 60, 0 };
+    private static final int[] PASSED_EG = { 0, 10, 15, 25, 45, 75, 115, 0 };
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    // Cases devant le pion sur sa colonne et les colonnes voisines
+    private static final long[][] PASSED_MASKS = new long[2][64];
+    // Cases des colonnes voisines à la hauteur du pion ou derrière lui
+    private static final long[][] SUPPORT_MASKS = new long[2][64];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            FILES[file] = FILE_A << file;
+        }
+        for (int file = 0; file < 8; file++) {
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0L) | (file < 7 ? FILES[file + 1] : 0L);
+        }
+        for (int square = 0; square < 64; square++) {
+            int file = fileOf(square);
+            int rank = rankOf(square);
+            long span = FILES[file] | ADJACENT_FILES[file];
+            for (int r = 0; r < 8; r++) {
+                long rankMask = RANK_1 << (8 * r);
+                if (r > rank) {
+                    PASSED_MASKS[WHITE][square] |= span & rankMask;
+                } else {
+                    SUPPORT_MASKS[WHITE][square] |= ADJACENT_FILES[file] & rankMask;
+                }
+                if (r < rank) {
+                    PASSED_MASKS[BLACK][square] |= span & rankMask;
+                } else {
+                    SUPPORT_MASKS[BLACK][square] |= ADJACENT_FILES[file] & rankMask;
+                }
+            }
+        }
+    }
+
+    private PawnStructure() {
+    }
+
+    /**
+     * Calcule les termes de structure de pions, blancs moins noirs.
+     *
+     * @param position La position
+     * @param scores Reçoit le score de milieu (indice 0) et de fin de partie (indice 1)
+     */
+    public static void evaluate(BitboardPosition position, int[] scores) {
+        long whitePawns = position.pieces(WHITE, PAWN);
+        long blackPawns = position.pieces(BLACK, PAWN);
+        int midgame = 0;
+        int endgame = 0;
+        for (int color = WHITE; color <= BLACK; color++) {
+            long ours = color == WHITE ? whitePawns : blackPawns;
+            long theirs = color == WHITE ? blackPawns : whitePawns;
+            int sign = color == WHITE ? 1 : -1;
+
+            for (int file = 0; file < 8; file++) {
+                int count = popCount(ours & FILES[file]);
+                if (count > 1) {
+                    midgame += sign * DOUBLED_MG * (count - 1);
+                    endgame += sign * DOUBLED_EG * (count - 1);
+                }
+            }
+
+            long pawns = ours;
+            while (pawns != 0) {
+                int square = lsb(pawns);
+                pawns = popLsb(pawns);
+                int file = fileOf(square);
+
+                if ((ours & ADJACENT_FILES[file]) == 0) {
+                    midgame += sign * ISOLATED_MG;
+                    endgame += sign * ISOLATED_EG;
+                } else if ((ours & SUPPORT_MASKS[color][square]) == 0) {
+                    int stop = color == WHITE ? square + 8 : square - 8;
+                    // Les pions adverses qui attaquent la case d'arrêt
+                    if ((Attacks.pawn(color, stop) & theirs) != 0) {
+                        midgame += sign * BACKWARD_MG;
+                        endgame += sign * BACKWARD_EG;
+                    }
+                }
+
+                if ((theirs & PASSED_MASKS[color][square]) == 0) {
+                    int relativeRank = color == WHITE ? rankOf(square) : 7 - rankOf(square);
+                    midgame += sign * PASSED_MG[relativeRank];
+                    endgame += sign * PASSED_EG[relativeRank];
+                }
+            }
+        }
+        scores[0] = midgame;
+        scores[1] = endgame;
+    }
+}
@@ -0,0 +1,590 @@
+package engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import board.BitboardPosition;
+import movegen.Attacks;
+import movegen.Move;
+import movegen.MoveGenerator;
+import movegen.MoveList;
+import tablebase.Syzygy;
+
+/**
+ * Recherche alpha-bêta sur une position bitboard.
+ *
+ * - Approfondissement itératif avec fenêtres d'aspiration
+ * - Principal Variation Search (fenêtre nulle hors variante principale)
+ * - Élagage par coup nul et réductions des coups tardifs (LMR)
+ * - Ordre des coups par étapes (MovePicker) : coup de la table, bonnes captures,
+ *   killers et countermove, mauvaises captures, coups calmes par historique
+ * - Recherche de quiétude sur les captures et promotions
+ * - Table de transposition partagée
+ * - Tables de finales Syzygy : filtrage des coups de la racine, coupures WDL dans l'arbre
+ *
+ * La boucle de recherche n'alloue rien : une seule position est parcourue par
+ * make/unmake, les coups sont produits par un MovePicker préalloué par ply.
+ * Une instance n'est utilisée que par un thread à la fois.
+ */
+public class Search {
+    public static final int MAX_PLY = 128;
+    public static final int INFINITY = 32500;
+    public static final int MATE = 32000;
+    public static final int MATE_BOUND = MATE - 2 * MAX_PLY;
+    // Gain prouvé par les tables de finales, moins la distance à la racine ; sous les scores de mat
+    public static final int TB_WIN = MATE_BOUND - MAX_PLY - 1;
+    public static final int TB_WIN_BOUND = TB_WIN - MAX_PLY;
+
+    private static final int ASPIRATION_WINDOW = 25;
+    private static final int ASPIRATION_MIN_DEPTH = 5;
+    private static final int CHECK_INTERVAL = 2047; // masque : vérifier le temps tous les 2048 nœuds
+    // Plafond de l'historique : un bonus ou un malus rapproche la note de ±HISTORY_MAX
+    private static final int HISTORY_MAX = 16_384;
+
+    private static final int[][] LMR_REDUCTIONS = new int[64][MoveList.MAX_MOVES];
+
+    static {
+        for (int depth = 1; depth < 64; depth++) {
+            for (int moveNumber = 1; moveNumber < MoveList.MAX_MOVES; moveNumber++) {
+                LMR_REDUCTIONS[depth][moveNumber] = (int) (0.75 + Math.log(depth) * Math.log(moveNumber) / 2.25);
+            }
+        }
+    }
+
+    private final TranspositionTable transpositionTable;
+    private final BitboardPosition position = new BitboardPosition();
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY + 1];
+    private final int[][] pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    // Coups calmes qui ont provoqué une coupure, deux par ply
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    // Réfutation du dernier coup adverse, par pièce jouée et case d'arrivée
+    private final int[][] counterMoves = new int[12][64];
+    // Historique papillon des coups calmes : [camp][départ * 64 + arrivée]
+    private final int[][] history = new int[2][64 * 64];
+    // Coups calmes essayés à chaque ply, pénalisés quand un autre coup coupe
+    private final int[][] quietsTried = new int[MAX_PLY + 1][MoveList.MAX_MOVES];
+    private final PawnHashTable pawnTable = new PawnHashTable();
+    private final MoveList rootMoves = new MoveList();
+
+    private AtomicBoolean stopFlag = new AtomicBoolean();
+    private boolean sharedStopFlag;
+    private boolean helper;
+    private int skipSize;
+    private int skipPhase;
+    private int firstDepth = 1;
+    private LongSupplier totalNodes = this::getNodes;
+    // Écrit par le thread de la recherche, lu par les autres (total du groupe) : accès opaque
+    private long nodes;
+    private long nodeLimit;
+    private long startTime;
+    private long deadline;
+    private int rootDepth;
+    private Syzygy tablebases;
+    private int probeLimit;
+    private int probePieces;
+    private boolean rootFiltered;
+    private long tbHits;
+
+    private static final VarHandle NODES;
+    static {
+        try {
+            NODES = MethodHandles.lookup().findVarHandle(Search.class, "nodes", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public Search(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            pickers[ply] = new MovePicker(history);
+        }
+    }
+
+    /**
+     * Intègre la recherche à un groupe Lazy SMP : drapeau d'arrêt partagé (remis à zéro
+     * par le groupe, pas par la recherche), profondeurs sautées pour diversifier les
+     * threads auxiliaires, et compteur de nœuds global pour les comptes rendus.
+     *
+     * Les profondeurs sont prises par blocs de skipSize : un bloc sur deux est sauté,
+     * le premier étant décalé de skipPhase. Seuls les auxiliaires sautent des profondeurs.
+     *
+     * @param stopFlag Le drapeau d'arrêt commun
+     * @param skipSize La taille des blocs de profondeurs, au moins 1
+     * @param skipPhase Le décalage des blocs
+     * @param helper true pour un thread auxiliaire (ni compte rendu ni vieillissement de la table)
+     * @param totalNodes Le compteur de nœuds de tout le groupe
+     */
+    void joinGroup(AtomicBoolean stopFlag, int skipSize, int skipPhase, boolean helper, LongSupplier totalNodes) {
+        this.stopFlag = stopFlag;
+        this.sharedStopFlag = true;
+        this.skipSize = skipSize;
+        this.skipPhase = skipPhase;
+        this.helper = helper;
+        this.totalNodes = totalNodes;
+    }
+
+    private boolean skipsDepth(int depth) {
+        return helper && ((depth + skipPhase) / skipSize & 1) != 0;
+    }
+
+    /**
+     * Demande l'arrêt de la recherche en cours ; peut être appelé depuis un autre thread.
+     */
+    public void stop() {
+        stopFlag.set(true);
+    }
+
+    public long getNodes() {
+        return (long) NODES.getOpaque(this);
+    }
+
+    /**
+     * Nombre de lectures réussies des tables de finales pendant la recherche courante.
+     */
+    public long getTbHits() {
+        return tbHits;
+    }
+
+    /**
+     * Branche les tables de finales ; ne doit pas être appelé pendant une recherche.
+     *
+     * @param tablebases Les tables, partageables entre threads, ou null pour les retirer
+     * @param probeLimit Le nombre maximal de pièces, rois compris, pour lire les tables dans l'arbre
+     */
+    public void setTablebases(Syzygy tablebases, int probeLimit) {
+        this.tablebases = tablebases;
+        this.probeLimit = probeLimit;
+    }
+
+    /**
+     * La table de hachage des pions de ce thread, pour consulter son taux de succès.
+     */
+    public PawnHashTable getPawnTable() {
+        return pawnTable;
+    }
+
+    /**
+     * Remet le compteur à zéro avant le démarrage du groupe, pour que le total ne compte
+     * pas la recherche précédente d'un thread auxiliaire pas encore lancé.
+     */
+    void resetNodes() {
+        NODES.setOpaque(this, 0L);
+    }
+
+    /**
+     * Lance une recherche par approfondissement itératif.
+     *
+     * @param root La position à chercher (copiée, non modifiée)
+     * @param limits Les limites de profondeur, de nœuds et de temps
+     * @param listener Reçoit le compte rendu de chaque itération, ou null
+     * @return Le meilleur coup et son score
+     */
+    public SearchResult search(BitboardPosition root, SearchLimits limits, SearchListener listener) {
+        position.copyFrom(root);
+        if (!sharedStopFlag) {
+            stopFlag.set(false);
+        }
+        NODES.setOpaque(this, 0L);
+        tbHits = 0;
+        nodeLimit = limits.getNodes();
+        startTime = System.nanoTime();
+        long budget = limits.allocatedTime(root.getSideToMove());
+        deadline = budget < 0 ? Long.MAX_VALUE : startTime + budget * 1_000_000L;
+        if (!helper) {
+            transpositionTable.newSearch();
+        }
+        probeRoot();
+        ageHistory();
+
+        int bestMove = Move.NONE;
+        int ponderMove = Move.NONE;
+        int bestScore = 0;
+        int completedDepth = 0;
+
+        firstDepth = 1;
+        while (skipsDepth(firstDepth) && firstDepth < limits.getDepth()) {
+            firstDepth++;
+        }
+        for (int depth = firstDepth; depth <= limits.getDepth(); depth++) {
+            if (depth > firstDepth && skipsDepth(depth)) {
+                continue;
+            }
+            rootDepth = depth;
+            int score = aspirationSearch(depth, bestScore);
+            if (stopFlag.get() && completedDepth > 0) {
+                break;
+            }
+            if (pvLength[0] > 0) {
+                bestMove = pvTable[0][0];
+                ponderMove = pvLength[0] > 1 ? pvTable[0][1] : Move.NONE;
+            }
+            bestScore = score;
+            completedDepth = depth;
+
+            if (listener != null && !helper) {
+                long elapsed = Math.max(1, System.nanoTime() - startTime);
+                long allNodes = totalNodes.getAsLong();
+                listener.onIteration(new SearchInfo(depth, score, allNodes, allNodes * 1_000_000_000L / elapsed,
+                        elapsed / 1_000_000, transpositionTable.hashfull(), Arrays.copyOf(pvTable[0], pvLength[0])));
+            }
+            if (stopFlag.get() || bestMove == Move.NONE) {
+                break;
+            }
+            // Ne pas lancer une itération qui n'a aucune chance de finir dans le budget
+            if (!limits.isFixedTime() && deadline != Long.MAX_VALUE
+                    && System.nanoTime() - startTime > (deadline - startTime) / 2) {
+                break;
+            }
+        }
+        return new SearchResult(bestMove, ponderMove, bestScore, completedDepth, nodes);
+    }
+
+    /**
+     * Si la racine est dans les tables de finales, ne garde que les coups qui conservent son
+     * résultat. Avec DTZ, ce filtrage suffit et les tables ne sont plus lues dans l'arbre ;
+     * sans DTZ, elles ne le sont que pour convertir un gain.
+     */
+    private void probeRoot() {
+        rootFiltered = false;
+        probePieces = tablebases == null ? 0 : Math.min(probeLimit, tablebases.maxPieces());
+        if (tablebases == null || !tablebases.covers(position)) {
+            return;
+        }
+        MoveGenerator.generateLegal(position, rootMoves);
+        Syzygy.RootProbe probe = tablebases.probeRoot(position, rootMoves);
+        if (probe != null) {
+            rootFiltered = true;
+            if (probe.dtz() || probe.wdl() <= Syzygy.DRAW) {
+                probePieces = 0;
+            }
+        }
+    }
+
+    /**
+     * Cherche d'abord dans une fenêtre étroite autour du score précédent,
+     * et l'élargit tant que le résultat sort de la fenêtre.
+     */
+    private int aspirationSearch(int depth, int previousScore) {
+        if (depth < ASPIRATION_MIN_DEPTH) {
+            return pvs(-INFINITY, INFINITY, depth, 0, false);
+        }
+        int window = ASPIRATION_WINDOW;
+        int alpha = Math.max(-INFINITY, previousScore - window);
+        int beta = Math.min(INFINITY, previousScore + window);
+        while (true) {
+            int score = pvs(alpha, beta, depth, 0, false);
+            if (stopFlag.get()) {
+                return score;
+            }
+            if (score <= alpha) {
+                alpha = Math.max(-INFINITY, score - window);
+            } else if (score >= beta) {
+                beta = Math.min(INFINITY, score + window);
+            } else {
+                return score;
+            }
+            window *= 2;
+        }
+    }
+
+    private int pvs(int alpha, int beta, int depth, int ply, boolean nullAllowed) {
+        pvLength[ply] = ply;
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+        if (shouldStop()) {
+            return 0;
+        }
+        countNode();
+
+        boolean rootNode = ply == 0;
+        boolean pvNode = beta - alpha > 1;
+        if (!rootNode) {
+            if (position.isRepetition() || position.getHalfmoveClock() >= 100) {
+                return 0;
+            }
+            if (ply >= MAX_PLY) {
+                return Evaluation.evaluate(position, pawnTable);
+            }
+        }
+
+        int us = position.getSideToMove();
+        boolean inCheck = Attacks.isInCheck(position, us);
+        if (inCheck) {
+            depth++;
+        }
+
+        // Table de transposition
+        long key = position.getKey();
+        long entry = transpositionTable.probe(key);
+        int ttMove = Move.NONE;
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (!pvNode && TranspositionTable.depth(entry) >= depth) {
+                int ttScore = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || bound == TranspositionTable.BOUND_LOWER && ttScore >= beta
+                        || bound == TranspositionTable.BOUND_UPPER && ttScore <= alpha) {
+                    return ttScore;
+                }
+            }
+        }
+
+        // Tables de finales, juste après une prise ou un coup de pion (la valeur WDL ignore
+        // le compteur des 50 coups) : un gain ou une perte est une borne, une nulle est exacte
+        if (!rootNode && probePieces > 0 && position.getHalfmoveClock() == 0
+                && position.getCastlingRights() == 0 && Long.bitCount(position.occupied()) <= probePieces) {
+            int wdl = tablebases.probeWdl(position);
+            if (wdl != Syzygy.UNKNOWN) {
+                tbHits++;
+                int score = wdl < Syzygy.BLESSED_LOSS ? -TB_WIN + ply : wdl > Syzygy.CURSED_WIN ? TB_WIN - ply : 2 * wdl;
+                int bound = wdl < Syzygy.BLESSED_LOSS ? TranspositionTable.BOUND_UPPER
+                        : wdl > Syzygy.CURSED_WIN ? TranspositionTable.BOUND_LOWER : TranspositionTable.BOUND_EXACT;
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER ? score >= beta : score <= alpha)) {
+                    transpositionTable.store(key, Move.NONE, scoreToTable(score, ply),
+                            Math.min(MAX_PLY, depth + 6), bound);
+                    return score;
+                }
+            }
+        }
+
+        // Élagage par coup nul : si passer son tour suffit à dépasser beta, le coup réel aussi
+        if (nullAllowed && !pvNode && !inCheck && depth >= 3
+                && Evaluation.hasNonPawnMaterial(position, us)
+                && Evaluation.evaluate(position, pawnTable) >= beta) {
+            int reduction = 2 + depth / 4;
+            position.makeNullMove();
+            int score = -pvs(-beta, -beta + 1, depth - 1 - reduction, ply + 1, false);
+            position.unmakeNullMove();
+            if (stopFlag.get()) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score >= TB_WIN_BOUND ? beta : score;
+            }
+        }
+
+        int previous = position.lastMove();
+        int counterMove = previous == Move.NONE ? Move.NONE
+                : counterMoves[position.pieceAt(Move.to(previous))][Move.to(previous)];
+        MovePicker picker = pickers[ply];
+        picker.init(position, ttMove, killers[ply][0], killers[ply][1], counterMove);
+
+        int bestScore = -INFINITY;
+        int bestMove = Move.NONE;
+        int originalAlpha = alpha;
+        int legalMoves = 0;
+        int quietCount = 0;
+
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            if (rootNode && rootFiltered && !rootMoves.contains(move)) {
+                continue;
+            }
+            position.makeMove(move);
+            legalMoves++;
+
+            int score;
+            if (legalMoves == 1) {
+                score = -pvs(-beta, -alpha, depth - 1, ply + 1, true);
+            } else {
+                // Réduction des coups calmes tardifs, vérifiée par une recherche pleine profondeur
+                int reduction = 0;
+                if (depth >= 3 && legalMoves > 3 && !inCheck && !Move.isTactical(move)
+                        && !Attacks.isInCheck(position, us ^ 1)) {
+                    reduction = LMR_REDUCTIONS[Math.min(depth, 63)][Math.min(legalMoves, MoveList.MAX_MOVES - 1)];
+                    if (pvNode) {
+                        reduction--;
+                    }
+                    reduction = Math.max(0, Math.min(reduction, depth - 2));
+                }
+                score = -pvs(-alpha - 1, -alpha, depth - 1 - reduction, ply + 1, true);
+                if (score > alpha && reduction > 0) {
+                    score = -pvs(-alpha - 1, -alpha, depth - 1, ply + 1, true);
+                }
+                if (score > alpha && score < beta) {
+                    score = -pvs(-beta, -alpha, depth - 1, ply + 1, true);
+                }
+            }
+            position.unmakeMove();
+
+            if (stopFlag.get()) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    updatePv(ply, move);
+                    if (score >= beta) {
+                        if (!Move.isTactical(move)) {
+                            updateQuietStats(ply, move, depth, quietCount);
+                        }
+                        break;
+                    }
+                }
+            }
+            if (!Move.isTactical(move)) {
+                quietsTried[ply][quietCount++] = move;
+            }
+        }
+
+        if (legalMoves == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER
+                : alpha > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        transpositionTable.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Recherche de quiétude : ne joue que les captures et promotions
+     * pour n'évaluer que des positions calmes. En échec, l'évaluation statique ne vaut
+     * rien (rester sur place n'est pas permis) : toutes les parades sont cherchées.
+     */
+    private int quiescence(int alpha, int beta, int ply) {
+        if (shouldStop()) {
+            return 0;
+        }
+        countNode();
+        pvLength[ply] = ply;
+
+        boolean inCheck = Attacks.isInCheck(position, position.getSideToMove());
+        if (ply >= MAX_PLY) {
+            return Evaluation.evaluate(position, pawnTable);
+        }
+        int bestScore;
+        MovePicker picker = pickers[ply];
+        if (inCheck) {
+            bestScore = -MATE + ply;
+            picker.init(position, Move.NONE, Move.NONE, Move.NONE, Move.NONE);
+        } else {
+            bestScore = Evaluation.evaluate(position, pawnTable);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            picker.initQuiescence(position);
+        }
+        if (bestScore > alpha) {
+            alpha = bestScore;
+        }
+
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            position.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            position.unmakeMove();
+
+            if (stopFlag.get()) {
+                return 0;
+            }
+            if (score > alpha) {
+                alpha = score;
+                if (score >= beta) {
+                    break;
+                }
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * Vérifie périodiquement le temps et le nombre de nœuds.
+     */
+    private boolean shouldStop() {
+        if ((nodes & CHECK_INTERVAL) == 0 && rootDepth > firstDepth) {
+            if (System.nanoTime() >= deadline || nodeLimit > 0 && totalNodes.getAsLong() >= nodeLimit) {
+                stopFlag.set(true);
+            }
+        }
+        return stopFlag.get();
+    }
+
+    private void countNode() {
+        NODES.setOpaque(this, nodes + 1);
+    }
+
+    private void updatePv(int ply, int move) {
+        pvTable[ply][ply] = move;
+        System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+        pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+    }
+
+    /**
+     * Un coup calme vient de couper : il devient killer du ply et réfutation du coup
+     * adverse précédent, son historique monte et celui des coups calmes essayés avant
+     * lui, qui n'ont pas coupé, baisse d'autant.
+     */
+    private void updateQuietStats(int ply, int move, int depth, int quietCount) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int previous = position.lastMove();
+        if (previous != Move.NONE) {
+            counterMoves[position.pieceAt(Move.to(previous))][Move.to(previous)] = move;
+        }
+        int[] table = history[position.getSideToMove()];
+        int bonus = Math.min(depth * depth, 400);
+        addHistory(table, move, bonus);
+        for (int i = 0; i < quietCount; i++) {
+            addHistory(table, quietsTried[ply][i], -bonus);
+        }
+    }
+
+    /**
+     * Bonus amorti : plus la note est proche du plafond, moins elle bouge, ce qui la
+     * garde dans [-HISTORY_MAX, HISTORY_MAX] et laisse les coups récents peser.
+     */
+    private static void addHistory(int[] table, int move, int bonus) {
+        int index = Move.from(move) << 6 | Move.to(move);
+        table[index] += bonus - table[index] * Math.abs(bonus) / HISTORY_MAX;
+    }
+
+    /**
+     * Avant chaque recherche : les killers, propres à l'arbre précédent, sont effacés ;
+     * l'historique est divisé par deux pour que la nouvelle position l'emporte vite.
+     */
+    private void ageHistory() {
+        for (int[] slots : killers) {
+            slots[0] = slots[1] = Move.NONE;
+        }
+        for (int[] table : history) {
+            for (int i = 0; i < table.length; i++) {
+                table[i] /= 2;
+            }
+        }
+    }
+
+    /**
+     * Les scores de mat et de gain prouvé par les tables sont stockés relativement au
+     * nœud, pas à la racine.
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score >= TB_WIN_BOUND) {
+            return score + ply;
+        }
+        if (score <= -TB_WIN_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= TB_WIN_BOUND) {
+            return score - ply;
+        }
+        if (score <= -TB_WIN_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,47 @@
+package engine;
+
+import movegen.Move;
+
+/**
+ * Compte rendu d'une itération de l'approfondissement itératif.
+ *
+ * @param depth La profondeur terminée
+ * @param score Le score en centipions du point de vue du camp au trait
+ * @param nodes Le nombre de nœuds visités depuis le début de la recherche
+ * @param nps La vitesse en nœuds par seconde
+ * @param timeMillis Le temps écoulé depuis le début de la recherche
+ * @param hashfull Le remplissage de la table de transposition en pour mille
+ * @param pv La variante principale, en coups encodés
+ */
+public record SearchInfo(int depth, int score, long nodes, long nps, long timeMillis, int hashfull, int[] pv) {
+
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE_BOUND;
+    }
+
+    /**
+     * Nombre de coups avant le mat (négatif si le camp au trait est maté).
+     */
+    public int mateIn() {
+        int plies = Search.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+
+    public String pvString() {
+        StringBuilder sb = new StringBuilder();
+        for (int move : pv) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(Move.toUci(move));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + depth + " score " + (isMate() ? "mate " + mateIn() : "cp " + score)
+                + " nodes " + nodes + " nps " + nps + " time " + timeMillis + " hashfull " + hashfull
+                + " pv " + pvString();
+    }
+}
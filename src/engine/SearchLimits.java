@@ -0,0 +1,111 @@
+package engine;
+
+/**
+ * Limites d'une recherche : profondeur, nombre de nœuds, temps fixe ou pendule.
+ * Une profondeur ou un nombre de nœuds nul ou négatif signifie « pas de limite ».
+ * Un temps non fourni ne limite pas la recherche ; un temps fourni nul ou négatif
+ * (pendule tombée) donne le budget minimal, la recherche s'arrête après la profondeur 1.
+ */
+public class SearchLimits {
+    public static final int MAX_DEPTH = 64;
+
+    // Marge de sécurité pour la latence de communication avec l'interface
+    private static final long MOVE_OVERHEAD_MS = 30;
+    // Temps non fourni par l'interface
+    private static final long NOT_SET = Long.MIN_VALUE;
+
+    private int depth;
+    private long nodes;
+    private long moveTime = NOT_SET;
+    private final long[] time = { NOT_SET, NOT_SET };
+    private final long[] increment = new long[2];
+    private int movesToGo;
+    private boolean infinite;
+
+    public static SearchLimits depth(int depth) {
+        SearchLimits limits = new SearchLimits();
+        limits.setDepth(depth);
+        return limits;
+    }
+
+    public static SearchLimits moveTime(long millis) {
+        SearchLimits limits = new SearchLimits();
+        limits.setMoveTime(millis);
+        return limits;
+    }
+
+    public int getDepth() {
+        return depth > 0 ? Math.min(depth, MAX_DEPTH) : MAX_DEPTH;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+
+    public void setMoveTime(long moveTime) {
+        this.moveTime = moveTime;
+    }
+
+    /**
+     * @param color La couleur (board.Bitboards.WHITE ou BLACK)
+     * @param millis Le temps restant à la pendule
+     */
+    public void setTime(int color, long millis) {
+        time[color] = millis;
+    }
+
+    public void setIncrement(int color, long millis) {
+        increment[color] = millis;
+    }
+
+    public void setMovesToGo(int movesToGo) {
+        this.movesToGo = movesToGo;
+    }
+
+    public void setInfinite(boolean infinite) {
+        this.infinite = infinite;
+    }
+
+    /**
+     * Calcule le temps alloué au coup du camp donné.
+     * Avec une pendule : une fraction du temps restant plus la majeure partie de l'incrément,
+     * plafonnée à la moitié du temps restant.
+     *
+     * @param color Le camp au trait
+     * @return Le budget en millisecondes, ou -1 si la recherche n'est pas limitée en temps
+     */
+    public long allocatedTime(int color) {
+        if (infinite) {
+            return -1;
+        }
+        if (moveTime != NOT_SET) {
+            return Math.max(1, moveTime - MOVE_OVERHEAD_MS);
+        }
+        if (time[color] == NOT_SET) {
+            return -1;
+        }
+        if (time[color] <= 0) {
+            return 1;
+        }
+        int movesLeft = movesToGo > 0 ? Math.min(movesToGo, 40) : 30;
+        long budget = time[color] / movesLeft + increment[color] * 3 / 4;
+        budget = Math.min(budget, time[color] / 2);
+        return Math.max(1, budget - MOVE_OVERHEAD_MS);
+    }
+
+    /**
+     * Un temps fixe par coup doit être utilisé en entier ; un budget de pendule peut
+     * être écourté si la prochaine itération n'a aucune chance de finir.
+     */
+    public boolean isFixedTime() {
+        return moveTime != NOT_SET;
+    }
+}
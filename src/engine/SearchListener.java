@@ -0,0 +1,9 @@
+package engine;
+
+/**
+ * Reçoit le compte rendu de chaque itération terminée de la recherche.
+ */
+@FunctionalInterface
+public interface SearchListener {
+    void onIteration(SearchInfo info);
+}
@@ -0,0 +1,13 @@
+package engine;
+
+/**
+ * Résultat final d'une recherche.
+ *
+ * @param bestMove Le meilleur coup trouvé (movegen.Move.NONE si aucun coup légal)
+ * @param ponderMove La réponse attendue de l'adversaire, ou Move.NONE
+ * @param score Le score du meilleur coup
+ * @param depth La dernière profondeur terminée
+ * @param nodes Le nombre total de nœuds visités
+ */
+public record SearchResult(int bestMove, int ponderMove, int score, int depth, long nodes) {
+}
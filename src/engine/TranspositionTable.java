@@ -0,0 +1,232 @@
+package engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import movegen.Move;
+
+/**
+ * Table de transposition hors tas, partagée sans verrou entre les threads de recherche.
+ *
+ * La mémoire est allouée en tampons directs (hors du tas Java, donc jamais parcourue
+ * par le GC), découpés en segments d'au plus 1 Go pour dépasser la limite d'un ByteBuffer.
+ * Chaque entrée tient en deux longs : les données et (clé XOR données). Une entrée
+ * déchirée par deux écritures concurrentes ne vérifie plus l'égalité avec la clé et
+ * est simplement ignorée ; aucun verrou n'est nécessaire.
+ *
+ * Les entrées sont groupées par 4 dans un cluster de 64 octets (une ligne de cache).
+ *
+ * Disposition des données :
+ * - 0..19  : coup (voir movegen.Move)
+ * - 20..35 : score (16 bits signés)
+ * - 36..43 : profondeur (8 bits)
+ * - 44..45 : borne (UPPER, LOWER, EXACT ; jamais 0 pour une entrée valide)
+ * - 46..51 : âge de la recherche qui a écrit l'entrée
+ */
+public class TranspositionTable {
+    public static final int BOUND_UPPER = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_EXACT = 3;
+
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int CLUSTER_ENTRIES = 4;
+    private static final int CLUSTER_BYTES = ENTRY_BYTES * CLUSTER_ENTRIES;
+    private static final int SEGMENT_SHIFT = 30; // segments de 1 Go
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+    private static final int AGE_MASK = 63;
+
+    // Accès atomiques 64 bits (opaque) dans un tampon direct
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private ByteBuffer[] segments;
+    private long clusterMask;
+    private int age;
+
+    /**
+     * @param sizeMb La taille de la table en Mo (arrondie à la puissance de 2 inférieure)
+     */
+    public TranspositionTable(int sizeMb) {
+        resize(sizeMb);
+    }
+
+    /**
+     * Réalloue la table ; son contenu est perdu. Ne doit pas être appelé pendant une recherche.
+     * La nouvelle table est allouée avant de libérer l'ancienne : si la mémoire directe
+     * (-XX:MaxDirectMemorySize) ne suffit pas, l'ancienne table reste en place.
+     *
+     * @param sizeMb La taille de la table en Mo, au moins 1
+     * @throws IllegalStateException si la mémoire directe ne suffit pas pour la nouvelle table
+     */
+    public void resize(int sizeMb) {
+        if (sizeMb < 1) {
+            throw new IllegalArgumentException("Transposition table size must be at least 1 MB");
+        }
+        long clusters = Long.highestOneBit(((long) sizeMb << 20) / CLUSTER_BYTES);
+        long totalBytes = clusters * CLUSTER_BYTES;
+        int segmentCount = (int) ((totalBytes + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+
+        ByteBuffer[] allocated = new ByteBuffer[segmentCount];
+        try {
+            for (int i = 0; i < segmentCount; i++) {
+                long bytes = Math.min(totalBytes - ((long) i << SEGMENT_SHIFT), 1L << SEGMENT_SHIFT);
+                allocated[i] = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+            }
+        } catch (OutOfMemoryError e) {
+            throw new IllegalStateException("Cannot allocate a " + sizeMb + " MB transposition table: "
+                    + e.getMessage());
+        }
+        segments = allocated;
+        clusterMask = clusters - 1;
+        age = 0;
+    }
+
+    /**
+     * Efface toutes les entrées.
+     */
+    public void clear() {
+        for (ByteBuffer segment : segments) {
+            for (int offset = 0; offset < segment.capacity(); offset += Long.BYTES) {
+                segment.putLong(offset, 0L);
+            }
+        }
+        age = 0;
+    }
+
+    /**
+     * Démarre une nouvelle recherche : les entrées des recherches précédentes
+     * deviennent prioritaires pour le remplacement.
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    /**
+     * Cherche l'entrée d'une position.
+     *
+     * @param key La clé Zobrist de la position
+     * @return Les données de l'entrée, ou 0 si la position est absente
+     */
+    public long probe(long key) {
+        long base = clusterOffset(key);
+        ByteBuffer segment = segments[(int) (base >>> SEGMENT_SHIFT)];
+        int offset = (int) (base & SEGMENT_MASK);
+        for (int i = 0; i < CLUSTER_ENTRIES; i++, offset += ENTRY_BYTES) {
+            long data = (long) LONG.getOpaque(segment, offset);
+            long check = (long) LONG.getOpaque(segment, offset + Long.BYTES);
+            if (data != 0 && (check ^ data) == key) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Enregistre le résultat d'une recherche.
+     * Remplace en priorité l'entrée de la même position, sinon l'entrée la moins utile :
+     * faible profondeur et ancienne recherche.
+     *
+     * @param key La clé Zobrist de la position
+     * @param move Le meilleur coup, ou Move.NONE
+     * @param score Le score (doit tenir sur 16 bits signés)
+     * @param depth La profondeur de recherche (0..255)
+     * @param bound Le type de borne (BOUND_UPPER, BOUND_LOWER ou BOUND_EXACT)
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        long base = clusterOffset(key);
+        ByteBuffer segment = segments[(int) (base >>> SEGMENT_SHIFT)];
+        int clusterStart = (int) (base & SEGMENT_MASK);
+
+        int replace = clusterStart;
+        int worstValue = Integer.MAX_VALUE;
+        for (int i = 0, offset = clusterStart; i < CLUSTER_ENTRIES; i++, offset += ENTRY_BYTES) {
+            long data = (long) LONG.getOpaque(segment, offset);
+            long check = (long) LONG.getOpaque(segment, offset + Long.BYTES);
+            if (data == 0) {
+                replace = offset;
+                break;
+            }
+            if ((check ^ data) == key) {
+                // Même position : garder une entrée plus profonde de la recherche courante
+                if (bound != BOUND_EXACT && depth < depth(data) - 2 && age(data) == age) {
+                    return;
+                }
+                if (move == Move.NONE) {
+                    move = move(data);
+                }
+                replace = offset;
+                break;
+            }
+            int value = depth(data) - 8 * ((age - age(data)) & AGE_MASK);
+            if (value < worstValue) {
+                worstValue = value;
+                replace = offset;
+            }
+        }
+
+        long data = pack(move, score, depth, bound, age);
+        LONG.setOpaque(segment, replace, data);
+        LONG.setOpaque(segment, replace + Long.BYTES, key ^ data);
+    }
+
+    /**
+     * Estime le remplissage de la table en millièmes (champ "hashfull" de l'UCI),
+     * en comptant les entrées de la recherche courante dans les 1000 premières.
+     *
+     * @return Le taux de remplissage en pour mille
+     */
+    public int hashfull() {
+        ByteBuffer segment = segments[0];
+        int sampled = (int) Math.min(1000, (clusterMask + 1) * CLUSTER_ENTRIES);
+        int used = 0;
+        for (int i = 0; i < sampled; i++) {
+            long data = (long) LONG.getOpaque(segment, i * ENTRY_BYTES);
+            if (data != 0 && age(data) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / sampled;
+    }
+
+    private long clusterOffset(long key) {
+        return (key & clusterMask) * CLUSTER_BYTES;
+    }
+
+    private static long pack(int move, int score, int depth, int bound, int age) {
+        return (move & 0xFFFFFL)
+             | ((score & 0xFFFFL) << 20)
+             | ((long) (depth & 0xFF) << 36)
+             | ((long) bound << 44)
+             | ((long) age << 46);
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 20);
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 36) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 44) & 3);
+    }
+
+    private static int age(long data) {
+        return (int) ((data >>> 46) & AGE_MASK);
+    }
+
+    /**
+     * Taille effective de la table en octets.
+     */
+    public long sizeBytes() {
+        return (clusterMask + 1) * CLUSTER_BYTES;
+    }
+}
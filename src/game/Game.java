@@ -1,7 +1,13 @@
 package game;
 
 import java.awt.Graphics;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
+import board.Board;
+import engine.EngineUpdate;
+import engine.EngineWorker;
+import inputs.MouseInputs;
 import states.GameState;
 import states.Menu;
 import states.Playing;
@@ -15,14 +21,31 @@ public class Game implements Runnable {
 	// Paramètres de performances du jeu
 	private final int FPS_SET = 120;
 	private final int UPS_SET = 200;
+	private static final int MAX_CATCH_UP_UPDATES = 5;
+
+	// Plateau de la partie ; ses cases modifiées sont relevées après chaque mise à jour.
+	// Les entrées souris qui peuvent changer l'état demandent en plus un redessin complet
+	// (voir MouseInputs.drain), Playing ne marquant pas encore ses cases sur ce plateau.
+	private final Board board = new Board();
 
 	// States
 	private Playing playing;
 	private Menu menu;
 
+	// Moteur : cherche sur ses propres threads, relevé sans attente à chaque mise à jour
+	private final EngineWorker engine = new EngineWorker();
+	private EngineUpdate engineUpdate;
+
 	// FPS/UPS tracking
-	private int currentFPS = 0;
-	private int currentUPS = 0;
+	private volatile int currentFPS = 0;
+	private volatile int currentUPS = 0;
+	private volatile int paintCount = 0;
+
+	// Contrôle de la boucle
+	private volatile boolean running = true;
+	private volatile boolean paused = false;
+	private volatile boolean dirty = true;
+	private final AtomicLong dirtySquares = new AtomicLong();
 
 	public Game(){
 		initClasses();
@@ -40,20 +63,37 @@ public class Game implements Runnable {
 	}
 
 	private void startGameLoop(){
-		gameLoopThread = new Thread(this);
+		gameLoopThread = new Thread(this, "game-loop");
 		gameLoopThread.start();
 	}
 
 	private void update(){
+		// Entrées souris capturées par le thread AWT, traitées ici par lots
+		gamePanel.getMouseInputs().drain();
+
+		EngineUpdate update = engine.poll();
+		if (update != null){
+			engineUpdate = update;
+		}
 		switch(GameState.currentState){
 			case GAME -> playing.update();
 			case MENU -> menu.update();
 			default -> {
                 }
 		}
+
+		// Coups joués, sélection, survol : seules les cases touchées sont redessinées.
+		// Un plateau remplacé (setFromFen) marque toutes ses cases : redessin complet.
+		long squares = board.takeDirtySquares();
+		if (squares == -1L){
+			requestRender();
+		} else {
+			requestRender(squares);
+		}
 	}
 
 	public void render(Graphics g){
+		paintCount++; // écrit seulement par le thread Swing
 		switch(GameState.currentState){
 			case GAME -> playing.draw(g);
 			case MENU -> menu.draw(g);
@@ -63,45 +103,188 @@ public class Game implements Runnable {
 		}
 	}
 
+	/**
+	 * Boucle de jeu à pas fixe : les mises à jour tournent à UPS_SET par seconde, l'affichage
+	 * au plus à FPS_SET images par seconde et seulement si quelque chose a changé
+	 * (voir requestRender). Entre deux échéances le thread est parqué au lieu de tourner
+	 * à vide, ce qui laisse le cœur libre quand le plateau est inactif.
+	 */
 	@Override
 	public void run(){
-		double timePerFrame = 1000000000.0 / FPS_SET;
-		double timePerUpdate = 1000000000.0 / UPS_SET;
+		long timePerUpdate = 1_000_000_000L / UPS_SET;
+		long timePerFrame = 1_000_000_000L / FPS_SET;
 
-		long previousTime = System.nanoTime();
-		int frames = 0;
+		long nextUpdate = System.nanoTime();
+		long nextFrame = nextUpdate;
+		long nextCheck = nextUpdate + 1_000_000_000L;
 		int updates = 0;
-		long lastCheck = System.currentTimeMillis();
-
-		double deltaU = 0;
-		double deltaF = 0;
+		int lastPaintCount = paintCount;
+		GameState lastState = GameState.currentState;
 
-		while(true){
-			long currentTime = System.nanoTime();
+		while(running){
+			if (paused){
+				LockSupport.park(this);
+				// Repartir de maintenant plutôt que de rattraper le temps passé en pause
+				nextUpdate = System.nanoTime();
+				nextFrame = nextUpdate;
+				continue;
+			}
 
-			deltaU += (currentTime - previousTime) / timePerUpdate;
-			deltaF += (currentTime - previousTime) / timePerFrame;
+			long now = System.nanoTime();
 
-			if (deltaU >= 1){
+			// Rattrapage borné : au-delà, le retard est abandonné au lieu de s'accumuler
+			int catchUp = 0;
+			while (now - nextUpdate >= 0 && catchUp < MAX_CATCH_UP_UPDATES){
 				update();
 				updates++;
-				deltaU--;
+				catchUp++;
+				nextUpdate += timePerUpdate;
+			}
+			if (now - nextUpdate >= 0){
+				nextUpdate = now + timePerUpdate;
+			}
+
+			if (GameState.currentState != lastState){
+				lastState = GameState.currentState;
+				dirty = true;
 			}
-			if (deltaF >=1){
-				gamePanel.repaint();
-				frames++;
-				deltaF--;
+			if (now - nextFrame >= 0){
+				if (dirty){
+					dirty = false;
+					dirtySquares.set(0L);
+					gamePanel.repaint();
+				} else {
+					long squares = dirtySquares.getAndSet(0L);
+					if (squares != 0L){
+						gamePanel.repaintSquares(squares);
+					}
+				}
+				nextFrame = Math.max(nextFrame + timePerFrame, now);
 			}
-			if (System.currentTimeMillis() - lastCheck >= 1000){
-				lastCheck = System.currentTimeMillis();
-				currentFPS = frames;
+
+			if (now - nextCheck >= 0){
+				nextCheck = now + 1_000_000_000L;
+				int paints = paintCount;
+				currentFPS = paints - lastPaintCount;
 				currentUPS = updates;
-				frames = 0;
+				lastPaintCount = paints;
 				updates = 0;
+				MouseInputs mouseInputs = gamePanel.getMouseInputs();
+				gameWindow.showStats(currentFPS, currentUPS, mouseInputs.getAverageClickLatencyNanos());
+				mouseInputs.resetLatencyStats();
+			}
+
+			// Dormir jusqu'à la prochaine échéance ; seuls stop et resume réveillent plus tôt.
+			// requestRender ne réveille pas : la demande est vue au plus tard une mise à jour après
+			long wait = Math.min(nextUpdate, Math.min(nextFrame, nextCheck)) - System.nanoTime();
+			if (wait > 0){
+				LockSupport.parkNanos(this, wait);
 			}
 		}
 	}
 
+	/**
+	 * Signale que l'affichage doit être redessiné à la prochaine image.
+	 * Peut être appelé depuis n'importe quel thread (entrées souris, états, moteur).
+	 */
+	public void requestRender(){
+		dirty = true;
+	}
+
+	/**
+	 * Signale que seules quelques cases doivent être redessinées (coup joué, sélection,
+	 * glisser-déposer), typiquement avec le résultat de Board.takeDirtySquares.
+	 *
+	 * @param squares Le masque des cases (bit i = case i, a1 = 0)
+	 */
+	public void requestRender(long squares){
+		if (squares == 0L){
+			return;
+		}
+		dirtySquares.getAndAccumulate(squares, (current, added) -> current | added);
+	}
+
+	/**
+	 * Suspend les mises à jour et l'affichage ; le thread de jeu est parqué sans consommer de CPU.
+	 */
+	public void pause(){
+		paused = true;
+	}
+
+	public void resume(){
+		paused = false;
+		dirty = true;
+		LockSupport.unpark(gameLoopThread);
+	}
+
+	public boolean isPaused(){
+		return paused;
+	}
+
+	/**
+	 * Arrête la boucle de jeu et attend la fin du thread.
+	 */
+	public void stop(){
+		engine.shutdown();
+		running = false;
+		LockSupport.unpark(gameLoopThread);
+		if (Thread.currentThread() != gameLoopThread){
+			try {
+				gameLoopThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Images réellement dessinées pendant la dernière seconde.
+	 */
+	public int getCurrentFPS() {
+		return currentFPS;
+	}
+
+	/**
+	 * Mises à jour exécutées pendant la dernière seconde.
+	 */
+	public int getCurrentUPS() {
+		return currentUPS;
+	}
+
+	/**
+	 * Le moteur de la partie : start() pour lancer une recherche, cancel() quand
+	 * l'utilisateur joue ou recommence la partie.
+	 */
+	public EngineWorker getEngine() {
+		return engine;
+	}
+
+	/**
+	 * Dernier résultat du moteur relevé par la boucle de jeu (meilleur coup courant,
+	 * ou coup final si finished()), ou null. Lu par les états pendant leur update.
+	 */
+	public EngineUpdate getEngineUpdate() {
+		if (engineUpdate != null && !engine.isCurrent(engineUpdate.requestId())){
+			engineUpdate = null; // demande annulée depuis le relevé
+		}
+		return engineUpdate;
+	}
+
+	/**
+	 * Oublie le dernier résultat du moteur, une fois le coup joué.
+	 */
+	public void clearEngineUpdate() {
+		engineUpdate = null;
+	}
+
+	/**
+	 * Le plateau affiché. Les états le modifient pendant leur update (coups, sélection
+	 * via markDirty) ; la boucle de jeu relève ensuite ses cases à redessiner.
+	 */
+	public Board getBoard() {
+		return board;
+	}
+
 	public Playing getPlaying() {
 		return playing;
 	}
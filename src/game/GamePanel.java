@@ -5,6 +5,7 @@ import java.awt.Graphics;
 
 import javax.swing.JPanel;
 
+import board.Bitboards;
 import inputs.MouseInputs;
 import utilz.Constants;
 
@@ -30,11 +31,30 @@ public class GamePanel extends JPanel {
      
     }
 
+    /**
+     * Demande le redessin des seules cases données ; Swing fusionne les rectangles
+     * en une zone de découpage unique pour le prochain paintComponent.
+     * 
+     * @param squares Le masque des cases (bit i = case i, a1 = 0)
+     */
+    public void repaintSquares(long squares) {
+        int size = Constants.SQUARE_SIZE;
+        while (squares != 0) {
+            int square = Bitboards.lsb(squares);
+            squares = Bitboards.popLsb(squares);
+            repaint(Bitboards.fileOf(square) * size, Bitboards.rowOf(square) * size, size, size);
+        }
+    }
+
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
         game.render(g);
     }
 
+    public MouseInputs getMouseInputs() {
+        return mouseInputs;
+    }
+
     public Game getGame() {
         return game;
     }
@@ -1,6 +1,7 @@
 package game;
 
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 import java.awt.event.WindowFocusListener;
 
 public class GameWindow extends JFrame {
@@ -17,4 +18,12 @@ public class GameWindow extends JFrame {
         frame.pack();
         frame.setVisible(true);
     }
+
+    /**
+     * Affiche les FPS/UPS et la latence moyenne des clics mesurés dans le titre de la fenêtre.
+     */
+    public void showStats(int fps, int ups, long clickLatencyNanos) {
+        String title = String.format("Chess - %d FPS / %d UPS / input %.2f ms", fps, ups, clickLatencyNanos / 1e6);
+        SwingUtilities.invokeLater(() -> frame.setTitle(title));
+    }
 }
\ No newline at end of file
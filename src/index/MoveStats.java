@@ -0,0 +1,22 @@
+package index;
+
+/**
+ * Statistiques d'un coup (ou d'une position entière) dans un index de parties.
+ *
+ * @param move Le coup encodé (voir movegen.Move), Move.NONE pour le total d'une position
+ * @param whiteWins Les parties gagnées par les blancs
+ * @param draws Les parties nulles
+ * @param blackWins Les parties gagnées par les noirs
+ */
+public record MoveStats(int move, long whiteWins, long draws, long blackWins) {
+    public long games() {
+        return whiteWins + draws + blackWins;
+    }
+
+    /**
+     * Score moyen du point de vue des blancs (1 gain, 0,5 nulle, 0 perte).
+     */
+    public double whiteScore() {
+        return games() == 0 ? 0.5 : (whiteWins + 0.5 * draws) / games();
+    }
+}
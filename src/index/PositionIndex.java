@@ -0,0 +1,263 @@
+package index;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import board.BitboardPosition;
+import movegen.Move;
+import movegen.MoveGenerator;
+import movegen.MoveList;
+
+/**
+ * Index de positions construit à partir de bases de parties (voir PositionIndexBuilder),
+ * projeté en mémoire.
+ *
+ * Le fichier commence par un nombre magique de 8 octets, suivi d'enregistrements de
+ * 24 octets gros-boutistes triés par clé Zobrist (non signée) puis par coup :
+ * clé 8, coup 2, réservé 2, gains blancs 4, nulles 4, gains noirs 4. Un coup est codé
+ * sur 16 bits (départ, arrivée, promotion) ; le coup nul (0) compte les parties qui
+ * s'arrêtent dans la position. Une position apparaît donc une fois par coup joué depuis
+ * elle, et la somme de ses enregistrements est le nombre de parties qui l'atteignent :
+ * une position répétée au cours d'une partie n'est comptée qu'à sa première occurrence.
+ *
+ * Rien n'est chargé sur le tas : une requête est une dichotomie sur le fichier projeté,
+ * une trentaine de lectures pour un milliard d'enregistrements. Les lectures sont
+ * absolues, un même index peut être interrogé par plusieurs threads.
+ */
+public final class PositionIndex implements AutoCloseable {
+    static final long MAGIC = 0x504F53494E444558L; // "POSINDEX"
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 24;
+    // Projections de 1 Go qui se chevauchent d'un enregistrement : aucun n'est coupé en deux
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long records;
+
+    private PositionIndex(FileChannel channel, MappedByteBuffer[] segments, long records) {
+        this.channel = channel;
+        this.segments = segments;
+        this.records = records;
+    }
+
+    /**
+     * Ouvre et projette un index.
+     *
+     * @param file Le fichier d'index
+     * @return L'index
+     * @throws IOException si le fichier ne peut pas être lu ou n'est pas un index
+     */
+    public static PositionIndex open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_SIZE || (size - HEADER_SIZE) % RECORD_SIZE != 0) {
+                throw new IOException("Not a position index (size " + size + "): " + file);
+            }
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) Math.max(1, (size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < segments.length; i++) {
+                long offset = (long) i << SEGMENT_SHIFT;
+                long length = Math.min(SEGMENT_MASK + 1 + RECORD_SIZE, size - offset);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            }
+            if (segments[0].getLong(0) != MAGIC) {
+                throw new IOException("Not a position index (bad magic): " + file);
+            }
+            return new PositionIndex(channel, segments, (size - HEADER_SIZE) / RECORD_SIZE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Nombre d'enregistrements (couples position, coup distincts).
+     */
+    public long size() {
+        return records;
+    }
+
+    /**
+     * Parties qui atteignent une position, par issue.
+     *
+     * @param key La clé Zobrist de la position (voir BitboardPosition.getKey)
+     * @return Le total, de coup Move.NONE ; zéro partie si la position est absente
+     */
+    public MoveStats stats(long key) {
+        long white = 0;
+        long draws = 0;
+        long black = 0;
+        for (long i = lowerBound(key); i < records && keyAt(i) == key; i++) {
+            white += whiteWinsAt(i);
+            draws += drawsAt(i);
+            black += blackWinsAt(i);
+        }
+        return new MoveStats(Move.NONE, white, draws, black);
+    }
+
+    /**
+     * Coups joués depuis une position, du plus joué au moins joué. Les enregistrements
+     * qui ne correspondent à aucun coup légal (collision de clé) sont ignorés.
+     *
+     * @param position La position (non modifiée)
+     * @return Les statistiques de chaque coup, vide si la position est absente
+     */
+    public List<MoveStats> moves(BitboardPosition position) {
+        List<MoveStats> moves = new ArrayList<>();
+        long key = position.getKey();
+        long index = lowerBound(key);
+        if (index == records || keyAt(index) != key) {
+            return moves;
+        }
+        MoveList legal = new MoveList();
+        MoveGenerator.generateLegal(position, legal);
+        for (; index < records && keyAt(index) == key; index++) {
+            int move = decode(legal, moveAt(index));
+            if (move != Move.NONE) {
+                moves.add(new MoveStats(move, whiteWinsAt(index), drawsAt(index), blackWinsAt(index)));
+            }
+        }
+        moves.sort(Comparator.comparingLong(MoveStats::games).reversed());
+        return moves;
+    }
+
+    /**
+     * Premier enregistrement dont la clé (non signée) est supérieure ou égale à key.
+     */
+    long lowerBound(long key) {
+        long low = 0;
+        long high = records;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    long keyAt(long index) {
+        long offset = offset(index);
+        return segment(offset).getLong(position(offset));
+    }
+
+    int moveAt(long index) {
+        long offset = offset(index) + 8;
+        return segment(offset).getShort(position(offset)) & 0xFFFF;
+    }
+
+    long whiteWinsAt(long index) {
+        return count(offset(index) + 12);
+    }
+
+    long drawsAt(long index) {
+        return count(offset(index) + 16);
+    }
+
+    long blackWinsAt(long index) {
+        return count(offset(index) + 20);
+    }
+
+    private long count(long offset) {
+        return segment(offset).getInt(position(offset)) & 0xFFFFFFFFL;
+    }
+
+    private static long offset(long index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private MappedByteBuffer segment(long offset) {
+        return segments[(int) (offset >>> SEGMENT_SHIFT)];
+    }
+
+    private static int position(long offset) {
+        return (int) (offset & SEGMENT_MASK);
+    }
+
+    /**
+     * Code un coup sur 16 bits : départ, arrivée, type de promotion (0 si aucune).
+     */
+    static int encode(int move) {
+        return Move.from(move) | Move.to(move) << 6 | Move.promotion(move) << 12;
+    }
+
+    /**
+     * Retrouve le coup légal correspondant à un coup codé sur 16 bits.
+     */
+    private static int decode(MoveList legal, int code) {
+        if (code == 0) {
+            return Move.NONE;
+        }
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            if (encode(move) == code) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Écrit un enregistrement ; les compteurs sont plafonnés à 2^32 - 1.
+     */
+    static void writeRecord(DataOutputStream out, long key, int move, long whiteWins, long draws, long blackWins)
+            throws IOException {
+        out.writeLong(key);
+        out.writeShort(move);
+        out.writeShort(0);
+        out.writeInt((int) Math.min(whiteWins, 0xFFFFFFFFL));
+        out.writeInt((int) Math.min(draws, 0xFFFFFFFFL));
+        out.writeInt((int) Math.min(blackWins, 0xFFFFFFFFL));
+    }
+
+    /**
+     * Ferme le fichier. Les projections restent valides jusqu'à leur libération par le
+     * ramasse-miettes (Java ne permet pas de les détruire explicitement).
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Ligne de commande : index &lt;fichier.idx&gt; [fen] — statistiques d'une position.
+     *
+     * @param args Les arguments de la commande
+     * @throws IOException si l'index ne peut pas être lu
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: index <file.idx> [fen]");
+            return;
+        }
+        StringBuilder fen = new StringBuilder();
+        for (int i = 1; i < args.length; i++) {
+            fen.append(args[i]).append(' ');
+        }
+        BitboardPosition position = BitboardPosition.fromFen(
+                fen.length() == 0 ? BitboardPosition.START_FEN : fen.toString());
+        try (PositionIndex index = open(Path.of(args[0]))) {
+            long start = System.nanoTime();
+            MoveStats total = index.stats(position.getKey());
+            List<MoveStats> moves = index.moves(position);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%d records, %d games (+%d =%d -%d), %d us%n", index.size(), total.games(),
+                    total.whiteWins(), total.draws(), total.blackWins(), elapsed / 1000);
+            for (MoveStats move : moves) {
+                System.out.printf("%-6s %8d  +%d =%d -%d  %.1f%%%n", Move.toUci(move.move()), move.games(),
+                        move.whiteWins(), move.draws(), move.blackWins(), 100 * move.whiteScore());
+            }
+        }
+    }
+}
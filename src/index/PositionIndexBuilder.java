@@ -0,0 +1,423 @@
+package index;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import board.Board;
+import pgn.GameVisitor;
+import pgn.PgnGame;
+import pgn.PgnReplay;
+
+/**
+ * Construit un index de positions (voir PositionIndex) à partir de fichiers PGN, par tri
+ * externe parallèle : la base peut être bien plus grande que la mémoire.
+ *
+ * 1. Chaque thread de relecture (PgnReplay) accumule ses couples (position, coup, issue)
+ *    dans un tampon de taille fixe. Plein, le tampon est trié, les doublons fusionnés en
+ *    compteurs, et le tout écrit dans un fichier de run, lui-même un index valide.
+ * 2. L'espace des clés est découpé en autant de plages que de threads ; chaque plage est
+ *    fusionnée indépendamment à partir de tous les runs projetés (une dichotomie situe la
+ *    plage dans chaque run), puis les plages sont concaténées dans l'ordre.
+ *
+ * Les parties au résultat inconnu ("*") ne sont pas indexées. Une partie abandonnée sur
+ * un coup illégal compte pour les positions qui précèdent l'erreur.
+ */
+public final class PositionIndexBuilder {
+    public static final int DEFAULT_MEMORY_MB = 256;
+    // Un couple (position, coup, issue) occupe deux longs dans le tampon d'un thread
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Bilan d'une construction.
+     *
+     * @param games Les parties relues sans erreur
+     * @param errors Les parties abandonnées sur un coup illisible ou illégal
+     * @param plies Les demi-coups relus
+     * @param runs Les fichiers de run écrits
+     * @param records Les enregistrements de l'index final
+     * @param wallNanos La durée totale
+     */
+    public record Summary(long games, long errors, long plies, int runs, long records, long wallNanos) {
+    }
+
+    private final int threads;
+    private final long memoryBytes;
+    private final Path tempDir;
+    private final List<Path> runs = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * @param threads Le nombre de threads de relecture et de fusion
+     * @param memoryMb La mémoire totale des tampons de tri, partagée entre les threads
+     * @param tempDir Le répertoire des fichiers de run
+     */
+    public PositionIndexBuilder(int threads, int memoryMb, Path tempDir) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Index builder needs at least one thread");
+        }
+        if (memoryMb < 1) {
+            throw new IllegalArgumentException("Index builder needs at least 1 MB: " + memoryMb);
+        }
+        this.threads = threads;
+        this.memoryBytes = (long) memoryMb << 20;
+        this.tempDir = tempDir;
+    }
+
+    // Tampon d'un thread de relecture : clé et (coup << 2 | issue) entrelacés
+    private final class RunWriter implements GameVisitor {
+        private final long[] entries;
+        private int size;
+        private PgnGame current;
+        private int outcome;
+
+        private RunWriter(int capacity) {
+            entries = new long[2 * capacity];
+        }
+
+        @Override
+        public void move(PgnGame game, Board board, int move) {
+            if (game != current) {
+                current = game;
+                outcome = game.outcome();
+            }
+            // Une position répétée dans la partie ne compte qu'une fois, sous le premier coup
+            // joué depuis elle : la somme des coups d'une position reste un nombre de parties
+            if (outcome != PgnGame.UNKNOWN && !board.getBitboardPosition().isRepetition()) {
+                add(board.getZobristKey(), PositionIndex.encode(move));
+            }
+        }
+
+        @Override
+        public void game(PgnGame game, Board board) {
+            // La position finale, sous le coup nul : elle compte dans « parties qui atteignent »
+            current = game;
+            outcome = game.outcome();
+            if (outcome != PgnGame.UNKNOWN && !board.getBitboardPosition().isRepetition()) {
+                add(board.getZobristKey(), 0);
+            }
+        }
+
+        @Override
+        public void end() {
+            spill();
+        }
+
+        private void add(long key, int move) {
+            if (2 * size == entries.length) {
+                spill();
+            }
+            entries[2 * size] = key;
+            entries[2 * size + 1] = (long) move << 2 | outcome;
+            size++;
+        }
+
+        /**
+         * Trie le tampon, fusionne les doublons et l'écrit dans un nouveau fichier de run.
+         */
+        private void spill() {
+            if (size == 0) {
+                return;
+            }
+            sort(entries, 0, size - 1);
+            try {
+                Path run = Files.createTempFile(tempDir, "run", ".idx");
+                runs.add(run);
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), BUFFER_SIZE))) {
+                    out.writeLong(PositionIndex.MAGIC);
+                    long[] counts = new long[3];
+                    for (int i = 0; i < size; i++) {
+                        long key = entries[2 * i];
+                        int move = (int) (entries[2 * i + 1] >>> 2);
+                        counts[(int) (entries[2 * i + 1] & 3)]++;
+                        if (i + 1 == size || entries[2 * i + 2] != key || entries[2 * i + 3] >>> 2 != move) {
+                            PositionIndex.writeRecord(out, key, move, counts[PgnGame.WHITE_WINS],
+                                    counts[PgnGame.DRAW], counts[PgnGame.BLACK_WINS]);
+                            counts[0] = counts[1] = counts[2] = 0;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            size = 0;
+        }
+    }
+
+    /**
+     * Construit l'index.
+     *
+     * @param games Les fichiers PGN, relus dans l'ordre
+     * @param output Le fichier d'index à écrire (remplacé s'il existe)
+     * @return Le bilan
+     * @throws IOException si une lecture ou une écriture échoue
+     */
+    public Summary build(List<Path> games, Path output) throws IOException {
+        long start = System.nanoTime();
+        long gameCount = 0;
+        long errors = 0;
+        long plies = 0;
+        runs.clear();
+        int capacity = (int) Math.min(Integer.MAX_VALUE / 2, memoryBytes / threads / ENTRY_BYTES);
+        try {
+            for (Path file : games) {
+                PgnReplay.Report report = PgnReplay.run(file, threads, () -> new RunWriter(capacity));
+                gameCount += report.games();
+                errors += report.errors();
+                plies += report.plies();
+            }
+            long records = merge(output);
+            return new Summary(gameCount, errors, plies, runs.size(), records, System.nanoTime() - start);
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * Fusionne les runs en parallèle, une plage de clés par thread, puis concatène les
+     * plages dans le fichier final.
+     *
+     * @return Le nombre d'enregistrements de l'index
+     */
+    private long merge(Path output) throws IOException {
+        List<PositionIndex> sources = new ArrayList<>(runs.size());
+        List<Path> parts = new ArrayList<>(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (Path run : runs) {
+                sources.add(PositionIndex.open(run));
+            }
+            // Plages égales de l'espace des clés non signées : les clés Zobrist sont uniformes
+            long step = Long.divideUnsigned(-1L, threads);
+            List<Future<Long>> futures = new ArrayList<>(threads);
+            for (int p = 0; p < threads; p++) {
+                Path part = Files.createTempFile(tempDir, "part", ".idx");
+                parts.add(part);
+                long low = p * step;
+                long high = p * step + step;
+                boolean last = p == threads - 1;
+                futures.add(executor.submit(() -> mergeRange(sources, low, high, last, part)));
+            }
+            long records = 0;
+            for (Future<Long> future : futures) {
+                records += future.get();
+            }
+
+            try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(PositionIndex.HEADER_SIZE);
+                header.putLong(PositionIndex.MAGIC).flip();
+                while (header.hasRemaining()) {
+                    out.write(header);
+                }
+                for (Path part : parts) {
+                    try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                        long position = 0;
+                        long size = in.size();
+                        while (position < size) {
+                            position += in.transferTo(position, size - position, out);
+                        }
+                    }
+                }
+            }
+            return records;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Index merge interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("Index merge failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            for (PositionIndex source : sources) {
+                source.close();
+            }
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    // Position de lecture dans un run pendant la fusion
+    private static final class Cursor {
+        private final PositionIndex run;
+        private final long end;
+        private long index;
+        private long key;
+        private int move;
+
+        private Cursor(PositionIndex run, long index, long end) {
+            this.run = run;
+            this.index = index;
+            this.end = end;
+            load();
+        }
+
+        private boolean load() {
+            if (index == end) {
+                return false;
+            }
+            key = run.keyAt(index);
+            move = run.moveAt(index);
+            return true;
+        }
+
+        private int compareTo(Cursor other) {
+            int byKey = Long.compareUnsigned(key, other.key);
+            return byKey != 0 ? byKey : Integer.compare(move, other.move);
+        }
+    }
+
+    /**
+     * Fusionne la plage de clés [low, high[ (jusqu'à la fin pour la dernière plage) de
+     * tous les runs dans un fichier d'enregistrements sans en-tête.
+     *
+     * @return Le nombre d'enregistrements écrits
+     */
+    private static long mergeRange(List<PositionIndex> sources, long low, long high, boolean last, Path part)
+            throws IOException {
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(Math.max(1, sources.size()), Cursor::compareTo);
+        for (PositionIndex source : sources) {
+            long from = source.lowerBound(low);
+            long to = last ? source.size() : source.lowerBound(high);
+            if (from < to) {
+                queue.add(new Cursor(source, from, to));
+            }
+        }
+
+        long records = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(part), BUFFER_SIZE))) {
+            while (!queue.isEmpty()) {
+                Cursor first = queue.peek();
+                long key = first.key;
+                int move = first.move;
+                long white = 0;
+                long draws = 0;
+                long black = 0;
+                while (!queue.isEmpty() && queue.peek().key == key && queue.peek().move == move) {
+                    Cursor cursor = queue.poll();
+                    white += cursor.run.whiteWinsAt(cursor.index);
+                    draws += cursor.run.drawsAt(cursor.index);
+                    black += cursor.run.blackWinsAt(cursor.index);
+                    cursor.index++;
+                    if (cursor.load()) {
+                        queue.add(cursor);
+                    }
+                }
+                PositionIndex.writeRecord(out, key, move, white, draws, black);
+                records++;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Tri rapide d'un tableau de couples (clé non signée, donnée) entrelacés, bornes incluses.
+     */
+    private static void sort(long[] entries, int low, int high) {
+        while (high - low > 16) {
+            int mid = (low + high) >>> 1;
+            // Pivot : médiane de trois, placée en high
+            if (compare(entries, mid, low) < 0) {
+                swap(entries, mid, low);
+            }
+            if (compare(entries, high, low) < 0) {
+                swap(entries, high, low);
+            }
+            if (compare(entries, mid, high) < 0) {
+                swap(entries, mid, high);
+            }
+            int store = low;
+            for (int i = low; i < high; i++) {
+                if (compare(entries, i, high) < 0) {
+                    swap(entries, i, store++);
+                }
+            }
+            swap(entries, store, high);
+            // Récursion sur la plus petite moitié : profondeur de pile logarithmique
+            if (store - low < high - store) {
+                sort(entries, low, store - 1);
+                low = store + 1;
+            } else {
+                sort(entries, store + 1, high);
+                high = store - 1;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && compare(entries, j, j - 1) < 0; j--) {
+                swap(entries, j, j - 1);
+            }
+        }
+    }
+
+    private static int compare(long[] entries, int a, int b) {
+        int byKey = Long.compareUnsigned(entries[2 * a], entries[2 * b]);
+        return byKey != 0 ? byKey : Long.compare(entries[2 * a + 1], entries[2 * b + 1]);
+    }
+
+    private static void swap(long[] entries, int a, int b) {
+        long key = entries[2 * a];
+        long value = entries[2 * a + 1];
+        entries[2 * a] = entries[2 * b];
+        entries[2 * a + 1] = entries[2 * b + 1];
+        entries[2 * b] = key;
+        entries[2 * b + 1] = value;
+    }
+
+    /**
+     * Ligne de commande : index-build &lt;sortie.idx&gt; &lt;fichier.pgn&gt;... [--threads N]
+     * [--memory MB] [--tmp répertoire]
+     *
+     * @param args Les arguments de la commande
+     * @throws IOException si une lecture ou une écriture échoue
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: index-build <out.idx> <file.pgn>... [--threads N] [--memory MB] [--tmp dir]");
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        int memoryMb = DEFAULT_MEMORY_MB;
+        Path tempDir = null;
+        List<Path> games = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--memory" -> memoryMb = Integer.parseInt(args[++i]);
+                case "--tmp" -> tempDir = Path.of(args[++i]);
+                default -> games.add(Path.of(args[i]));
+            }
+        }
+        Path output = Path.of(args[0]);
+        if (tempDir == null) {
+            tempDir = output.toAbsolutePath().getParent();
+        }
+
+        Summary summary = new PositionIndexBuilder(threads, memoryMb, tempDir).build(games, output);
+        System.out.printf("%d games, %d errors, %d plies, %d runs, %d records, %d ms%n", summary.games(),
+                summary.errors(), summary.plies(), summary.runs(), summary.records(), summary.wallNanos() / 1_000_000);
+    }
+}
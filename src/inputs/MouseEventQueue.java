@@ -0,0 +1,88 @@
+package inputs;
+
+import java.awt.event.MouseEvent;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * File circulaire bornée et sans verrou entre le thread AWT (seul producteur) et la
+ * boucle de jeu (seul consommateur).
+ *
+ * Le producteur écrit l'événement et son instant de capture puis publie la nouvelle
+ * queue (écriture ordonnée) ; le consommateur lit la queue, traite les cases puis publie
+ * la nouvelle tête. Aucun verrou ni allocation : les MouseEvent sont ceux créés par AWT.
+ */
+class MouseEventQueue {
+    private final MouseEvent[] events;
+    private final long[] capturedAt;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // prochain à lire (consommateur)
+    private final AtomicLong tail = new AtomicLong(); // prochain à écrire (producteur)
+
+    /**
+     * Reçoit les événements vidés de la file.
+     */
+    @FunctionalInterface
+    interface Handler {
+        void handle(MouseEvent event, long capturedAtNanos);
+    }
+
+    /**
+     * @param capacity La capacité, arrondie à la puissance de 2 supérieure
+     */
+    MouseEventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        events = new MouseEvent[size];
+        capturedAt = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Ajoute un événement ; appelé seulement par le thread AWT.
+     *
+     * @return false si la file est pleine (l'événement est abandonné)
+     */
+    boolean offer(MouseEvent event, long capturedAtNanos) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            return false;
+        }
+        int index = (int) t & mask;
+        events[index] = event;
+        capturedAt[index] = capturedAtNanos;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Vide la file ; appelé seulement par le thread consommateur.
+     * Dans une suite d'événements de déplacement de même type (MOUSE_MOVED ou
+     * MOUSE_DRAGGED), seul le dernier est transmis : seule la position finale compte.
+     *
+     * @return Le nombre d'événements transmis au handler
+     */
+    int drain(Handler handler) {
+        long h = head.get();
+        long t = tail.get();
+        int handled = 0;
+        for (; h < t; h++) {
+            int index = (int) h & mask;
+            MouseEvent event = events[index];
+            events[index] = null;
+            if (h + 1 < t && isMotion(event) && events[(int) (h + 1) & mask].getID() == event.getID()) {
+                continue; // remplacé par le suivant
+            }
+            handler.handle(event, capturedAt[index]);
+            handled++;
+        }
+        head.lazySet(h);
+        return handled;
+    }
+
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    private static boolean isMotion(MouseEvent event) {
+        return event.getID() == MouseEvent.MOUSE_MOVED || event.getID() == MouseEvent.MOUSE_DRAGGED;
+    }
+}
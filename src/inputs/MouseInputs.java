@@ -7,75 +7,173 @@ import java.awt.event.MouseMotionListener;
 import game.GamePanel;
 import states.GameState;
 
+/**
+ * Capture les événements souris sur le thread AWT et les transmet aux états depuis la
+ * boucle de jeu. Les écouteurs AWT ne font qu'ajouter l'événement dans une file sans
+ * verrou ; drain() est appelé par Game.update, si bien que Playing et Menu ne sont
+ * jamais modifiés par deux threads à la fois.
+ */
 public class MouseInputs implements MouseListener, MouseMotionListener {
+    private static final int QUEUE_CAPACITY = 1024;
+
     private GamePanel gamePanel;
+    private final MouseEventQueue queue = new MouseEventQueue(QUEUE_CAPACITY);
+    private final MouseEventQueue.Handler dispatcher = this::dispatch;
+    private boolean stateChanged;
+
+    // Latence clic -> traitement, du thread AWT à la fin du handler (thread de jeu)
+    private long clickCount;
+    private long totalClickLatency;
+    private long maxClickLatency;
+    private volatile long droppedEvents;
 
     public MouseInputs(GamePanel gamePanel) {
         this.gamePanel = gamePanel;
     }
 
-    @Override
-    public void mouseClicked(MouseEvent e) {
-        switch(GameState.currentState){
-            case GAME -> gamePanel.getGame().getPlaying().mouseClicked(e);
-            case MENU -> gamePanel.getGame().getMenu().mouseClicked(e);
+    /**
+     * Transmet aux états tous les événements en attente. Appelé par la boucle de jeu.
+     *
+     * Un simple survol ne redessine rien. Un clic, un appui, un relâchement ou un glisser
+     * peut changer la sélection ou jouer un coup : tant que Playing ne signale pas ses
+     * cases au plateau de Game (Board.markDirty), l'état entier est redessiné.
+     */
+    public void drain() {
+        stateChanged = false;
+        queue.drain(dispatcher);
+        if (stateChanged) {
+            gamePanel.getGame().requestRender();
+        }
+    }
+
+    private void dispatch(MouseEvent e, long capturedAt) {
+        if (e.getID() != MouseEvent.MOUSE_MOVED) {
+            stateChanged = true;
+        }
+        switch (e.getID()) {
+            case MouseEvent.MOUSE_CLICKED -> {
+                switch(GameState.currentState){
+                    case GAME -> gamePanel.getGame().getPlaying().mouseClicked(e);
+                    case MENU -> gamePanel.getGame().getMenu().mouseClicked(e);
+                    default -> {
+                        throw new IllegalArgumentException("Invalid game state: " + GameState.currentState);
+                    }
+                }
+                recordClickLatency(capturedAt);
+            }
+            case MouseEvent.MOUSE_PRESSED -> {
+                switch(GameState.currentState){
+                    case GAME -> gamePanel.getGame().getPlaying().mousePressed(e);
+                    case MENU -> gamePanel.getGame().getMenu().mousePressed(e);
+                    default -> {
+                        throw new IllegalArgumentException("Invalid game state: " + GameState.currentState);
+                    }
+                }
+                recordClickLatency(capturedAt);
+            }
+            case MouseEvent.MOUSE_RELEASED -> {
+                switch(GameState.currentState){
+                    case GAME -> gamePanel.getGame().getPlaying().mouseReleased(e);
+                    case MENU -> gamePanel.getGame().getMenu().mouseReleased(e);
+                    default -> {
+                        throw new IllegalArgumentException("Invalid game state: " + GameState.currentState);
+                    }
+                }
+                recordClickLatency(capturedAt);
+            }
+            case MouseEvent.MOUSE_DRAGGED -> {
+                switch(GameState.currentState){
+                    case GAME -> gamePanel.getGame().getPlaying().mouseDragged(e);
+                    case MENU -> gamePanel.getGame().getMenu().mouseDragged(e);
+                    default -> {
+                        throw new IllegalArgumentException("Invalid game state: " + GameState.currentState);
+                    }
+                }
+            }
+            case MouseEvent.MOUSE_MOVED -> {
+                switch(GameState.currentState){
+                    case GAME -> gamePanel.getGame().getPlaying().mouseMoved(e);
+                    case MENU -> gamePanel.getGame().getMenu().mouseMoved(e);
+                    default -> {
+                        throw new IllegalArgumentException("Invalid game state: " + GameState.currentState);
+                    }
+                }
+            }
             default -> {
-                throw new IllegalArgumentException("Invalid game state: " + GameState.currentState);
             }
         }
     }
 
+    private void recordClickLatency(long capturedAt) {
+        long latency = System.nanoTime() - capturedAt;
+        clickCount++;
+        totalClickLatency += latency;
+        maxClickLatency = Math.max(maxClickLatency, latency);
+    }
+
+    /**
+     * Latence moyenne entre la capture d'un clic et la fin de son traitement, depuis
+     * le dernier resetLatencyStats. À lire depuis la boucle de jeu.
+     */
+    public long getAverageClickLatencyNanos() {
+        return clickCount == 0 ? 0 : totalClickLatency / clickCount;
+    }
+
+    public long getMaxClickLatencyNanos() {
+        return maxClickLatency;
+    }
+
+    public void resetLatencyStats() {
+        clickCount = 0;
+        totalClickLatency = 0;
+        maxClickLatency = 0;
+    }
+
+    /**
+     * Événements abandonnés parce que la file était pleine (boucle de jeu bloquée).
+     */
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    private void enqueue(MouseEvent e) {
+        if (!queue.offer(e, System.nanoTime())) {
+            droppedEvents++; // seul le thread AWT écrit
+        }
+    }
+
+    @Override
+    public void mouseClicked(MouseEvent e) {
+        enqueue(e);
+    }
+
     @Override
     public void mousePressed(MouseEvent e) {
-        switch(GameState.currentState){
-            case GAME -> gamePanel.getGame().getPlaying().mousePressed(e);
-            case MENU -> gamePanel.getGame().getMenu().mousePressed(e);
-            default -> {
-                throw new IllegalArgumentException("Invalid game state: " + GameState.currentState);
-            }
-        }
+        enqueue(e);
     }
 
     @Override
     public void mouseReleased(MouseEvent e) {
-        switch(GameState.currentState){
-            case GAME -> gamePanel.getGame().getPlaying().mouseReleased(e);
-            case MENU -> gamePanel.getGame().getMenu().mouseReleased(e);
-            default -> {
-                throw new IllegalArgumentException("Invalid game state: " + GameState.currentState);
-            }
-        }
+        enqueue(e);
     }
 
     @Override
     public void mouseEntered(MouseEvent e) {
-        
+
     }
 
     @Override
     public void mouseExited(MouseEvent e) {
-        
+
     }
 
     @Override
     public void mouseDragged(MouseEvent e) {
-        switch(GameState.currentState){
-            case GAME -> gamePanel.getGame().getPlaying().mouseDragged(e);
-            case MENU -> gamePanel.getGame().getMenu().mouseDragged(e);
-            default -> {
-                throw new IllegalArgumentException("Invalid game state: " + GameState.currentState);
-            }
-        }
+        enqueue(e);
     }
 
     @Override
     public void mouseMoved(MouseEvent e) {
-        switch(GameState.currentState){
-            case GAME -> gamePanel.getGame().getPlaying().mouseMoved(e);
-            case MENU -> gamePanel.getGame().getMenu().mouseMoved(e);
-            default -> {
-                throw new IllegalArgumentException("Invalid game state: " + GameState.currentState);
-            }
-        }
+        enqueue(e);
     }
 }
@@ -1,13 +1,27 @@
 package main;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 import game.Game;
-import board.Board;
+import movegen.Perft;
+import uci.UciEngine;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        // Mode UCI sans interface graphique : AWT/Swing ne sont jamais chargés
+        if (args.length > 0 && args[0].equals("--uci")) {
+            new UciEngine(System.in, System.out).run();
+            return;
+        }
+
+        // Mode perft : --perft <profondeur> [--divide] [--threads N] [fen]
+        if (args.length > 0 && args[0].equals("--perft")) {
+            Perft.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         Game game = new Game();
-        
-        Board board = new Board();
-        System.out.println(board.toString());
+        System.out.println(game.getBoard().toString());
     }
 }
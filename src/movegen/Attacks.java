@@ -0,0 +1,176 @@
+package movegen;
+
+import static board.Bitboards.*;
+
+import board.BitboardPosition;
+
+/**
+ * Tables d'attaques précalculées.
+ * Cavaliers, rois et pions utilisent des masques fixes ; les pièces glissantes
+ * utilisent des bitboards magiques (voir Magics) : une lecture de table par appel.
+ */
+public final class Attacks {
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    // Cases strictement entre deux cases alignées, et ligne entière passant par elles (0 sinon)
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    // Directions du roi : N, NE, E, NW, S, SW, W, SE
+    private static final int[][] DIRECTIONS = {
+        { 0, 1 }, { 1, 1 }, { 1, 0 }, { -1, 1 },
+        { 0, -1 }, { -1, -1 }, { -1, 0 }, { 1, -1 }
+    };
+
+    static {
+        int[][] knightSteps = { { 1, 2 }, { 2, 1 }, { 2, -1 }, { 1, -2 }, { -1, -2 }, { -2, -1 }, { -2, 1 }, { -1, 2 } };
+        for (int sq = 0; sq < 64; sq++) {
+            int file = fileOf(sq);
+            int rank = rankOf(sq);
+            for (int[] step : knightSteps) {
+                KNIGHT_ATTACKS[sq] |= maskAt(file + step[0], rank + step[1]);
+            }
+            for (int[] dir : DIRECTIONS) {
+                KING_ATTACKS[sq] |= maskAt(file + dir[0], rank + dir[1]);
+            }
+            PAWN_ATTACKS[WHITE][sq] = maskAt(file - 1, rank + 1) | maskAt(file + 1, rank + 1);
+            PAWN_ATTACKS[BLACK][sq] = maskAt(file - 1, rank - 1) | maskAt(file + 1, rank - 1);
+        }
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b) {
+                    continue;
+                }
+                if ((rook(a, 0L) & bit(b)) != 0) {
+                    BETWEEN[a][b] = rook(a, bit(b)) & rook(b, bit(a));
+                    LINE[a][b] = (rook(a, 0L) & rook(b, 0L)) | bit(a) | bit(b);
+                } else if ((bishop(a, 0L) & bit(b)) != 0) {
+                    BETWEEN[a][b] = bishop(a, bit(b)) & bishop(b, bit(a));
+                    LINE[a][b] = (bishop(a, 0L) & bishop(b, 0L)) | bit(a) | bit(b);
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    private static long maskAt(int file, int rank) {
+        return (file >= 0 && file < 8 && rank >= 0 && rank < 8) ? bit(square(file, rank)) : 0L;
+    }
+
+    public static long knight(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long king(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Cases attaquées par un pion d'une couleur donnée depuis une case.
+     */
+    public static long pawn(int color, int square) {
+        return PAWN_ATTACKS[color][square];
+    }
+
+    public static long rook(int square, long occupied) {
+        return Magics.ROOK.attacks(square, occupied);
+    }
+
+    public static long bishop(int square, long occupied) {
+        return Magics.BISHOP.attacks(square, occupied);
+    }
+
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * Cases strictement comprises entre deux cases alignées (0 si elles ne le sont pas).
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * Ligne complète (bord à bord) passant par deux cases alignées (0 si elles ne le sont pas).
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * Attaques d'une pièce d'un type donné, pour une occupation donnée (hors pions).
+     */
+    public static long of(int type, int square, long occupied) {
+        switch (type) {
+            case KNIGHT: return KNIGHT_ATTACKS[square];
+            case BISHOP: return bishop(square, occupied);
+            case ROOK: return rook(square, occupied);
+            case QUEEN: return queen(square, occupied);
+            case KING: return KING_ATTACKS[square];
+            default: throw new IllegalArgumentException("Invalid piece type: " + type);
+        }
+    }
+
+    /**
+     * Indique si une case est attaquée par une couleur donnée.
+     *
+     * @param position La position
+     * @param square La case visée
+     * @param byColor La couleur de l'attaquant
+     * @return true si au moins une pièce de byColor attaque la case
+     */
+    public static boolean isSquareAttacked(BitboardPosition position, int square, int byColor) {
+        return isSquareAttacked(position, square, byColor, position.occupied());
+    }
+
+    /**
+     * Indique si une case est attaquée par une couleur donnée, pour une occupation
+     * différente de celle de la position (roi retiré, pièce déplacée...).
+     *
+     * @param position La position, qui fournit les pièces de l'attaquant
+     * @param square La case visée
+     * @param byColor La couleur de l'attaquant
+     * @param occupied L'occupation qui bloque les pièces glissantes
+     * @return true si au moins une pièce de byColor attaque la case
+     */
+    public static boolean isSquareAttacked(BitboardPosition position, int square, int byColor, long occupied) {
+        return (PAWN_ATTACKS[byColor ^ 1][square] & position.pieces(byColor, PAWN)) != 0
+            || (KNIGHT_ATTACKS[square] & position.pieces(byColor, KNIGHT)) != 0
+            || (KING_ATTACKS[square] & position.pieces(byColor, KING)) != 0
+            || (bishop(square, occupied) & (position.pieces(byColor, BISHOP) | position.pieces(byColor, QUEEN))) != 0
+            || (rook(square, occupied) & (position.pieces(byColor, ROOK) | position.pieces(byColor, QUEEN))) != 0;
+    }
+
+    /**
+     * Pièces des deux couleurs qui attaquent une case, pour une occupation donnée.
+     *
+     * @param position La position
+     * @param square La case visée
+     * @param occupied L'occupation qui bloque les pièces glissantes
+     * @return Le masque des attaquants
+     */
+    public static long attackersTo(BitboardPosition position, int square, long occupied) {
+        long bishopsQueens = position.pieces(WHITE, BISHOP) | position.pieces(BLACK, BISHOP)
+                | position.pieces(WHITE, QUEEN) | position.pieces(BLACK, QUEEN);
+        long rooksQueens = position.pieces(WHITE, ROOK) | position.pieces(BLACK, ROOK)
+                | position.pieces(WHITE, QUEEN) | position.pieces(BLACK, QUEEN);
+        return (PAWN_ATTACKS[BLACK][square] & position.pieces(WHITE, PAWN))
+             | (PAWN_ATTACKS[WHITE][square] & position.pieces(BLACK, PAWN))
+             | (KNIGHT_ATTACKS[square] & (position.pieces(WHITE, KNIGHT) | position.pieces(BLACK, KNIGHT)))
+             | (KING_ATTACKS[square] & (position.pieces(WHITE, KING) | position.pieces(BLACK, KING)))
+             | (bishop(square, occupied) & bishopsQueens)
+             | (rook(square, occupied) & rooksQueens);
+    }
+
+    /**
+     * Indique si le camp donné est en échec (jamais vrai sans roi sur le plateau).
+     */
+    public static boolean isInCheck(BitboardPosition position, int color) {
+        long king = position.pieces(color, KING);
+        return king != 0 && isSquareAttacked(position, lsb(king), color ^ 1);
+    }
+}
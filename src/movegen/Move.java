@@ -0,0 +1,97 @@
+package movegen;
+
+import board.Bitboards;
+
+/**
+ * Encodage d'un coup dans un entier, pour que la génération et la recherche
+ * n'allouent aucun objet.
+ *
+ * Disposition des bits :
+ * - 0..5   : case de départ
+ * - 6..11  : case d'arrivée
+ * - 12..15 : drapeaux (capture, double poussée, prise en passant, roque)
+ * - 16..18 : type de la pièce de promotion (0 si aucune, sinon un type de Bitboards)
+ */
+public final class Move {
+    public static final int NONE = 0;
+
+    public static final int FLAG_QUIET = 0;
+    public static final int FLAG_CAPTURE = 1;
+    public static final int FLAG_DOUBLE_PUSH = 2;
+    public static final int FLAG_EN_PASSANT = 4;
+    public static final int FLAG_CASTLING = 8;
+
+    private static final String PROMOTION_CHARS = " rnbq";
+
+    private Move() {
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int encode(int from, int to, int flags, int promotion) {
+        return from | (to << 6) | (flags << 12) | (promotion << 16);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 15;
+    }
+
+    public static int promotion(int move) {
+        return (move >>> 16) & 7;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & (FLAG_CAPTURE << 12)) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return promotion(move) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & (FLAG_EN_PASSANT << 12)) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        return (move & (FLAG_CASTLING << 12)) != 0;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (move & (FLAG_DOUBLE_PUSH << 12)) != 0;
+    }
+
+    /**
+     * Coup tactique : capture ou promotion.
+     */
+    public static boolean isTactical(int move) {
+        return isCapture(move) || isPromotion(move);
+    }
+
+    /**
+     * Notation UCI du coup ("e2e4", "e7e8q").
+     * Alloue une chaîne : réservé à l'affichage, jamais au chemin chaud.
+     *
+     * @param move Le coup encodé
+     * @return Le coup en notation UCI
+     */
+    public static String toUci(int move) {
+        if (move == NONE) {
+            return "0000";
+        }
+        String uci = Bitboards.squareName(from(move)) + Bitboards.squareName(to(move));
+        if (isPromotion(move)) {
+            uci += PROMOTION_CHARS.charAt(promotion(move));
+        }
+        return uci;
+    }
+}
@@ -0,0 +1,342 @@
+package movegen;
+
+import static board.Bitboards.*;
+
+import board.BitboardPosition;
+
+/**
+ * Générateur de coups sur bitboards.
+ * Écrit des coups encodés (voir Move) dans un MoveList fourni par l'appelant :
+ * aucun objet n'est alloué pendant la génération.
+ *
+ * Couvre tous les types de pieces.PiecesEnum, y compris prise en passant,
+ * promotions et roques. generate produit des coups pseudo-légaux, qui peuvent
+ * laisser le roi en échec ; generateLegal produit directement les coups légaux,
+ * à partir des pièces qui donnent échec et des pièces clouées, sans jouer de coup.
+ */
+public final class MoveGenerator {
+    private static final long ALL_SQUARES = -1L;
+    private static final int[] PROMOTIONS = { QUEEN, ROOK, BISHOP, KNIGHT };
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Génère tous les coups pseudo-légaux du camp au trait.
+     *
+     * @param position La position
+     * @param moves Le tampon à remplir (vidé au préalable)
+     */
+    public static void generate(BitboardPosition position, MoveList moves) {
+        moves.clear();
+        generate(position, moves, ALL_SQUARES, false);
+    }
+
+    /**
+     * Génère uniquement les coups tactiques (captures et promotions), pour la recherche de quiétude.
+     *
+     * @param position La position
+     * @param moves Le tampon à remplir (vidé au préalable)
+     */
+    public static void generateCaptures(BitboardPosition position, MoveList moves) {
+        moves.clear();
+        generate(position, moves, ALL_SQUARES, true);
+    }
+
+    /**
+     * Génère les coups pseudo-légaux de la pièce posée sur une case.
+     *
+     * @param position La position
+     * @param square La case de départ
+     * @param moves Le tampon à remplir (vidé au préalable)
+     */
+    public static void generateFrom(BitboardPosition position, int square, MoveList moves) {
+        moves.clear();
+        int pieceCode = position.pieceAt(square);
+        if (pieceCode == EMPTY) {
+            return;
+        }
+        // Générer pour la couleur de la pièce, même si ce n'est pas son trait
+        int sideToMove = position.getSideToMove();
+        position.setSideToMove(colorOf(pieceCode));
+        generate(position, moves, bit(square), false);
+        position.setSideToMove(sideToMove);
+    }
+
+    /**
+     * Génère les coups légaux du camp au trait, sans jouer ni annuler de coup.
+     *
+     * @param position La position (non modifiée)
+     * @param moves Le tampon à remplir (vidé au préalable)
+     */
+    public static void generateLegal(BitboardPosition position, MoveList moves) {
+        moves.clear();
+        generateLegal(position, moves, ALL_SQUARES, false);
+    }
+
+    /**
+     * Génère les captures et promotions légales, pour la recherche de quiétude.
+     *
+     * @param position La position (non modifiée)
+     * @param moves Le tampon à remplir (vidé au préalable)
+     */
+    public static void generateLegalCaptures(BitboardPosition position, MoveList moves) {
+        moves.clear();
+        generateLegal(position, moves, ALL_SQUARES, true);
+    }
+
+    /**
+     * Génère les coups légaux de la pièce posée sur une case, pour la couleur de la pièce.
+     *
+     * @param position La position
+     * @param square La case de départ
+     * @param moves Le tampon à remplir (vidé au préalable)
+     */
+    public static void generateLegalFrom(BitboardPosition position, int square, MoveList moves) {
+        moves.clear();
+        int pieceCode = position.pieceAt(square);
+        if (pieceCode == EMPTY) {
+            return;
+        }
+        int sideToMove = position.getSideToMove();
+        position.setSideToMove(colorOf(pieceCode));
+        generateLegal(position, moves, bit(square), false);
+        position.setSideToMove(sideToMove);
+    }
+
+    /**
+     * Génération légale par masques, calculés une fois pour la position :
+     * - en double échec, seul le roi bouge ;
+     * - en échec simple, les autres pièces doivent prendre la pièce qui donne échec
+     *   ou s'interposer (checkMask) ;
+     * - une pièce clouée reste sur la ligne qui la relie à son roi ;
+     * - le roi ne va que sur des cases non attaquées, roi retiré de l'occupation pour
+     *   qu'il ne puisse pas reculer le long du rayon qui le met en échec ;
+     * - la prise en passant, qui vide deux cases d'un coup (échec à la découverte sur
+     *   la rangée), est vérifiée sur l'occupation qu'elle produit.
+     */
+    private static void generateLegal(BitboardPosition position, MoveList moves, long fromMask, boolean capturesOnly) {
+        int us = position.getSideToMove();
+        int them = us ^ 1;
+        long kingBit = position.pieces(us, KING);
+        if (kingBit == 0) {
+            // Sans roi, aucun coup ne peut le laisser en échec
+            generate(position, moves, fromMask, capturesOnly);
+            return;
+        }
+        int king = lsb(kingBit);
+        long occupied = position.occupied();
+        long enemies = position.colorOccupancy(them);
+        long targets = capturesOnly ? enemies : ~position.colorOccupancy(us);
+        long checkers = Attacks.attackersTo(position, king, occupied) & enemies;
+
+        // Hors double échec (où seul le roi bouge), même ordre que generate : pions, pièces, roi
+        if ((checkers & (checkers - 1)) == 0) {
+            long checkMask = checkers == 0 ? ALL_SQUARES : checkers | Attacks.between(king, lsb(checkers));
+            long pinned = pinnedPieces(position, us, king, occupied);
+
+            long pawns = position.pieces(us, PAWN) & fromMask;
+            generatePawnMoves(position, moves, us, pawns & ~pinned, capturesOnly, checkMask);
+            long pinnedPawns = pawns & pinned;
+            while (pinnedPawns != 0) {
+                int from = lsb(pinnedPawns);
+                pinnedPawns = popLsb(pinnedPawns);
+                generatePawnMoves(position, moves, us, bit(from), capturesOnly, checkMask & Attacks.line(king, from));
+            }
+            generateEnPassant(position, moves, us, pawns, king);
+
+            for (int type = ROOK; type <= QUEEN; type++) {
+                long pieces = position.pieces(us, type) & fromMask;
+                while (pieces != 0) {
+                    int from = lsb(pieces);
+                    pieces = popLsb(pieces);
+                    long pieceTargets = Attacks.of(type, from, occupied) & targets & checkMask;
+                    // Un cavalier cloué n'a aucune case sur la ligne : le masque le bloque aussi
+                    if ((pinned & bit(from)) != 0) {
+                        pieceTargets &= Attacks.line(king, from);
+                    }
+                    addMoves(moves, from, pieceTargets, enemies);
+                }
+            }
+        }
+
+        if ((kingBit & fromMask) != 0) {
+            long kingTargets = Attacks.king(king) & targets;
+            long withoutKing = occupied ^ kingBit;
+            while (kingTargets != 0) {
+                int to = lsb(kingTargets);
+                kingTargets = popLsb(kingTargets);
+                if (!Attacks.isSquareAttacked(position, to, them, withoutKing)) {
+                    moves.add(Move.encode(king, to, (enemies & bit(to)) != 0 ? Move.FLAG_CAPTURE : Move.FLAG_QUIET));
+                }
+            }
+            if (!capturesOnly && checkers == 0) {
+                generateCastling(position, moves, us);
+            }
+        }
+    }
+
+    /**
+     * Pièces du camp us clouées sur leur roi : seule pièce entre le roi et une pièce
+     * glissante adverse alignée.
+     */
+    private static long pinnedPieces(BitboardPosition position, int us, int king, long occupied) {
+        int them = us ^ 1;
+        long enemies = position.colorOccupancy(them);
+        long queens = position.pieces(them, QUEEN);
+        // Rayons depuis le roi qui traversent nos pièces et s'arrêtent sur les pièces adverses
+        long snipers = (Attacks.rook(king, enemies) & (position.pieces(them, ROOK) | queens))
+                     | (Attacks.bishop(king, enemies) & (position.pieces(them, BISHOP) | queens));
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = lsb(snipers);
+            snipers = popLsb(snipers);
+            long blockers = Attacks.between(king, sniper) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & position.colorOccupancy(us)) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    private static void generate(BitboardPosition position, MoveList moves, long fromMask, boolean capturesOnly) {
+        int us = position.getSideToMove();
+        int them = us ^ 1;
+        long occupied = position.occupied();
+        long enemies = position.colorOccupancy(them);
+        long targets = capturesOnly ? enemies : ~position.colorOccupancy(us);
+
+        long pawns = position.pieces(us, PAWN) & fromMask;
+        generatePawnMoves(position, moves, us, pawns, capturesOnly, ALL_SQUARES);
+        generateEnPassant(position, moves, us, pawns, NO_SQUARE);
+
+        for (int type = ROOK; type <= KING; type++) {
+            long pieces = position.pieces(us, type) & fromMask;
+            while (pieces != 0) {
+                int from = lsb(pieces);
+                pieces = popLsb(pieces);
+                addMoves(moves, from, Attacks.of(type, from, occupied) & targets, enemies);
+            }
+        }
+
+        if (!capturesOnly && (position.pieces(us, KING) & fromMask) != 0) {
+            generateCastling(position, moves, us);
+        }
+    }
+
+    private static void addMoves(MoveList moves, int from, long targets, long enemies) {
+        while (targets != 0) {
+            int to = lsb(targets);
+            targets = popLsb(targets);
+            moves.add(Move.encode(from, to, (enemies & bit(to)) != 0 ? Move.FLAG_CAPTURE : Move.FLAG_QUIET));
+        }
+    }
+
+    /**
+     * Poussées et captures des pions, cases d'arrivée restreintes à allowed
+     * (masque d'échec et ligne de clouage en génération légale).
+     */
+    private static void generatePawnMoves(BitboardPosition position, MoveList moves, int us, long pawns,
+                                          boolean capturesOnly, long allowed) {
+        long empty = ~position.occupied();
+        long enemies = position.colorOccupancy(us ^ 1);
+        int up = us == WHITE ? 8 : -8;
+        long promotionRank = us == WHITE ? RANK_8 : RANK_1;
+        long doublePushRank = us == WHITE ? RANK_4 : RANK_5;
+
+        // Poussées d'une et deux cases
+        long single = shift(pawns, up) & empty;
+        long pushes = (capturesOnly ? single & promotionRank : single) & allowed;
+        addPawnMoves(moves, pushes, up, Move.FLAG_QUIET, promotionRank);
+        if (!capturesOnly) {
+            long doubles = shift(single, up) & empty & doublePushRank & allowed;
+            while (doubles != 0) {
+                int to = lsb(doubles);
+                doubles = popLsb(doubles);
+                moves.add(Move.encode(to - 2 * up, to, Move.FLAG_DOUBLE_PUSH));
+            }
+        }
+
+        // Captures diagonales, côté colonne a puis côté colonne h
+        long westCaptures = shift(pawns & ~FILE_A, up - 1) & enemies & allowed;
+        long eastCaptures = shift(pawns & ~FILE_H, up + 1) & enemies & allowed;
+        addPawnMoves(moves, westCaptures, up - 1, Move.FLAG_CAPTURE, promotionRank);
+        addPawnMoves(moves, eastCaptures, up + 1, Move.FLAG_CAPTURE, promotionRank);
+    }
+
+    /**
+     * Prises en passant. Avec un roi (génération légale), chaque prise est vérifiée sur
+     * l'occupation qu'elle produit : le pion pris et le pion preneur quittent tous deux
+     * leur case, ce que ni le masque d'échec ni les clouages ne couvrent.
+     *
+     * @param king La case du roi du camp us, ou NO_SQUARE pour ne rien vérifier
+     */
+    private static void generateEnPassant(BitboardPosition position, MoveList moves, int us, long pawns, int king) {
+        int epSquare = position.getEnPassantSquare();
+        if (epSquare == NO_SQUARE) {
+            return;
+        }
+        int captured = us == WHITE ? epSquare - 8 : epSquare + 8;
+        long attackers = Attacks.pawn(us ^ 1, epSquare) & pawns;
+        while (attackers != 0) {
+            int from = lsb(attackers);
+            attackers = popLsb(attackers);
+            if (king != NO_SQUARE) {
+                long occupied = (position.occupied() ^ bit(from) ^ bit(captured)) | bit(epSquare);
+                long checkers = Attacks.attackersTo(position, king, occupied)
+                        & position.colorOccupancy(us ^ 1) & ~bit(captured);
+                if (checkers != 0) {
+                    continue;
+                }
+            }
+            moves.add(Move.encode(from, epSquare, Move.FLAG_CAPTURE | Move.FLAG_EN_PASSANT));
+        }
+    }
+
+    private static void addPawnMoves(MoveList moves, long targets, int offset, int flags, long promotionRank) {
+        while (targets != 0) {
+            int to = lsb(targets);
+            targets = popLsb(targets);
+            int from = to - offset;
+            if ((bit(to) & promotionRank) != 0) {
+                for (int promotion : PROMOTIONS) {
+                    moves.add(Move.encode(from, to, flags, promotion));
+                }
+            } else {
+                moves.add(Move.encode(from, to, flags));
+            }
+        }
+    }
+
+    private static void generateCastling(BitboardPosition position, MoveList moves, int us) {
+        int rights = position.getCastlingRights();
+        int kingSide = us == WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queenSide = us == WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        if ((rights & (kingSide | queenSide)) == 0) {
+            return;
+        }
+        int king = us == WHITE ? 4 : 60;
+        int them = us ^ 1;
+        long occupied = position.occupied();
+        if (Attacks.isSquareAttacked(position, king, them)) {
+            return;
+        }
+        // Le roi ne traverse ni n'atteint une case attaquée ; la tour peut passer sur une case attaquée
+        if ((rights & kingSide) != 0
+                && (occupied & (bit(king + 1) | bit(king + 2))) == 0
+                && !Attacks.isSquareAttacked(position, king + 1, them)
+                && !Attacks.isSquareAttacked(position, king + 2, them)) {
+            moves.add(Move.encode(king, king + 2, Move.FLAG_CASTLING));
+        }
+        if ((rights & queenSide) != 0
+                && (occupied & (bit(king - 1) | bit(king - 2) | bit(king - 3))) == 0
+                && !Attacks.isSquareAttacked(position, king - 1, them)
+                && !Attacks.isSquareAttacked(position, king - 2, them)) {
+            moves.add(Move.encode(king, king - 2, Move.FLAG_CASTLING));
+        }
+    }
+
+    private static long shift(long bitboard, int offset) {
+        return offset > 0 ? bitboard << offset : bitboard >>> -offset;
+    }
+}
@@ -0,0 +1,59 @@
+package movegen;
+
+/**
+ * Tampon de coups réutilisable, possédé par l'appelant.
+ * Le générateur y écrit les coups encodés sans jamais allouer ;
+ * une position d'échecs légale n'a jamais plus de 218 coups.
+ */
+public class MoveList {
+    public static final int MAX_MOVES = 256;
+
+    private final int[] moves = new int[MAX_MOVES];
+    private int size;
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public void swap(int i, int j) {
+        int tmp = moves[i];
+        moves[i] = moves[j];
+        moves[j] = tmp;
+    }
+
+    /**
+     * Retire le coup d'un index en le remplaçant par le dernier (ordre non conservé).
+     */
+    public void removeAt(int index) {
+        moves[index] = moves[--size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
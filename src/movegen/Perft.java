@@ -0,0 +1,178 @@
+package movegen;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import board.BitboardPosition;
+
+/**
+ * Perft : compte les feuilles de l'arbre des coups légaux jusqu'à une profondeur donnée.
+ * Sert à la fois de test de correction du générateur et de mesure de vitesse.
+ *
+ * Une instance possède ses propres tampons (une position parcourue par make/unmake
+ * et un MoveList par ply) et n'alloue rien pendant le comptage ;
+ * elle n'est pas partagée entre threads.
+ */
+public class Perft {
+    private static final int MAX_PLY = 64;
+
+    private final BitboardPosition position = new BitboardPosition();
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+
+    public Perft() {
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Compte les positions feuilles à une profondeur donnée.
+     *
+     * @param position La position de départ (non modifiée)
+     * @param depth La profondeur, entre 0 et 64
+     * @return Le nombre de feuilles
+     */
+    public long perft(BitboardPosition position, int depth) {
+        if (depth < 0 || depth > MAX_PLY) {
+            throw new IllegalArgumentException("Depth must be between 0 and " + MAX_PLY);
+        }
+        this.position.copyFrom(position);
+        return count(0, depth);
+    }
+
+    private long count(int ply, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = moveLists[ply];
+        MoveGenerator.generateLegal(position, moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.get(i));
+            nodes += count(ply + 1, depth - 1);
+            position.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Détaille le perft par coup racine, pour localiser un écart avec un moteur de référence.
+     *
+     * @param position La position de départ (non modifiée)
+     * @param depth La profondeur, au moins 1
+     * @return Le nombre de feuilles par coup racine, en notation UCI
+     */
+    public Map<String, Long> divide(BitboardPosition position, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide depth must be at least 1");
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        MoveList rootMoves = new MoveList();
+        BitboardPosition child = new BitboardPosition(position);
+        MoveGenerator.generateLegal(child, rootMoves);
+        for (int i = 0; i < rootMoves.size(); i++) {
+            child.copyFrom(position);
+            child.makeMove(rootMoves.get(i));
+            result.put(Move.toUci(rootMoves.get(i)), perft(child, depth - 1));
+        }
+        return result;
+    }
+
+    /**
+     * Perft multi-thread : les coups racine sont répartis sur un pool de threads,
+     * chaque tâche ayant sa propre instance de Perft et sa propre copie de la position.
+     *
+     * @param position La position de départ (non modifiée)
+     * @param depth La profondeur, au moins 1
+     * @param threads Le nombre de threads
+     * @return Le nombre de feuilles
+     */
+    public static long parallelPerft(BitboardPosition position, int depth, int threads) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Parallel perft depth must be at least 1");
+        }
+        MoveList rootMoves = new MoveList();
+        MoveGenerator.generateLegal(new BitboardPosition(position), rootMoves);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ThreadLocal<Perft> perfts = ThreadLocal.withInitial(Perft::new);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < rootMoves.size(); i++) {
+                BitboardPosition child = new BitboardPosition(position);
+                child.makeMove(rootMoves.get(i));
+                results.add(executor.submit(() -> perfts.get().perft(child, depth - 1)));
+            }
+            long nodes = 0;
+            for (Future<Long> result : results) {
+                nodes += result.get();
+            }
+            return nodes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Perft interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Perft worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Ligne de commande : perft &lt;profondeur&gt; [--divide] [--threads N] [fen...]
+     *
+     * @param args Les arguments de la commande
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: perft <depth> [--divide] [--threads N] [fen]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        boolean divide = false;
+        int threads = 1;
+        StringBuilder fen = new StringBuilder();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--divide" -> divide = true;
+                case "--threads" -> {
+                    if (++i == args.length) {
+                        throw new IllegalArgumentException("--threads requires a value");
+                    }
+                    threads = Integer.parseInt(args[i]);
+                }
+                default -> fen.append(args[i]).append(' ');
+            }
+        }
+        BitboardPosition position = BitboardPosition.fromFen(
+                fen.length() == 0 ? BitboardPosition.START_FEN : fen.toString());
+
+        long start = System.nanoTime();
+        long nodes;
+        if (divide) {
+            nodes = 0;
+            for (Map.Entry<String, Long> entry : new Perft().divide(position, depth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+            System.out.println();
+        } else if (threads > 1) {
+            nodes = parallelPerft(position, depth, threads);
+        } else {
+            nodes = new Perft().perft(position, depth);
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + elapsed / 1_000_000 + " ms");
+        System.out.println("NPS: " + nodes * 1_000_000_000L / elapsed);
+    }
+}
@@ -0,0 +1,74 @@
+package movegen;
+
+import board.BitboardPosition;
+
+/**
+ * Suite de régression perft sur les positions de référence classiques
+ * (position initiale, "Kiwipete", finales à prise en passant, promotions...).
+ * Chaque profondeur dont le compte attendu dépasse la limite de nœuds est ignorée.
+ *
+ * Les profondeurs peu coûteuses sont vérifiées à chaque build par PerftSuiteTest
+ * (mvn test). La suite complète est lancée par le profil Maven "perft"
+ * (mvn -Pperft verify) ; le code de sortie est non nul si un compte diffère de la
+ * référence.
+ */
+public class PerftSuite {
+    private static final long DEFAULT_MAX_NODES = 5_000_000L;
+
+    // Position FEN et nœuds attendus aux profondeurs 1, 2, ... (partagé avec PerftSuiteTest et SanTest)
+    static final Object[][] POSITIONS = {
+        { BitboardPosition.START_FEN,
+          new long[] { 20, 400, 8902, 197281, 4865609, 119060324 } },
+        { "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+          new long[] { 48, 2039, 97862, 4085603, 193690690 } },
+        { "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+          new long[] { 14, 191, 2812, 43238, 674624, 11030083 } },
+        { "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+          new long[] { 6, 264, 9467, 422333, 15833292 } },
+        { "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+          new long[] { 44, 1486, 62379, 2103487, 89941194 } },
+        { "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+          new long[] { 46, 2079, 89890, 3894594, 164075551 } },
+    };
+
+    /**
+     * @param args [limite de nœuds par profondeur] [nombre de threads]
+     */
+    public static void main(String[] args) {
+        long maxNodes = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_MAX_NODES;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+
+        Perft perft = new Perft();
+        int failures = 0;
+        long totalNodes = 0;
+        long totalTime = 0;
+
+        for (Object[] entry : POSITIONS) {
+            String fen = (String) entry[0];
+            long[] expected = (long[]) entry[1];
+            BitboardPosition position = BitboardPosition.fromFen(fen);
+            System.out.println(fen);
+
+            for (int depth = 1; depth <= expected.length && expected[depth - 1] <= maxNodes; depth++) {
+                long start = System.nanoTime();
+                long nodes = threads > 1 ? Perft.parallelPerft(position, depth, threads) : perft.perft(position, depth);
+                long elapsed = Math.max(1, System.nanoTime() - start);
+                totalNodes += nodes;
+                totalTime += elapsed;
+
+                boolean ok = nodes == expected[depth - 1];
+                if (!ok) {
+                    failures++;
+                }
+                System.out.printf("  depth %d: %d (expected %d) %s%n", depth, nodes, expected[depth - 1], ok ? "OK" : "FAIL");
+            }
+        }
+
+        System.out.printf("Total: %d nodes, %d ms, %d nps%n",
+                totalNodes, totalTime / 1_000_000, totalNodes * 1_000_000_000L / Math.max(1, totalTime));
+        if (failures > 0) {
+            System.out.println(failures + " perft mismatch(es)");
+            System.exit(1);
+        }
+    }
+}
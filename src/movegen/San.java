@@ -0,0 +1,206 @@
+package movegen;
+
+import static board.Bitboards.*;
+
+import board.BitboardPosition;
+
+/**
+ * Notation algébrique standard (SAN) : "Nf3", "exd5", "O-O", "e8=Q+", "Qxf7#".
+ * Alloue des chaînes : réservé aux entrées-sorties (EPD, PGN), jamais à la recherche.
+ */
+public final class San {
+    // Lettres SAN indexées par type de pièce (ordre de pieces.PiecesEnum), rien pour le pion
+    private static final String PIECE_LETTERS = " RNBQK";
+
+    private San() {
+    }
+
+    /**
+     * Écrit un coup légal en SAN, avec désambiguïsation et suffixe d'échec ou de mat.
+     * La position est jouée puis rendue dans son état initial.
+     *
+     * @param position La position avant le coup
+     * @param move Le coup encodé, légal dans la position
+     * @return Le coup en SAN
+     */
+    public static String toSan(BitboardPosition position, int move) {
+        StringBuilder san = new StringBuilder(8);
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int type = typeOf(position.pieceAt(from));
+
+        if (Move.isCastling(move)) {
+            san.append(to > from ? "O-O" : "O-O-O");
+        } else if (type == PAWN) {
+            if (Move.isCapture(move)) {
+                san.append((char) ('a' + fileOf(from))).append('x');
+            }
+            san.append(squareName(to));
+            if (Move.isPromotion(move)) {
+                san.append('=').append(PIECE_LETTERS.charAt(Move.promotion(move)));
+            }
+        } else {
+            san.append(PIECE_LETTERS.charAt(type));
+            appendDisambiguation(san, position, move, type);
+            if (Move.isCapture(move)) {
+                san.append('x');
+            }
+            san.append(squareName(to));
+        }
+
+        position.makeMove(move);
+        if (Attacks.isInCheck(position, position.getSideToMove())) {
+            MoveList replies = new MoveList();
+            MoveGenerator.generateLegal(position, replies);
+            san.append(replies.size() == 0 ? '#' : '+');
+        }
+        position.unmakeMove();
+        return san.toString();
+    }
+
+    /**
+     * Ajoute la colonne, la rangée ou la case de départ quand une autre pièce du même
+     * type peut aller sur la même case.
+     */
+    private static void appendDisambiguation(StringBuilder san, BitboardPosition position, int move, int type) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegal(position, moves);
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < moves.size(); i++) {
+            int other = Move.from(moves.get(i));
+            if (other != from && Move.to(moves.get(i)) == to && typeOf(position.pieceAt(other)) == type) {
+                ambiguous = true;
+                sameFile |= fileOf(other) == fileOf(from);
+                sameRank |= rankOf(other) == rankOf(from);
+            }
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            san.append((char) ('a' + fileOf(from)));
+        } else if (!sameRank) {
+            san.append((char) ('1' + rankOf(from)));
+        } else {
+            san.append(squareName(from));
+        }
+    }
+
+    /**
+     * Lit un coup SAN et le retrouve parmi les coups légaux de la position.
+     *
+     * @see #parse(BitboardPosition, String, MoveList)
+     */
+    public static int parse(BitboardPosition position, String san) {
+        return parse(position, san, new MoveList());
+    }
+
+    /**
+     * Lit un coup SAN et le retrouve parmi les coups légaux de la position, sans passer
+     * par toSan : pièce, case d'arrivée, désambiguïsation et promotion sont comparées
+     * directement aux coups générés. Tolère les écarts courants des fichiers PGN : roques
+     * écrits avec des zéros, promotion sans « = », suffixes « + », « # », « ! », « ? »,
+     * « x » omis ou superflu.
+     *
+     * @param position La position (non modifiée)
+     * @param san Le coup en SAN
+     * @param legal Tampon de travail, écrasé par les coups légaux de la position
+     * @return Le coup encodé, ou Move.NONE si le coup est illisible, illégal ou ambigu
+     */
+    public static int parse(BitboardPosition position, String san, MoveList legal) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end < 2) {
+            return Move.NONE;
+        }
+        legal.clear();
+        MoveGenerator.generateLegal(position, legal);
+
+        char first = san.charAt(0);
+        if (first == 'O' || first == '0') {
+            boolean queenSide = end >= 5;
+            for (int i = 0; i < legal.size(); i++) {
+                int move = legal.get(i);
+                if (Move.isCastling(move) && (Move.to(move) < Move.from(move)) == queenSide) {
+                    return move;
+                }
+            }
+            return Move.NONE;
+        }
+
+        int type = PAWN;
+        int start = 0;
+        if (PIECE_LETTERS.indexOf(first) > 0) {
+            type = PIECE_LETTERS.indexOf(first);
+            start = 1;
+        }
+        int promotion = 0;
+        char last = san.charAt(end - 1);
+        if (type == PAWN && PIECE_LETTERS.indexOf(last) > 0) {
+            promotion = PIECE_LETTERS.indexOf(last);
+            end -= san.charAt(end - 2) == '=' ? 2 : 1;
+        }
+        if (end - start < 2) {
+            return Move.NONE;
+        }
+        int toFile = san.charAt(end - 2) - 'a';
+        int toRank = san.charAt(end - 1) - '1';
+        if (toFile < 0 || toFile > 7 || toRank < 0 || toRank > 7) {
+            return Move.NONE;
+        }
+        int to = square(toFile, toRank);
+
+        // Désambiguïsation éventuelle entre la pièce et la case d'arrivée
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != '-' && c != ':') {
+                return Move.NONE;
+            }
+        }
+
+        int found = Move.NONE;
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            int from = Move.from(move);
+            if (Move.to(move) != to || Move.promotion(move) != promotion || Move.isCastling(move)
+                    || typeOf(position.pieceAt(from)) != type
+                    || (fromFile >= 0 && fileOf(from) != fromFile)
+                    || (fromRank >= 0 && rankOf(from) != fromRank)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                return Move.NONE;
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    /**
+     * Forme canonique d'un coup SAN pour comparer deux écritures : suffixes d'annotation
+     * ("+", "#", "!", "?") retirés, roques écrits avec la lettre O ("0-0" devient "O-O").
+     *
+     * @param san Un coup en SAN
+     * @return Le coup sous forme canonique
+     */
+    public static String normalize(String san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        String stripped = san.substring(0, end);
+        return stripped.startsWith("0-0") ? stripped.replace('0', 'O') : stripped;
+    }
+}
@@ -0,0 +1,44 @@
+package pgn;
+
+import board.Board;
+
+/**
+ * Reçoit les parties relues par PgnReplay. Chaque thread de relecture a son propre
+ * visiteur : une implémentation n'a pas à être thread-safe.
+ */
+public interface GameVisitor {
+    /**
+     * Appelé avant chaque coup de la ligne principale.
+     *
+     * @param game La partie
+     * @param board Le plateau dans la position où le coup est joué (à ne pas modifier)
+     * @param move Le coup encodé, légal dans cette position
+     */
+    default void move(PgnGame game, Board board, int move) {
+    }
+
+    /**
+     * Appelé à la fin d'une partie relue sans erreur.
+     *
+     * @param game La partie
+     * @param board Le plateau dans la position finale (à ne pas modifier)
+     */
+    default void game(PgnGame game, Board board) {
+    }
+
+    /**
+     * Appelé à la place de game quand un coup est illisible ou illégal. Les coups qui le
+     * précèdent ont déjà été passés à move.
+     *
+     * @param game La partie
+     * @param ply L'index du coup fautif dans game.moves()
+     */
+    default void error(PgnGame game, int ply) {
+    }
+
+    /**
+     * Appelé une fois, par le thread du visiteur, quand il n'y a plus de partie à relire.
+     */
+    default void end() {
+    }
+}
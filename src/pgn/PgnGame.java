@@ -0,0 +1,47 @@
+package pgn;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Une partie lue dans un fichier PGN : les paires de tags, les coups de la ligne
+ * principale en SAN (variantes, commentaires et NAG écartés) et le résultat.
+ *
+ * @param tags Les tags, dans l'ordre du fichier
+ * @param moves Les coups de la ligne principale, en SAN tel qu'écrit dans le fichier
+ * @param result Le résultat ("1-0", "0-1", "1/2-1/2" ou "*")
+ */
+public record PgnGame(Map<String, String> tags, List<String> moves, String result) {
+    public static final int WHITE_WINS = 0;
+    public static final int DRAW = 1;
+    public static final int BLACK_WINS = 2;
+    public static final int UNKNOWN = -1;
+
+    /**
+     * Valeur d'un tag, ou null s'il est absent.
+     */
+    public String tag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * Position de départ donnée par le tag FEN, ou null si la partie commence à la
+     * position initiale.
+     */
+    public String startFen() {
+        return tags.get("FEN");
+    }
+
+    /**
+     * Issue de la partie : WHITE_WINS, DRAW, BLACK_WINS ou UNKNOWN (partie en cours,
+     * interrompue ou résultat illisible).
+     */
+    public int outcome() {
+        return switch (result) {
+            case "1-0" -> WHITE_WINS;
+            case "1/2-1/2" -> DRAW;
+            case "0-1" -> BLACK_WINS;
+            default -> UNKNOWN;
+        };
+    }
+}
@@ -0,0 +1,208 @@
+package pgn;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analyseur PGN sur un texte en mémoire (un bloc de parties complètes, voir PgnReader).
+ *
+ * Lit les tags [Nom "Valeur"] puis le texte des coups : numéros de coups, commentaires
+ * { } et ;, NAG ($n), variantes ( ) éventuellement imbriquées et lignes d'échappement %
+ * sont écartés ; il ne reste que les coups de la ligne principale. Une partie se termine
+ * par un marqueur de résultat ou, s'il manque, au début des tags de la partie suivante.
+ * Les tags mal formés sont ignorés. Aucun coup n'est vérifié ici : la légalité est
+ * l'affaire de la relecture (PgnReplay).
+ */
+public final class PgnParser {
+    private final String text;
+    private int index;
+
+    /**
+     * @param text Le texte d'une ou plusieurs parties
+     */
+    public PgnParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Lit toutes les parties d'un texte.
+     */
+    public static List<PgnGame> parseAll(String text) {
+        PgnParser parser = new PgnParser(text);
+        List<PgnGame> games = new ArrayList<>();
+        for (PgnGame game = parser.next(); game != null; game = parser.next()) {
+            games.add(game);
+        }
+        return games;
+    }
+
+    /**
+     * Lit la partie suivante.
+     *
+     * @return La partie, ou null à la fin du texte
+     */
+    public PgnGame next() {
+        Map<String, String> tags = new LinkedHashMap<>();
+        skipBlank();
+        while (index < text.length() && text.charAt(index) == '[') {
+            readTag(tags);
+            skipBlank();
+        }
+
+        List<String> moves = new ArrayList<>();
+        String result = null;
+        int variationDepth = 0;
+        boolean lineStart = true;
+        while (index < text.length() && result == null) {
+            char c = text.charAt(index);
+            if (c == '\n') {
+                lineStart = true;
+                index++;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                index++;
+                continue;
+            }
+            if (lineStart && c == '%') {
+                skipLine();
+                continue;
+            }
+            if (lineStart && c == '[' && variationDepth == 0) {
+                break; // Partie suivante sans marqueur de résultat
+            }
+            lineStart = false;
+            switch (c) {
+                case '{' -> skipPast('}');
+                case ';' -> skipLine();
+                case '(' -> {
+                    variationDepth++;
+                    index++;
+                }
+                case ')' -> {
+                    variationDepth = Math.max(0, variationDepth - 1);
+                    index++;
+                }
+                case '$' -> {
+                    index++;
+                    while (index < text.length() && Character.isDigit(text.charAt(index))) {
+                        index++;
+                    }
+                }
+                default -> {
+                    String token = readToken();
+                    if (variationDepth > 0 || token.isEmpty()) {
+                        break;
+                    }
+                    if (isResult(token)) {
+                        result = token;
+                    } else {
+                        moves.add(token);
+                    }
+                }
+            }
+        }
+
+        if (tags.isEmpty() && moves.isEmpty() && result == null) {
+            return null;
+        }
+        if (result == null) {
+            result = tags.getOrDefault("Result", "*");
+        }
+        return new PgnGame(tags, moves, result);
+    }
+
+    /**
+     * Lit un symbole du texte des coups, sans son éventuel numéro de coup ("12.", "12...",
+     * collé ou non au coup).
+     */
+    private String readToken() {
+        int start = index;
+        while (index < text.length() && !isDelimiter(text.charAt(index))) {
+            index++;
+        }
+        if (index == start) {
+            index++; // Caractère isolé inattendu (']', '}' orphelins...)
+            return "";
+        }
+        if (isResult(text.substring(start, index))) {
+            return text.substring(start, index);
+        }
+        int move = start;
+        while (move < index && Character.isDigit(text.charAt(move))) {
+            move++;
+        }
+        if (move < index && text.charAt(move) == '.') {
+            while (move < index && text.charAt(move) == '.') {
+                move++;
+            }
+            start = move;
+        }
+        return text.substring(start, index);
+    }
+
+    private void readTag(Map<String, String> tags) {
+        int lineEnd = text.indexOf('\n', index);
+        if (lineEnd < 0) {
+            lineEnd = text.length();
+        }
+        index++;
+        int nameStart = index;
+        while (index < lineEnd && !Character.isWhitespace(text.charAt(index)) && text.charAt(index) != '"') {
+            index++;
+        }
+        String name = text.substring(nameStart, index);
+        while (index < lineEnd && text.charAt(index) != '"') {
+            index++;
+        }
+        if (name.isEmpty() || index == lineEnd) {
+            index = lineEnd; // Tag mal formé : ignoré, comme une ligne illisible
+            return;
+        }
+        StringBuilder value = new StringBuilder();
+        index++;
+        while (index < lineEnd && text.charAt(index) != '"') {
+            char c = text.charAt(index++);
+            if (c == '\\' && index < lineEnd) {
+                c = text.charAt(index++);
+            }
+            value.append(c);
+        }
+        tags.put(name, value.toString());
+        index = lineEnd;
+    }
+
+    private void skipBlank() {
+        while (index < text.length()) {
+            char c = text.charAt(index);
+            if (c == '%' && (index == 0 || text.charAt(index - 1) == '\n')) {
+                skipLine();
+            } else if (Character.isWhitespace(c)) {
+                index++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipLine() {
+        int lineEnd = text.indexOf('\n', index);
+        index = lineEnd < 0 ? text.length() : lineEnd;
+    }
+
+    private void skipPast(char c) {
+        int found = text.indexOf(c, index + 1);
+        index = found < 0 ? text.length() : found + 1;
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '{' || c == '}' || c == '(' || c == ')' || c == ';'
+                || c == '$' || c == '[' || c == ']';
+    }
+
+    private static boolean isResult(String token) {
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*");
+    }
+}
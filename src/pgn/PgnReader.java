@@ -0,0 +1,114 @@
+package pgn;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Lecteur PGN en flux : découpe un fichier de taille quelconque en blocs de parties
+ * complètes d'environ chunkChars caractères, sans jamais charger plus d'un bloc.
+ *
+ * Une coupure se fait uniquement devant une ligne de tag qui suit le texte des coups
+ * d'une partie, hors d'un commentaire { } ouvert : chaque bloc s'analyse seul
+ * (PgnParser). La mémoire utilisée ne dépend que de la taille des blocs, pas de celle
+ * du fichier.
+ */
+public final class PgnReader implements AutoCloseable {
+    public static final int DEFAULT_CHUNK_CHARS = 1 << 20;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BufferedReader reader;
+    private final int chunkChars;
+    private final StringBuilder chunk;
+    private boolean inMovetext;
+    private boolean inComment;
+    private long lines;
+
+    /**
+     * @param reader La source du texte PGN
+     * @param chunkChars Taille visée d'un bloc ; une partie plus longue forme un bloc à elle seule
+     */
+    public PgnReader(Reader reader, int chunkChars) {
+        if (chunkChars < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkChars);
+        }
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, BUFFER_SIZE);
+        this.chunkChars = chunkChars;
+        this.chunk = new StringBuilder(chunkChars + BUFFER_SIZE);
+    }
+
+    /**
+     * Ouvre un fichier PGN en UTF-8 (les caractères invalides, par exemple des tags en
+     * Latin-1, sont remplacés : les coups sont en ASCII).
+     */
+    public static PgnReader open(Path file, int chunkChars) throws IOException {
+        return new PgnReader(new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), chunkChars);
+    }
+
+    /**
+     * Bloc suivant de parties complètes.
+     *
+     * @return Le texte du bloc, ou null à la fin du fichier
+     * @throws IOException si la lecture échoue
+     */
+    public String nextChunk() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines++;
+            boolean tag = !inComment && !line.isEmpty() && line.charAt(0) == '[';
+            if (tag && inMovetext) {
+                inMovetext = false;
+                if (chunk.length() >= chunkChars) {
+                    String full = chunk.toString();
+                    chunk.setLength(0);
+                    chunk.append(line).append('\n');
+                    return full;
+                }
+            }
+            chunk.append(line).append('\n');
+            if (!tag && !line.isBlank() && line.charAt(0) != '%') {
+                inMovetext = true;
+                trackComments(line);
+            }
+        }
+        if (chunk.isEmpty()) {
+            return null;
+        }
+        String last = chunk.toString();
+        chunk.setLength(0);
+        return last;
+    }
+
+    /**
+     * Nombre de lignes lues jusqu'ici.
+     */
+    public long lines() {
+        return lines;
+    }
+
+    /**
+     * Suit les commentaires { } qui s'étendent sur plusieurs lignes : une ligne qui y
+     * commence par '[' n'est pas un tag.
+     */
+    private void trackComments(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inComment) {
+                inComment = c != '}';
+            } else if (c == '{') {
+                inComment = true;
+            } else if (c == ';') {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,234 @@
+package pgn;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import board.BitboardPosition;
+import board.Board;
+import movegen.Move;
+import movegen.MoveList;
+import movegen.San;
+
+/**
+ * Relecture parallèle d'une base PGN : le thread appelant lit le fichier en blocs de
+ * parties complètes (PgnReader) et les dépose dans une file bornée ; un pool de threads
+ * analyse chaque bloc et rejoue ses parties coup par coup.
+ *
+ * La file bornée règle le débit du lecteur sur celui des threads : au plus 2 × threads
+ * blocs attendent, la mémoire reste fixe quelle que soit la taille de la base.
+ *
+ * Chaque thread rejoue sur un seul plateau : les coups sont joués par makeMove puis
+ * annulés par unmakeMove en fin de partie, ce qui ramène le plateau à la position
+ * initiale sans rien réallouer. Seules les parties avec un tag FEN repartent d'un
+ * setFromFen.
+ */
+public final class PgnReplay {
+    // Marqueur de fin de flux, un par thread
+    private static final String END = new String();
+
+    /**
+     * Bilan d'une relecture.
+     *
+     * @param games Les parties relues sans erreur
+     * @param errors Les parties abandonnées sur un tag FEN invalide ou un coup illisible ou illégal
+     * @param plies Les demi-coups joués (parties en erreur comprises, jusqu'à l'erreur)
+     * @param wallNanos La durée totale
+     */
+    public record Report(long games, long errors, long plies, long wallNanos) {
+        public long gamesPerMinute() {
+            return (games + errors) * 60_000_000_000L / Math.max(1, wallNanos);
+        }
+    }
+
+    // Plateau, tampon de coups et compteurs propres à un thread du pool
+    private static final class Worker {
+        private final Board board = new Board();
+        private final MoveList legal = new MoveList();
+        private final GameVisitor visitor;
+        private boolean atStart = true;
+        private long games;
+        private long errors;
+        private long plies;
+
+        private Worker(GameVisitor visitor) {
+            this.visitor = visitor;
+        }
+
+        private void replayChunk(String chunk) {
+            PgnParser parser = new PgnParser(chunk);
+            for (PgnGame game = parser.next(); game != null; game = parser.next()) {
+                replay(game);
+            }
+        }
+
+        private void replay(PgnGame game) {
+            String fen = game.startFen();
+            if (fen != null) {
+                try {
+                    board.setFromFen(fen);
+                    atStart = false;
+                } catch (IllegalArgumentException e) {
+                    // Tag FEN invalide : la partie est comptée en erreur, la relecture continue
+                    // sur un plateau remis à la position initiale
+                    board.setFromFen(BitboardPosition.START_FEN);
+                    atStart = true;
+                    errors++;
+                    visitor.error(game, 0);
+                    return;
+                }
+            } else if (!atStart) {
+                board.setFromFen(BitboardPosition.START_FEN);
+                atStart = true;
+            }
+
+            BitboardPosition position = board.getBitboardPosition();
+            List<String> moves = game.moves();
+            int played = 0;
+            for (; played < moves.size(); played++) {
+                int move = San.parse(position, moves.get(played), legal);
+                if (move == Move.NONE) {
+                    break;
+                }
+                visitor.move(game, board, move);
+                board.makeMove(move);
+            }
+            plies += played;
+            if (played == moves.size()) {
+                games++;
+                visitor.game(game, board);
+            } else {
+                errors++;
+                visitor.error(game, played);
+            }
+            for (int i = 0; i < played; i++) {
+                board.unmakeMove();
+            }
+        }
+    }
+
+    private PgnReplay() {
+    }
+
+    /**
+     * Relit toutes les parties d'un fichier PGN.
+     *
+     * @param file Le fichier PGN
+     * @param threads Le nombre de threads de relecture
+     * @param visitors Fournit un visiteur par thread (appelé une fois par thread)
+     * @return Le bilan
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    public static Report run(Path file, int threads, Supplier<? extends GameVisitor> visitors) throws IOException {
+        try (PgnReader reader = PgnReader.open(file, PgnReader.DEFAULT_CHUNK_CHARS)) {
+            return run(reader, threads, visitors);
+        }
+    }
+
+    /**
+     * Relit toutes les parties d'un lecteur PGN.
+     *
+     * @param reader Le lecteur (non fermé)
+     * @param threads Le nombre de threads de relecture
+     * @param visitors Fournit un visiteur par thread (appelé une fois par thread)
+     * @return Le bilan
+     * @throws IOException si la lecture échoue
+     */
+    public static Report run(PgnReader reader, int threads, Supplier<? extends GameVisitor> visitors) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("PGN replay needs at least one thread");
+        }
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(2 * threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<Worker>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    Worker worker = new Worker(visitors.get());
+                    for (String chunk = queue.take(); chunk != END; chunk = queue.take()) {
+                        worker.replayChunk(chunk);
+                    }
+                    worker.visitor.end();
+                    return worker;
+                }));
+            }
+
+            for (String chunk = reader.nextChunk(); chunk != null; chunk = reader.nextChunk()) {
+                putOrFail(queue, chunk, futures);
+            }
+            for (int i = 0; i < threads; i++) {
+                putOrFail(queue, END, futures);
+            }
+
+            long games = 0;
+            long errors = 0;
+            long plies = 0;
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                games += worker.games;
+                errors += worker.errors;
+                plies += worker.plies;
+            }
+            return new Report(games, errors, plies, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("PGN replay interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("PGN replay worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Dépose un bloc dans la file ; si un thread a échoué, le lecteur ne doit pas rester
+     * bloqué sur une file que plus personne ne vide.
+     */
+    private static void putOrFail(BlockingQueue<String> queue, String chunk, List<Future<Worker>> futures)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+            for (Future<Worker> future : futures) {
+                if (future.isDone()) {
+                    future.get();
+                }
+            }
+        }
+    }
+
+    /**
+     * Ligne de commande : pgn &lt;fichier.pgn&gt; [--threads N] — relit toutes les parties et
+     * affiche le débit.
+     *
+     * @param args Les arguments de la commande
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: pgn <file.pgn> [--threads N]");
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Report report = run(Path.of(args[0]), threads, () -> new GameVisitor() {
+        });
+        System.out.printf("%d games, %d errors, %d plies, %d ms, %d threads%n", report.games(), report.errors(),
+                report.plies(), report.wallNanos() / 1_000_000, threads);
+        System.out.printf("%d games per minute%n", report.gamesPerMinute());
+    }
+}
@@ -0,0 +1,91 @@
+package pieces;
+
+import java.awt.Graphics;
+import java.util.List;
+
+import board.Bitboards;
+import board.Board;
+
+/**
+ * Classe représentant un fou aux échecs.
+ * Le fou glisse en diagonale ; ses cibles viennent d'une lecture de table magique
+ * (voir movegen.Attacks), bloqueurs compris.
+ */
+public class Bishop extends Piece {
+    private static final int BISHOP_VALUE = 3;
+
+    /**
+     * Constructeur principal utilisant PieceColor pour la type-safety.
+     * 
+     * @param position La position initiale en notation algébrique
+     * @param color La couleur de la pièce
+     */
+    public Bishop(String position, PieceColor color) {
+        super(position, color);
+    }
+
+    /**
+     * Constructeur de compatibilité acceptant String pour la couleur.
+     * 
+     * @param position La position initiale en notation algébrique
+     * @param color La couleur de la pièce en String
+     */
+    public Bishop(String position, String color) {
+        super(position, color);
+    }
+
+    /**
+     * Constructeur par index de case, sans conversion de chaîne.
+     * 
+     * @param square La case initiale (a1 = 0 .. h8 = 63)
+     * @param color La couleur de la pièce
+     */
+    public Bishop(int square, PieceColor color) {
+        super(square, color);
+    }
+
+    @Override
+    public String getType() {
+        return "BISHOP";
+    }
+
+    @Override
+    public int getValue() {
+        return BISHOP_VALUE;
+    }
+
+    /**
+     * Déplace le fou vers une nouvelle case si le coup est légal.
+     * 
+     * @param target La nouvelle case (a1 = 0 .. h8 = 63)
+     * @param board Le plateau de jeu pour valider les mouvements
+     */
+    @Override
+    public void move(int target, Board board) {
+        if ((legalTargets(board) & Bitboards.bit(target)) != 0) {
+            setSquare(target);
+        }
+    }
+
+    @Override
+    public void render(Graphics g) {
+        renderSprite(g);
+    }
+
+    /**
+     * Retourne la liste des cases atteignables par un coup légal, vides ou occupées
+     * par une pièce adverse.
+     * 
+     * @param board Le plateau de jeu
+     * @return Une liste de positions en notation algébrique
+     */
+    @Override
+    public List<String> getPossibleMoves(Board board) {
+        return squareNames(legalTargets(board));
+    }
+
+    @Override
+    public void update() {
+        // Les coordonnées graphiques sont mises en cache à chaque changement de case
+    }
+}
@@ -1,7 +1,17 @@
 package pieces;
 
 import static utilz.HelpMethods.verifyParameters;
-import utilz.Position;
+
+import java.awt.Graphics;
+import java.util.ArrayList;
+import java.util.List;
+
+import board.Bitboards;
+import board.Square;
+import movegen.Move;
+import movegen.MoveGenerator;
+import movegen.MoveList;
+import utilz.Constants;
 
 /**
  * Classe abstraite de base pour toutes les pièces d'échecs.
@@ -9,8 +19,15 @@ import utilz.Position;
  * Respecte le principe DRY et le Template Method Pattern.
  */
 public abstract class Piece implements PieceInterface {
-    protected String position; // Position en notation algébrique
+    protected int square; // Case 0..63 (a1 = 0), source de vérité
+    protected String position; // Nom algébrique interné de la case (voir board.Square)
     protected PieceColor color; // Couleur de la pièce (type-safe)
+
+    // Coordonnées d'écran et sprite, recalculés seulement quand la pièce change de case
+    private int screenX;
+    private int screenY;
+    private int spriteCode = Bitboards.EMPTY;
+    private MoveList moveBuffer; // Alloué au premier calcul de cibles
     
     /**
      * Constructeur protégé pour les sous-classes.
@@ -20,8 +37,20 @@ public abstract class Piece implements PieceInterface {
      */
     protected Piece(String position, PieceColor color) {
         verifyParameters(position, color);
-        this.position = position;
         this.color = color;
+        placeOn(Square.parse(position));
+    }
+    
+    /**
+     * Constructeur par index de case, sans conversion de chaîne.
+     * 
+     * @param square La case initiale (a1 = 0 .. h8 = 63)
+     * @param color La couleur de la pièce
+     */
+    protected Piece(int square, PieceColor color) {
+        verifyParameters(square, color);
+        this.color = color;
+        placeOn(square);
     }
     
     /**
@@ -33,8 +62,8 @@ public abstract class Piece implements PieceInterface {
      */
     protected Piece(String position, String color) {
         verifyParameters(position, color);
-        this.position = position;
         this.color = PieceColor.fromString(color);
+        placeOn(Square.parse(position));
     }
 
     @Override
@@ -43,14 +72,97 @@ public abstract class Piece implements PieceInterface {
     }
     
     /**
-     * Retourne la Position encapsulée pour faciliter les calculs.
+     * Replace la pièce sur une case, sans validation des règles de déplacement.
+     * Utilisé par le plateau pour jouer et annuler des coups.
      * 
-     * @return Un objet Position représentant la position actuelle
+     * @param position La nouvelle position en notation algébrique
+     */
+    public void setPosition(String position) {
+        verifyParameters(position, color);
+        placeOn(Square.parse(position));
+    }
+    
+    /**
+     * Retourne la case de la pièce.
+     * 
+     * @return L'index de la case (a1 = 0 .. h8 = 63)
+     */
+    public int getSquare() {
+        return square;
+    }
+    
+    /**
+     * Replace la pièce sur une case, sans validation des règles de déplacement
+     * ni conversion de chaîne.
+     * 
+     * @param square La nouvelle case (a1 = 0 .. h8 = 63)
+     */
+    public void setSquare(int square) {
+        verifyParameters(square, color);
+        placeOn(square);
+    }
+
+    private void placeOn(int square) {
+        this.square = square;
+        this.position = Square.name(square);
+        screenX = Square.file(square) * Constants.SQUARE_SIZE;
+        screenY = Square.row(square) * Constants.SQUARE_SIZE;
+    }
+
+    /**
+     * Dessine la pièce depuis l'atlas de sprites, aux coordonnées mises en cache :
+     * ni analyse de la position algébrique ni allocation à chaque image.
+     *
+     * @param g Le contexte graphique
      */
-    protected Position getPositionObject() {
-        return Position.fromAlgebraic(position);
+    protected void renderSprite(Graphics g) {
+        if (spriteCode == Bitboards.EMPTY) {
+            spriteCode = Bitboards.pieceCode(colorIndex(), PiecesEnum.valueOf(getType()).ordinal());
+        }
+        PieceSprites.draw(g, spriteCode, screenX, screenY);
     }
 
+    /**
+     * Retourne la couleur au format bitboard (Bitboards.WHITE ou Bitboards.BLACK).
+     */
+    protected int colorIndex() {
+        return color == PieceColor.WHITE ? Bitboards.WHITE : Bitboards.BLACK;
+    }
+
+    /**
+     * Cases d'arrivée des coups légaux de la pièce sur le plateau : clouages, échecs
+     * et roques compris (voir MoveGenerator.generateLegalFrom).
+     * 
+     * @param board Le plateau de jeu
+     * @return Le masque des cases cibles
+     */
+    protected long legalTargets(board.Board board) {
+        if (moveBuffer == null) {
+            moveBuffer = new MoveList();
+        }
+        MoveGenerator.generateLegalFrom(board.getBitboardPosition(), square, moveBuffer);
+        long targets = 0L;
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            targets |= Bitboards.bit(Move.to(moveBuffer.get(i)));
+        }
+        return targets;
+    }
+
+    /**
+     * Convertit un masque de cases en liste de noms algébriques.
+     * 
+     * @param squares Le masque de cases (bit i = case i, a1 = 0)
+     * @return Les noms des cases, dans l'ordre croissant des index
+     */
+    protected static List<String> squareNames(long squares) {
+        List<String> names = new ArrayList<>(Long.bitCount(squares));
+        while (squares != 0) {
+            names.add(Square.name(Bitboards.lsb(squares)));
+            squares = Bitboards.popLsb(squares);
+        }
+        return names;
+    }
+    
     @Override
     public PieceColor getColor() {
         return color;
@@ -82,8 +194,20 @@ public abstract class Piece implements PieceInterface {
     @Override
     public abstract int getValue();
     
+    /**
+     * Adaptateur en notation algébrique de move(int, Board).
+     * 
+     * @param newPosition La nouvelle position en notation algébrique (ex: "e4")
+     * @param board Le plateau de jeu pour valider les mouvements
+     */
+    @Override
+    public void move(String newPosition, board.Board board) {
+        verifyParameters(newPosition, color);
+        move(Square.parse(newPosition), board);
+    }
+    
     @Override
-    public abstract void move(String newPosition, board.Board board);
+    public abstract void move(int square, board.Board board);
     
     @Override
     public abstract void render(java.awt.Graphics g);
@@ -93,4 +217,16 @@ public abstract class Piece implements PieceInterface {
     
     @Override
     public abstract java.util.List<String> getPossibleMoves(board.Board board);
+
+    /**
+     * Écrit les coups légaux de la pièce, encodés en entiers, dans un tampon réutilisable.
+     * S'appuie sur le générateur bitboard : aucune allocation.
+     * 
+     * @param board Le plateau de jeu
+     * @param moves Le tampon de coups à remplir
+     */
+    @Override
+    public void getPossibleMoves(board.Board board, MoveList moves) {
+        MoveGenerator.generateLegalFrom(board.getBitboardPosition(), square, moves);
+    }
 }
@@ -4,6 +4,7 @@ import java.awt.Graphics;
 import java.util.List;
 
 import board.Board;
+import movegen.MoveList;
 
 /**
  * Interface définissant le contrat pour toutes les pièces d'échecs.
@@ -12,10 +13,13 @@ import board.Board;
 public interface PieceInterface {
     public String getType();
     public String getPosition();
+    public int getSquare();
     public int getValue();
     public void move(String newPosition, Board board);
+    public void move(int square, Board board);
     public PieceColor getColor();
     public void render(Graphics g);
     public void update();
     public List<String> getPossibleMoves(Board board);
+    public void getPossibleMoves(Board board, MoveList moves);
 }
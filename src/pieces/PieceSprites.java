@@ -0,0 +1,82 @@
+package pieces;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+import board.Bitboards;
+import utilz.Constants;
+
+/**
+ * Atlas des sprites de pièces : les 12 pièces (couleur × type) sont dessinées une seule
+ * fois dans une image unique, puis copiées par drawImage à chaque image. Le rendu d'une
+ * pièce ne recalcule ni formes ni texte et n'alloue rien.
+ *
+ * Le sprite d'indice code (voir Bitboards.pieceCode) occupe la colonne code de l'atlas.
+ */
+public final class PieceSprites {
+    private static final String TYPE_LETTERS = " RNBQK"; // pas de lettre pour le pion
+
+    private static BufferedImage atlas;
+
+    private PieceSprites() {
+    }
+
+    /**
+     * Dessine le sprite d'une pièce.
+     *
+     * @param g Le contexte graphique
+     * @param pieceCode Le code de la pièce (voir Bitboards.pieceCode)
+     * @param x L'abscisse du coin haut gauche de la case
+     * @param y L'ordonnée du coin haut gauche de la case
+     */
+    public static void draw(Graphics g, int pieceCode, int x, int y) {
+        int size = Constants.SQUARE_SIZE;
+        int sx = pieceCode * size;
+        g.drawImage(getAtlas(), x, y, x + size, y + size, sx, 0, sx + size, size, null);
+    }
+
+    // Appelé seulement depuis le thread Swing
+    private static BufferedImage getAtlas() {
+        if (atlas == null) {
+            atlas = buildAtlas();
+        }
+        return atlas;
+    }
+
+    private static BufferedImage buildAtlas() {
+        int size = Constants.SQUARE_SIZE;
+        int width = size * 2 * Bitboards.PIECE_TYPES;
+        BufferedImage image = GraphicsEnvironment.isHeadless()
+                ? new BufferedImage(width, size, BufferedImage.TYPE_INT_ARGB)
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                        .getDefaultConfiguration().createCompatibleImage(width, size, Transparency.TRANSLUCENT);
+
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, size / 2));
+        FontMetrics metrics = g.getFontMetrics();
+        for (int code = 0; code < 2 * Bitboards.PIECE_TYPES; code++) {
+            int x = code * size;
+            g.setColor(Bitboards.colorOf(code) == Bitboards.WHITE ? Color.BLUE : Color.RED);
+            g.fillOval(x, 0, size, size);
+
+            char letter = TYPE_LETTERS.charAt(Bitboards.typeOf(code));
+            if (letter != ' ') {
+                String text = String.valueOf(letter);
+                g.setColor(Color.WHITE);
+                g.drawString(text, x + (size - metrics.stringWidth(text)) / 2,
+                        (size - metrics.getHeight()) / 2 + metrics.getAscent());
+            }
+        }
+        g.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,77 @@
+package tablebase;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fichier projeté en mémoire en lecture seule, lu par offsets absolus sur 64 bits.
+ *
+ * Un MappedByteBuffer est limité à 2 Go : le fichier est découpé en projections de 1 Go
+ * qui se chevauchent de quelques octets, si bien qu'une lecture de 8 octets au plus
+ * tient toujours dans une seule projection. Les lectures n'utilisent pas la position
+ * des tampons : un même fichier peut être lu par plusieurs threads.
+ */
+final class MappedFile {
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+    private static final int OVERLAP = 8;
+
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    private MappedFile(MappedByteBuffer[] segments, long size) {
+        this.segments = segments;
+        this.size = size;
+    }
+
+    /**
+     * Projette un fichier ; le canal est refermé aussitôt, les projections restent valides.
+     */
+    static MappedFile map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) Math.max(1, (size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < segments.length; i++) {
+                long offset = (long) i << SEGMENT_SHIFT;
+                long length = Math.min(SEGMENT_MASK + 1 + OVERLAP, size - offset);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.max(0, length));
+            }
+            return new MappedFile(segments, size);
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    int u8(long offset) {
+        return segment(offset).get(index(offset)) & 0xFF;
+    }
+
+    int u16(long offset) {
+        return Short.reverseBytes(segment(offset).getShort(index(offset))) & 0xFFFF;
+    }
+
+    long u32(long offset) {
+        return Integer.reverseBytes(segment(offset).getInt(index(offset))) & 0xFFFFFFFFL;
+    }
+
+    long u32BigEndian(long offset) {
+        return segment(offset).getInt(index(offset)) & 0xFFFFFFFFL;
+    }
+
+    long u64BigEndian(long offset) {
+        return segment(offset).getLong(index(offset));
+    }
+
+    private MappedByteBuffer segment(long offset) {
+        return segments[(int) (offset >>> SEGMENT_SHIFT)];
+    }
+
+    private static int index(long offset) {
+        return (int) (offset & SEGMENT_MASK);
+    }
+}
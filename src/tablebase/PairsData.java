@@ -0,0 +1,217 @@
+package tablebase;
+
+/**
+ * Une sous-table compressée d'un fichier Syzygy : un camp au trait et, pour les finales
+ * avec pions, une colonne du pion de tête.
+ *
+ * Les valeurs sont rangées par index de position en blocs de taille fixe, compressés
+ * par « Recursive Pairing » (les paires de symboles les plus fréquentes deviennent de
+ * nouveaux symboles) puis par un code de Huffman canonique. Un index épars donne, tous
+ * les span index, le bloc et la position dans le bloc : une lecture ne décode qu'un bloc.
+ *
+ * Seuls les en-têtes (longueurs de code, arbre des paires) sont copiés sur le tas ;
+ * l'index épars, les longueurs de blocs et les blocs sont lus dans le fichier projeté.
+ */
+final class PairsData {
+    static final int FLAG_STM = 1;
+    static final int FLAG_MAPPED = 2;
+    static final int FLAG_WIN_PLIES = 4;
+    static final int FLAG_LOSS_PLIES = 8;
+    static final int FLAG_WIDE = 16;
+    static final int FLAG_SINGLE_VALUE = 128;
+
+    private static final int SPARSE_ENTRY_SIZE = 6;
+
+    // Pièces dans l'ordre d'encodage (codes Syzygy : 1..6 blancs PCFTDR, 9..14 noirs)
+    final int[] pieces;
+    // Longueur de chaque groupe de pièces encodées ensemble, terminée par 0
+    final int[] groupLength = new int[SyzygyTable.MAX_PIECES + 1];
+    // Multiplicateur de chaque groupe dans l'index ; le dernier est la taille de la table
+    final long[] groupIndex = new long[SyzygyTable.MAX_PIECES + 1];
+    // Décalages de la table de correspondance DTZ pour chaque issue (voir SyzygyTable)
+    final int[] mapIndex = new int[4];
+
+    int flags;
+    private long blockSize;
+    private long span;
+    private long sparseIndexSize;
+    private long blockCount;
+    private long blockLengthSize;
+    private int minSymbolLength;
+    private int[] lowestSymbol;
+    private long[] base64;
+    private int[] symbolLength;
+    private int[] left;
+    private int[] right;
+
+    private long sparseIndexOffset;
+    private long blockLengthOffset;
+    private long dataOffset;
+
+    PairsData(int pieceCount) {
+        pieces = new int[pieceCount];
+    }
+
+    /**
+     * Lit l'en-tête de compression à l'offset donné.
+     *
+     * @return L'offset qui suit l'en-tête
+     */
+    long readSizes(MappedFile file, long offset) {
+        flags = file.u8(offset++);
+        if ((flags & FLAG_SINGLE_VALUE) != 0) {
+            // Toutes les positions ont la même valeur, rangée à la place de la longueur minimale
+            minSymbolLength = file.u8(offset++);
+            return offset;
+        }
+
+        int groups = 0;
+        while (groupLength[groups] != 0) {
+            groups++;
+        }
+        long tableSize = groupIndex[groups];
+
+        blockSize = 1L << file.u8(offset++);
+        span = 1L << file.u8(offset++);
+        sparseIndexSize = (tableSize + span - 1) / span;
+        int padding = file.u8(offset++);
+        blockCount = file.u32(offset);
+        offset += 4;
+        // Longueurs de blocs complétées pour que l'index épars ne pointe jamais au-delà
+        blockLengthSize = blockCount + padding;
+        int maxSymbolLength = file.u8(offset++);
+        minSymbolLength = file.u8(offset++);
+
+        // Code de Huffman canonique : les symboles les plus longs ont les plus petites
+        // valeurs. base64[i] est le plus petit code de longueur minSymbolLength + i,
+        // aligné à gauche sur 64 bits ; il décroît quand la longueur croît.
+        int lengths = maxSymbolLength - minSymbolLength + 1;
+        lowestSymbol = new int[lengths];
+        for (int i = 0; i < lengths; i++) {
+            lowestSymbol[i] = file.u16(offset + 2L * i);
+        }
+        base64 = new long[lengths];
+        for (int i = lengths - 2; i >= 0; i--) {
+            base64[i] = (base64[i + 1] + lowestSymbol[i] - lowestSymbol[i + 1]) >>> 1;
+        }
+        for (int i = 0; i < lengths; i++) {
+            base64[i] <<= 64 - i - minSymbolLength;
+        }
+        offset += 2L * lengths;
+
+        int symbols = file.u16(offset);
+        offset += 2;
+        left = new int[symbols];
+        right = new int[symbols];
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            long entry = offset + 3L * symbol;
+            int b0 = file.u8(entry);
+            int b1 = file.u8(entry + 1);
+            int b2 = file.u8(entry + 2);
+            left[symbol] = (b1 & 0xF) << 8 | b0;
+            right[symbol] = b2 << 4 | b1 >>> 4;
+        }
+
+        // Nombre de valeurs, moins une, que représente chaque symbole
+        symbolLength = new int[symbols];
+        boolean[] visited = new boolean[symbols];
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            if (!visited[symbol]) {
+                symbolLength[symbol] = computeSymbolLength(symbol, visited);
+            }
+        }
+        return offset + 3L * symbols + (symbols & 1);
+    }
+
+    private int computeSymbolLength(int symbol, boolean[] visited) {
+        visited[symbol] = true;
+        if (right[symbol] == 0xFFF) {
+            return 0;
+        }
+        int l = left[symbol];
+        int r = right[symbol];
+        if (!visited[l]) {
+            symbolLength[l] = computeSymbolLength(l, visited);
+        }
+        if (!visited[r]) {
+            symbolLength[r] = computeSymbolLength(r, visited);
+        }
+        return symbolLength[l] + symbolLength[r] + 1;
+    }
+
+    long setSparseIndex(long offset) {
+        sparseIndexOffset = offset;
+        return offset + sparseIndexSize * SPARSE_ENTRY_SIZE;
+    }
+
+    long setBlockLengths(long offset) {
+        blockLengthOffset = offset;
+        return offset + blockLengthSize * 2;
+    }
+
+    long setData(long offset) {
+        dataOffset = (offset + 63) & ~63L;
+        return dataOffset + blockCount * blockSize;
+    }
+
+    /**
+     * Décode la valeur d'un index de position.
+     */
+    int decompress(MappedFile file, long index) {
+        if ((flags & FLAG_SINGLE_VALUE) != 0) {
+            return minSymbolLength;
+        }
+
+        // L'entrée k de l'index épars situe la valeur d'index k * span + span / 2
+        long k = index / span;
+        long block = file.u32(sparseIndexOffset + k * SPARSE_ENTRY_SIZE);
+        int offset = file.u16(sparseIndexOffset + k * SPARSE_ENTRY_SIZE + 4);
+        offset += (int) (index % span - span / 2);
+
+        // Le bloc n contient blockLength[n] + 1 valeurs : avancer ou reculer jusqu'au bon bloc
+        while (offset < 0) {
+            offset += file.u16(blockLengthOffset + 2 * --block) + 1;
+        }
+        while (offset > file.u16(blockLengthOffset + 2 * block)) {
+            offset -= file.u16(blockLengthOffset + 2 * block++) + 1;
+        }
+
+        long pointer = dataOffset + block * blockSize;
+        long buffer = file.u64BigEndian(pointer);
+        pointer += 8;
+        int bufferBits = 64;
+        int symbol;
+        while (true) {
+            int length = 0;
+            while (Long.compareUnsigned(buffer, base64[length]) < 0) {
+                length++;
+            }
+            symbol = (int) ((buffer - base64[length]) >>> (64 - length - minSymbolLength)) & 0xFFFF;
+            symbol = (symbol + lowestSymbol[length]) & 0xFFFF;
+            if (offset < symbolLength[symbol] + 1) {
+                break;
+            }
+            offset -= symbolLength[symbol] + 1;
+            length += minSymbolLength;
+            buffer <<= length;
+            bufferBits -= length;
+            if (bufferBits <= 32) {
+                bufferBits += 32;
+                buffer |= file.u32BigEndian(pointer) << (64 - bufferBits);
+                pointer += 4;
+            }
+        }
+
+        // Descendre dans l'arbre des paires jusqu'à la valeur élémentaire cherchée
+        while (symbolLength[symbol] != 0) {
+            int l = left[symbol];
+            if (offset < symbolLength[l] + 1) {
+                symbol = l;
+            } else {
+                offset -= symbolLength[l] + 1;
+                symbol = right[symbol];
+            }
+        }
+        return left[symbol];
+    }
+}
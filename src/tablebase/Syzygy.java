@@ -0,0 +1,389 @@
+package tablebase;
+
+import static board.Bitboards.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import board.BitboardPosition;
+import movegen.Attacks;
+import movegen.Move;
+import movegen.MoveGenerator;
+import movegen.MoveList;
+
+/**
+ * Tables de finales Syzygy lues dans des répertoires locaux.
+ *
+ * Les fichiers WDL (.rtbw : gain, nulle ou perte) et DTZ (.rtbz : distance au prochain
+ * coup de pion ou à la prochaine prise) sont projetés en mémoire et décodés à la
+ * demande, table par table, à leur première consultation. Un objet Syzygy peut être
+ * partagé par tous les threads de recherche.
+ *
+ * Les tables ne connaissent ni le roque, ni la prise en passant, et ne stockent pas
+ * toujours la bonne valeur quand le meilleur coup est une prise : chaque lecture joue
+ * d'abord les prises (et, pour DTZ, les coups de pion) avant de consulter la table.
+ *
+ * Les valeurs WDL tiennent compte de la règle des 50 coups : CURSED_WIN est un gain
+ * qui ne peut pas être forcé avant cinquante coups, BLESSED_LOSS une perte qui sera
+ * sauvée par la règle.
+ */
+public final class Syzygy {
+    public static final int LOSS = -2;
+    public static final int BLESSED_LOSS = -1;
+    public static final int DRAW = 0;
+    public static final int CURSED_WIN = 1;
+    public static final int WIN = 2;
+    // Position hors des tables (matériel absent, roque possible, fichier illisible)
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    // Rang d'un coup gagnant sûr à la racine ; les rangs inférieurs s'en écartent par la règle des 50 coups
+    private static final int MAX_DTZ = 1 << 18;
+    private static final int[] WDL_RANKS = { -MAX_DTZ, -MAX_DTZ + 101, 0, MAX_DTZ - 101, MAX_DTZ };
+
+    private static final int OK = 0;
+    private static final int FAIL = 1;
+    private static final int ZEROING_BEST_MOVE = 2;
+
+    /**
+     * Résultat du filtrage des coups de la racine.
+     *
+     * @param wdl L'issue de la racine avec les coups conservés
+     * @param dtz true si le classement a utilisé les tables DTZ, false s'il n'a utilisé que WDL
+     */
+    public record RootProbe(int wdl, boolean dtz) {
+    }
+
+    // État d'une lecture, partagé par ses appels récursifs
+    private static final class ProbeState {
+        private int status;
+    }
+
+    private final Map<Long, SyzygyTable> tables;
+    private final int maxPieces;
+
+    private Syzygy(Map<Long, SyzygyTable> tables, int maxPieces) {
+        this.tables = tables;
+        this.maxPieces = maxPieces;
+    }
+
+    /**
+     * Recense les tables de un ou plusieurs répertoires ; aucun fichier n'est ouvert
+     * avant la première lecture. Les répertoires absents sont ignorés.
+     *
+     * @param paths Les répertoires, séparés par File.pathSeparator (":" ou ";")
+     * @return Les tables trouvées (éventuellement aucune)
+     * @throws IOException si un répertoire ne peut pas être parcouru
+     */
+    public static Syzygy open(String paths) throws IOException {
+        Map<String, Path> wdlFiles = new HashMap<>();
+        Map<String, Path> dtzFiles = new HashMap<>();
+        for (String path : paths.split(File.pathSeparator)) {
+            Path directory = Path.of(path.trim());
+            if (path.isBlank() || !Files.isDirectory(directory)) {
+                continue;
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.{rtbw,rtbz}")) {
+                for (Path file : files) {
+                    String fileName = file.getFileName().toString();
+                    String name = fileName.substring(0, fileName.length() - 5);
+                    if (SyzygyTable.isValidName(name)) {
+                        (fileName.endsWith(".rtbw") ? wdlFiles : dtzFiles).putIfAbsent(name, file);
+                    }
+                }
+            }
+        }
+
+        Map<Long, SyzygyTable> tables = new HashMap<>();
+        int maxPieces = 0;
+        for (Map.Entry<String, Path> entry : wdlFiles.entrySet()) {
+            SyzygyTable table = new SyzygyTable(entry.getKey(), entry.getValue(), dtzFiles.get(entry.getKey()));
+            tables.put(table.key, table);
+            tables.put(table.mirroredKey, table);
+            maxPieces = Math.max(maxPieces, table.pieceCount);
+        }
+        return new Syzygy(tables, maxPieces);
+    }
+
+    /**
+     * Nombre de pièces, rois compris, de la plus grande table disponible (0 si aucune).
+     */
+    public int maxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Nombre de combinaisons de matériel disponibles (fichiers WDL).
+     */
+    public int tableCount() {
+        return (int) tables.values().stream().distinct().count();
+    }
+
+    /**
+     * Indique si la position peut être dans les tables : assez peu de pièces, plus de roque.
+     */
+    public boolean covers(BitboardPosition position) {
+        return position.getCastlingRights() == 0 && Long.bitCount(position.occupied()) <= maxPieces;
+    }
+
+    /**
+     * Issue de la position avec un jeu parfait, du point de vue du camp au trait.
+     * La position est jouée puis rendue dans son état initial.
+     *
+     * @param position La position
+     * @return LOSS, BLESSED_LOSS, DRAW, CURSED_WIN ou WIN, ou UNKNOWN
+     */
+    public int probeWdl(BitboardPosition position) {
+        if (!covers(position)) {
+            return UNKNOWN;
+        }
+        ProbeState state = new ProbeState();
+        int wdl = search(position, false, state);
+        return state.status == FAIL ? UNKNOWN : wdl;
+    }
+
+    /**
+     * Distance en demi-coups au prochain coup de pion ou à la prochaine prise avec un jeu
+     * parfait : positive si le camp au trait gagne, négative s'il perd, 0 si nulle.
+     * Une valeur au-delà de 100 en valeur absolue signale un gain ou une perte annulé
+     * par la règle des 50 coups. La position est jouée puis rendue dans son état initial.
+     *
+     * @param position La position
+     * @return La distance, ou UNKNOWN
+     */
+    public int probeDtz(BitboardPosition position) {
+        if (!covers(position)) {
+            return UNKNOWN;
+        }
+        ProbeState state = new ProbeState();
+        int dtz = probeDtz(position, state);
+        return state.status == FAIL ? UNKNOWN : dtz;
+    }
+
+    /**
+     * Ne garde parmi les coups de la racine que ceux qui conservent le meilleur résultat.
+     * Avec les tables DTZ, tous les gains qui aboutissent dans la limite des 50 coups sont
+     * gardés ; sinon seuls les coups de meilleur WDL le sont. La liste n'est pas modifiée
+     * si la position n'est pas dans les tables.
+     *
+     * @param position La position de la racine (rendue dans son état initial)
+     * @param moves Les coups légaux de la racine, filtrés sur place
+     * @return Le résultat de la racine, ou null si elle n'est pas dans les tables
+     */
+    public RootProbe probeRoot(BitboardPosition position, MoveList moves) {
+        if (!covers(position) || moves.isEmpty()) {
+            return null;
+        }
+        int[] ranks = new int[moves.size()];
+        boolean dtz = rankByDtz(position, moves, ranks);
+        if (!dtz && !rankByWdl(position, moves, ranks)) {
+            return null;
+        }
+
+        int best = Integer.MIN_VALUE;
+        for (int rank : ranks) {
+            best = Math.max(best, rank);
+        }
+        int kept = 0;
+        for (int i = 0; i < ranks.length; i++) {
+            if (ranks[i] == best) {
+                moves.set(kept++, moves.get(i));
+            }
+        }
+        while (moves.size() > kept) {
+            moves.removeAt(moves.size() - 1);
+        }
+
+        int wdl = best >= MAX_DTZ - 100 ? WIN : best > 0 ? CURSED_WIN : best == 0 ? DRAW
+                : best > -MAX_DTZ + 100 ? BLESSED_LOSS : LOSS;
+        return new RootProbe(wdl, dtz);
+    }
+
+    /**
+     * Classe les coups par DTZ en tenant compte du compteur des 50 coups : les gains sûrs
+     * ont tous le rang MAX_DTZ, les pertes qui ne peuvent pas être sauvées -MAX_DTZ.
+     */
+    private boolean rankByDtz(BitboardPosition position, MoveList moves, int[] ranks) {
+        int halfmoveClock = position.getHalfmoveClock();
+        ProbeState state = new ProbeState();
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.get(i));
+            int dtz;
+            if (position.getHalfmoveClock() == 0) {
+                // Coup de pion ou prise : la distance est celle du coup lui-même
+                state.status = OK;
+                dtz = dtzBeforeZeroing(-search(position, false, state));
+            } else if (position.isRepetition() || position.getHalfmoveClock() >= 100) {
+                dtz = 0;
+            } else {
+                dtz = -probeDtz(position, state);
+                dtz = dtz > 0 ? dtz + 1 : dtz < 0 ? dtz - 1 : dtz;
+            }
+            if (dtz == 2 && isMate(position)) {
+                dtz = 1;
+            }
+            position.unmakeMove();
+            if (state.status == FAIL) {
+                return false;
+            }
+            ranks[i] = dtz > 0 ? (dtz + halfmoveClock <= 99 ? MAX_DTZ : MAX_DTZ - (dtz + halfmoveClock))
+                    : dtz < 0 ? (-dtz * 2 + halfmoveClock < 100 ? -MAX_DTZ : -MAX_DTZ + (-dtz + halfmoveClock))
+                    : 0;
+        }
+        return true;
+    }
+
+    private boolean rankByWdl(BitboardPosition position, MoveList moves, int[] ranks) {
+        ProbeState state = new ProbeState();
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.get(i));
+            state.status = OK;
+            int wdl = -search(position, false, state);
+            position.unmakeMove();
+            if (state.status == FAIL) {
+                return false;
+            }
+            ranks[i] = WDL_RANKS[wdl + 2];
+        }
+        return true;
+    }
+
+    /**
+     * WDL de la position : meilleure prise (et, si demandé, meilleur coup de pion)
+     * comparée à la valeur de la table. Si le meilleur résultat passe par un de ces
+     * coups, l'état devient ZEROING_BEST_MOVE : la valeur DTZ de la table n'est alors
+     * pas fiable.
+     */
+    private int search(BitboardPosition position, boolean checkZeroingMoves, ProbeState state) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegal(position, moves);
+        int bestValue = LOSS;
+        int moveCount = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (!Move.isCapture(move)
+                    && (!checkZeroingMoves || typeOf(position.pieceAt(Move.from(move))) != PAWN)) {
+                continue;
+            }
+            moveCount++;
+            position.makeMove(move);
+            int value = -search(position, false, state);
+            position.unmakeMove();
+            if (state.status == FAIL) {
+                return DRAW;
+            }
+            if (value > bestValue) {
+                bestValue = value;
+                if (value >= WIN) {
+                    state.status = ZEROING_BEST_MOVE;
+                    return value;
+                }
+            }
+        }
+
+        // Si tous les coups légaux ont été joués, la table n'a pas à être lue (elle peut
+        // même être fausse, par exemple quand seule une prise en passant est possible)
+        boolean noMoreMoves = moveCount > 0 && moveCount == moves.size();
+        int value;
+        if (noMoreMoves) {
+            value = bestValue;
+        } else {
+            value = probeWdlTable(position);
+            if (value == UNKNOWN) {
+                state.status = FAIL;
+                return DRAW;
+            }
+        }
+
+        if (bestValue >= value) {
+            state.status = bestValue > DRAW || noMoreMoves ? ZEROING_BEST_MOVE : OK;
+            return bestValue;
+        }
+        state.status = OK;
+        return value;
+    }
+
+    private int probeDtz(BitboardPosition position, ProbeState state) {
+        state.status = OK;
+        int wdl = search(position, true, state);
+        if (state.status == FAIL || wdl == DRAW) {
+            // Les tables DTZ ne stockent pas les nulles
+            return 0;
+        }
+        if (state.status == ZEROING_BEST_MOVE) {
+            return dtzBeforeZeroing(wdl);
+        }
+
+        SyzygyTable table = tables.get(SyzygyTable.materialKey(position));
+        int dtz = table == null ? SyzygyTable.UNAVAILABLE : table.probeDtz(position, wdl);
+        if (dtz == SyzygyTable.UNAVAILABLE) {
+            state.status = FAIL;
+            return 0;
+        }
+        if (dtz != SyzygyTable.CHANGE_STM) {
+            return (dtz + (wdl == BLESSED_LOSS || wdl == CURSED_WIN ? 100 : 0)) * Integer.signum(wdl);
+        }
+
+        // La table ne stocke que l'autre camp au trait : recherche à un demi-coup
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegal(position, moves);
+        int minDtz = 0xFFFF;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            boolean zeroing = Move.isCapture(move) || typeOf(position.pieceAt(Move.from(move))) == PAWN;
+            position.makeMove(move);
+            // Après un coup de pion ou une prise, seul le signe de la position compte
+            dtz = zeroing ? -dtzBeforeZeroing(search(position, false, state)) : -probeDtz(position, state);
+            if (dtz == 1 && isMate(position)) {
+                minDtz = 1;
+            }
+            if (!zeroing) {
+                dtz += Integer.signum(dtz);
+            }
+            if (dtz < minDtz && Integer.signum(dtz) == Integer.signum(wdl)) {
+                minDtz = dtz;
+            }
+            position.unmakeMove();
+            if (state.status == FAIL) {
+                return 0;
+            }
+        }
+        // Sans coup légal, la position est mat
+        return minDtz == 0xFFFF ? -1 : minDtz;
+    }
+
+    private int probeWdlTable(BitboardPosition position) {
+        if (Long.bitCount(position.occupied()) == 2) {
+            return DRAW;
+        }
+        SyzygyTable table = tables.get(SyzygyTable.materialKey(position));
+        if (table == null) {
+            return UNKNOWN;
+        }
+        int wdl = table.probeWdl(position);
+        return wdl == SyzygyTable.UNAVAILABLE ? UNKNOWN : wdl;
+    }
+
+    private static int dtzBeforeZeroing(int wdl) {
+        return switch (wdl) {
+            case WIN -> 1;
+            case CURSED_WIN -> 101;
+            case BLESSED_LOSS -> -101;
+            case LOSS -> -1;
+            default -> 0;
+        };
+    }
+
+    private static boolean isMate(BitboardPosition position) {
+        if (!Attacks.isInCheck(position, position.getSideToMove())) {
+            return false;
+        }
+        MoveList replies = new MoveList();
+        MoveGenerator.generateLegal(position, replies);
+        return replies.isEmpty();
+    }
+}
@@ -0,0 +1,624 @@
+package tablebase;
+
+import static board.Bitboards.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import board.BitboardPosition;
+import movegen.Attacks;
+
+/**
+ * Une combinaison de matériel des tables Syzygy (ex. KRPvKR) : son fichier WDL (.rtbw),
+ * éventuellement son fichier DTZ (.rtbz), et le calcul de l'index d'une position.
+ *
+ * Les fichiers ne sont projetés et leurs en-têtes lus qu'à la première consultation,
+ * une seule fois même si plusieurs threads consultent la table en même temps. Le nom
+ * du fichier donne le camp fort en blanc : une position où les noirs ont le matériel
+ * des blancs est consultée couleurs inversées et échiquier retourné.
+ *
+ * L'index d'une position ramène d'abord le roi ou le pion de tête dans un secteur de
+ * l'échiquier par symétrie, puis numérote chaque groupe de pièces identiques par
+ * combinaisons de cases libres.
+ */
+final class SyzygyTable {
+    static final int MAX_PIECES = 7;
+    // Résultat d'une lecture impossible : fichier absent, illisible ou corrompu
+    static final int UNAVAILABLE = Integer.MIN_VALUE;
+    // Lecture DTZ d'une table qui ne stocke que l'autre camp au trait
+    static final int CHANGE_STM = Integer.MIN_VALUE + 1;
+
+    private static final int WDL_MAGIC = 0x5D23E871;
+    private static final int DTZ_MAGIC = 0xA50C66D7;
+    private static final int HEADER_SPLIT = 1;
+    private static final int HEADER_HAS_PAWNS = 2;
+
+    // Code Syzygy (1 pion, 2 cavalier, 3 fou, 4 tour, 5 dame, 6 roi) de chaque type de Bitboards
+    private static final int[] SYZYGY_TYPES = { 1, 4, 2, 3, 5, 6 };
+    // Types de Bitboards des lettres des noms de fichiers
+    private static final String TYPE_LETTERS = "PRNBQK";
+    // Ligne de WDL_MAP indexée par WDL + 2 : ordre des sous-tables de correspondance DTZ
+    private static final int[] WDL_MAP = { 1, 3, 0, 2, 0 };
+
+    private static final int[] MAP_B1H1H7 = new int[64];
+    private static final int[] MAP_A1D1D4 = new int[64];
+    private static final int[][] MAP_KK = new int[10][64];
+    private static final long[][] BINOMIAL = new long[MAX_PIECES][64];
+    private static final int[] MAP_PAWNS = new int[64];
+    private static final int[][] LEAD_PAWN_INDEX = new int[MAX_PIECES][64];
+    private static final int[][] LEAD_PAWNS_SIZE = new int[MAX_PIECES][4];
+
+    static {
+        // Cases sous la diagonale a1-h8 : 0..27
+        int code = 0;
+        for (int square = 0; square < 64; square++) {
+            if (offDiagonal(square) < 0) {
+                MAP_B1H1H7[square] = code++;
+            }
+        }
+
+        // Triangle a1-d1-d4 : 0..5 sous la diagonale, puis 6..9 pour a1, b2, c3, d4
+        code = 0;
+        int[] diagonal = new int[4];
+        int diagonalCount = 0;
+        for (int square = 0; square <= 27; square++) {
+            if (offDiagonal(square) < 0 && fileOf(square) <= 3) {
+                MAP_A1D1D4[square] = code++;
+            } else if (offDiagonal(square) == 0 && fileOf(square) <= 3) {
+                diagonal[diagonalCount++] = square;
+            }
+        }
+        for (int i = 0; i < diagonalCount; i++) {
+            MAP_A1D1D4[diagonal[i]] = code++;
+        }
+
+        // Les 462 placements légaux des deux rois, le premier dans le triangle a1-d1-d4 ;
+        // si le premier est sur la diagonale, le second n'est pas au-dessus. Les placements
+        // des deux rois sur la diagonale sont numérotés en dernier.
+        code = 0;
+        int[][] bothOnDiagonal = new int[64][2];
+        int bothCount = 0;
+        for (int index = 0; index < 10; index++) {
+            for (int s1 = 0; s1 <= 27; s1++) {
+                if (MAP_A1D1D4[s1] != index || index == 0 && s1 != 1) {
+                    continue;
+                }
+                for (int s2 = 0; s2 < 64; s2++) {
+                    if (((Attacks.king(s1) | 1L << s1) & 1L << s2) != 0) {
+                        continue;
+                    }
+                    if (offDiagonal(s1) == 0 && offDiagonal(s2) > 0) {
+                        continue;
+                    }
+                    if (offDiagonal(s1) == 0 && offDiagonal(s2) == 0) {
+                        bothOnDiagonal[bothCount][0] = index;
+                        bothOnDiagonal[bothCount++][1] = s2;
+                    } else {
+                        MAP_KK[index][s2] = code++;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < bothCount; i++) {
+            MAP_KK[bothOnDiagonal[i][0]][bothOnDiagonal[i][1]] = code++;
+        }
+
+        BINOMIAL[0][0] = 1;
+        for (int n = 1; n < 64; n++) {
+            for (int k = 0; k < MAX_PIECES && k <= n; k++) {
+                BINOMIAL[k][n] = (k > 0 ? BINOMIAL[k - 1][n - 1] : 0) + (k < n ? BINOMIAL[k][n - 1] : 0);
+            }
+        }
+
+        // MAP_PAWNS numérote a2-h7 par colonnes depuis les bords : le pion de tête est celui
+        // de plus grande valeur, le plus près du bord et, à colonne égale, le moins avancé.
+        int available = 47;
+        for (int leadPawns = 1; leadPawns < MAX_PIECES - 1; leadPawns++) {
+            for (int file = 0; file < 4; file++) {
+                int index = 0;
+                for (int rank = 1; rank <= 6; rank++) {
+                    int square = square(file, rank);
+                    if (leadPawns == 1) {
+                        MAP_PAWNS[square] = available--;
+                        MAP_PAWNS[square ^ 7] = available--;
+                    }
+                    LEAD_PAWN_INDEX[leadPawns][square] = index;
+                    index += (int) BINOMIAL[leadPawns - 1][MAP_PAWNS[square]];
+                }
+                LEAD_PAWNS_SIZE[leadPawns][file] = index;
+            }
+        }
+    }
+
+    // Contenu d'un fichier projeté : sous-tables par camp au trait et colonne de tête
+    private static final class Tables {
+        private final MappedFile file;
+        private final PairsData[][] pairs;
+        private long mapOffset;
+
+        private Tables(MappedFile file, PairsData[][] pairs) {
+            this.file = file;
+            this.pairs = pairs;
+        }
+    }
+
+    private static final Tables MISSING = new Tables(null, null);
+
+    final String name;
+    final long key;
+    final long mirroredKey;
+    final int pieceCount;
+    final boolean hasPawns;
+    private final boolean hasUniquePieces;
+    // Pions du camp de tête, puis de l'autre camp
+    private final int[] pawnCount = new int[2];
+    private final Path wdlPath;
+    private final Path dtzPath;
+    private volatile Tables wdl;
+    private volatile Tables dtz;
+
+    /**
+     * @param name Le nom de la combinaison, ex. "KRPvKR"
+     * @param wdlPath Le fichier .rtbw
+     * @param dtzPath Le fichier .rtbz, ou null s'il n'existe pas
+     */
+    SyzygyTable(String name, Path wdlPath, Path dtzPath) {
+        this.name = name;
+        this.wdlPath = wdlPath;
+        this.dtzPath = dtzPath;
+        String[] sides = name.split("v");
+        int[][] counts = new int[2][6];
+        int pieces = 0;
+        for (int color = WHITE; color <= BLACK; color++) {
+            for (char letter : sides[color].toCharArray()) {
+                counts[color][TYPE_LETTERS.indexOf(letter)]++;
+                pieces++;
+            }
+        }
+        pieceCount = pieces;
+        key = materialKey(counts[WHITE], counts[BLACK]);
+        mirroredKey = materialKey(counts[BLACK], counts[WHITE]);
+        hasPawns = counts[WHITE][PAWN] + counts[BLACK][PAWN] > 0;
+        boolean unique = false;
+        for (int color = WHITE; color <= BLACK; color++) {
+            for (int type = PAWN; type < KING; type++) {
+                unique |= counts[color][type] == 1;
+            }
+        }
+        hasUniquePieces = unique;
+        // Le camp de tête est celui qui a le moins de pions (au moins un), pour mieux compresser
+        int whitePawns = counts[WHITE][PAWN];
+        int blackPawns = counts[BLACK][PAWN];
+        boolean whiteLeads = blackPawns == 0 || whitePawns > 0 && blackPawns >= whitePawns;
+        pawnCount[0] = whiteLeads ? whitePawns : blackPawns;
+        pawnCount[1] = whiteLeads ? blackPawns : whitePawns;
+    }
+
+    /**
+     * Indique si un nom de fichier sans extension désigne une combinaison valide.
+     */
+    static boolean isValidName(String name) {
+        return name.matches("K[QRBNP]*vK[QRBNP]*") && name.length() - 1 <= MAX_PIECES;
+    }
+
+    /**
+     * Clé de matériel : nombre de pièces de chaque type et couleur, sur 4 bits chacun.
+     */
+    static long materialKey(BitboardPosition position) {
+        long key = 0;
+        for (int color = WHITE; color <= BLACK; color++) {
+            for (int type = PAWN; type <= KING; type++) {
+                key |= (long) Long.bitCount(position.pieces(color, type)) << 4 * (6 * color + type);
+            }
+        }
+        return key;
+    }
+
+    private static long materialKey(int[] white, int[] black) {
+        long key = 0;
+        for (int type = PAWN; type <= KING; type++) {
+            key |= (long) white[type] << 4 * type | (long) black[type] << 4 * (6 + type);
+        }
+        return key;
+    }
+
+    boolean hasDtz() {
+        return dtzPath != null;
+    }
+
+    /**
+     * Lit le WDL de la position (de -2 perte à 2 gain, du point de vue du camp au trait),
+     * sans tenir compte des prises en passant ni des coups de prise (voir Syzygy).
+     *
+     * @return Le WDL, ou UNAVAILABLE
+     */
+    int probeWdl(BitboardPosition position) {
+        Tables tables = wdlTables();
+        return tables == MISSING ? UNAVAILABLE : probe(position, tables, false, 0);
+    }
+
+    /**
+     * Lit la distance au prochain coup de pion ou à la prochaine prise, en demi-coups,
+     * connaissant le WDL de la position.
+     *
+     * @return La distance (positive), CHANGE_STM si la table ne stocke que l'autre camp
+     *         au trait, ou UNAVAILABLE
+     */
+    int probeDtz(BitboardPosition position, int wdl) {
+        Tables tables = dtzTables();
+        return tables == MISSING ? UNAVAILABLE : probe(position, tables, true, wdl);
+    }
+
+    private Tables wdlTables() {
+        Tables tables = wdl;
+        if (tables == null) {
+            synchronized (this) {
+                tables = wdl;
+                if (tables == null) {
+                    tables = load(wdlPath, false);
+                    wdl = tables;
+                }
+            }
+        }
+        return tables;
+    }
+
+    private Tables dtzTables() {
+        Tables tables = dtz;
+        if (tables == null) {
+            synchronized (this) {
+                tables = dtz;
+                if (tables == null) {
+                    tables = dtzPath == null ? MISSING : load(dtzPath, true);
+                    dtz = tables;
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Projette un fichier et lit ses en-têtes ; un fichier illisible ou incohérent est
+     * considéré comme absent.
+     */
+    private Tables load(Path path, boolean dtzFile) {
+        try {
+            MappedFile file = MappedFile.map(path);
+            if (file.size() < 5 || (int) file.u32(0) != (dtzFile ? DTZ_MAGIC : WDL_MAGIC)) {
+                return MISSING;
+            }
+            int header = file.u8(4);
+            boolean split = key != mirroredKey;
+            if (((header & HEADER_HAS_PAWNS) != 0) != hasPawns || !dtzFile && ((header & HEADER_SPLIT) != 0) != split) {
+                return MISSING;
+            }
+            return readTables(file, dtzFile, split);
+        } catch (IOException | RuntimeException e) {
+            return MISSING;
+        }
+    }
+
+    private Tables readTables(MappedFile file, boolean dtzFile, boolean split) {
+        int sides = !dtzFile && split ? 2 : 1;
+        int files = hasPawns ? 4 : 1;
+        boolean bothPawns = hasPawns && pawnCount[1] > 0;
+        PairsData[][] pairs = new PairsData[sides][files];
+        Tables tables = new Tables(file, pairs);
+        long offset = 5;
+
+        for (int f = 0; f < files; f++) {
+            for (int side = 0; side < sides; side++) {
+                pairs[side][f] = new PairsData(pieceCount);
+            }
+            int first = file.u8(offset);
+            int second = bothPawns ? file.u8(offset + 1) : 0xFF;
+            int[][] order = { { first & 0xF, second & 0xF }, { first >>> 4, second >>> 4 } };
+            offset += bothPawns ? 2 : 1;
+            for (int k = 0; k < pieceCount; k++, offset++) {
+                int pieces = file.u8(offset);
+                for (int side = 0; side < sides; side++) {
+                    pairs[side][f].pieces[k] = side == 0 ? pieces & 0xF : pieces >>> 4;
+                }
+            }
+            for (int side = 0; side < sides; side++) {
+                setGroups(pairs[side][f], order[side], f);
+            }
+        }
+        offset += offset & 1;
+
+        for (int f = 0; f < files; f++) {
+            for (int side = 0; side < sides; side++) {
+                offset = pairs[side][f].readSizes(file, offset);
+            }
+        }
+        if (dtzFile) {
+            offset = readDtzMap(tables, offset);
+        }
+        for (int f = 0; f < files; f++) {
+            for (int side = 0; side < sides; side++) {
+                offset = pairs[side][f].setSparseIndex(offset);
+            }
+        }
+        for (int f = 0; f < files; f++) {
+            for (int side = 0; side < sides; side++) {
+                offset = pairs[side][f].setBlockLengths(offset);
+            }
+        }
+        for (int f = 0; f < files; f++) {
+            for (int side = 0; side < sides; side++) {
+                offset = pairs[side][f].setData(offset);
+            }
+        }
+        if (offset > file.size()) {
+            return MISSING;
+        }
+        return tables;
+    }
+
+    /**
+     * Découpe la suite de pièces en groupes et calcule le multiplicateur de chaque groupe.
+     * Les groupes ne sont pas encodés dans l'ordre de la suite : order[0] donne le rang
+     * du groupe de tête, order[1] celui des pions restants (0xF si absent).
+     */
+    private void setGroups(PairsData data, int[] order, int file) {
+        int n = 0;
+        int firstLength = hasPawns ? 0 : hasUniquePieces ? 3 : 2;
+        data.groupLength[n] = 1;
+        for (int i = 1; i < pieceCount; i++) {
+            if (--firstLength > 0 || data.pieces[i] == data.pieces[i - 1]) {
+                data.groupLength[n]++;
+            } else {
+                data.groupLength[++n] = 1;
+            }
+        }
+        data.groupLength[++n] = 0;
+
+        boolean bothPawns = hasPawns && pawnCount[1] > 0;
+        int next = bothPawns ? 2 : 1;
+        int freeSquares = 64 - data.groupLength[0] - (bothPawns ? data.groupLength[1] : 0);
+        long index = 1;
+        for (int k = 0; next < n || k == order[0] || k == order[1]; k++) {
+            if (k == order[0]) {
+                data.groupIndex[0] = index;
+                index *= hasPawns ? LEAD_PAWNS_SIZE[data.groupLength[0]][file] : hasUniquePieces ? 31332 : 462;
+            } else if (k == order[1]) {
+                data.groupIndex[1] = index;
+                index *= BINOMIAL[data.groupLength[1]][48 - data.groupLength[0]];
+            } else {
+                data.groupIndex[next] = index;
+                index *= BINOMIAL[data.groupLength[next]][freeSquares];
+                freeSquares -= data.groupLength[next++];
+            }
+        }
+        data.groupIndex[n] = index;
+    }
+
+    /**
+     * Lit les tables de correspondance DTZ : pour chaque issue, les valeurs stockées
+     * sont des indices dans une petite table de distances (sur 8 ou 16 bits).
+     */
+    private long readDtzMap(Tables tables, long offset) {
+        tables.mapOffset = offset;
+        for (PairsData data : tables.pairs[0]) {
+            if ((data.flags & PairsData.FLAG_MAPPED) == 0) {
+                continue;
+            }
+            if ((data.flags & PairsData.FLAG_WIDE) != 0) {
+                offset += offset & 1;
+                for (int i = 0; i < 4; i++) {
+                    data.mapIndex[i] = (int) ((offset - tables.mapOffset) / 2 + 1);
+                    offset += 2L * tables.file.u16(offset) + 2;
+                }
+            } else {
+                for (int i = 0; i < 4; i++) {
+                    data.mapIndex[i] = (int) (offset - tables.mapOffset + 1);
+                    offset += tables.file.u8(offset) + 1;
+                }
+            }
+        }
+        return offset + (offset & 1);
+    }
+
+    private int probe(BitboardPosition position, Tables tables, boolean dtzFile, int wdl) {
+        int[] location = new int[2];
+        long index = index(position, tables.pairs, location);
+        int stm = location[0];
+        int tbFile = location[1];
+        PairsData data = tables.pairs[dtzFile ? 0 : stm][tbFile];
+        // Les tables DTZ ne stockent qu'un camp au trait, sauf les symétriques sans pions
+        if (dtzFile && (data.flags & PairsData.FLAG_STM) != stm && (key != mirroredKey || hasPawns)) {
+            return CHANGE_STM;
+        }
+        int value = data.decompress(tables.file, index);
+        return dtzFile ? mapDtz(tables, tbFile, value, wdl) : value - 2;
+    }
+
+    /**
+     * Index de la position dans sa sous-table.
+     *
+     * @param position La position, dont le matériel est celui de la table
+     * @param pairs Les sous-tables d'un fichier, par camp au trait et colonne de tête
+     * @param location Reçoit le camp au trait vu de la table (0 ou 1, après inversion des
+     *        couleurs) et la colonne du pion de tête (0 sans pions)
+     * @return L'index
+     */
+    long index(BitboardPosition position, PairsData[][] pairs, int[] location) {
+        int[] squares = new int[MAX_PIECES];
+        int[] pieces = new int[MAX_PIECES];
+        int size = 0;
+        int leadPawnCount = 0;
+        long leadPawns = 0;
+        int tbFile = 0;
+
+        // Tables symétriques : seuls les blancs au trait sont stockés. Camp fort noir :
+        // couleurs inversées et échiquier retourné verticalement.
+        boolean symmetricBlackToMove = key == mirroredKey && position.getSideToMove() == BLACK;
+        boolean blackStronger = materialKey(position) != key;
+        boolean flip = symmetricBlackToMove || blackStronger;
+        int flipColor = flip ? 8 : 0;
+        int flipSquares = flip ? 56 : 0;
+        int stm = (flip ? 1 : 0) ^ position.getSideToMove();
+
+        if (hasPawns) {
+            // Les pions de tête sont en premier dans toutes les sous-tables
+            int leadPiece = pairs[0][0].pieces[0] ^ flipColor;
+            leadPawns = position.pieces((leadPiece & 8) != 0 ? BLACK : WHITE, PAWN);
+            for (long pawns = leadPawns; pawns != 0; pawns = popLsb(pawns)) {
+                squares[size++] = lsb(pawns) ^ flipSquares;
+            }
+            leadPawnCount = size;
+            int lead = 0;
+            for (int i = 1; i < leadPawnCount; i++) {
+                if (MAP_PAWNS[squares[i]] > MAP_PAWNS[squares[lead]]) {
+                    lead = i;
+                }
+            }
+            swap(squares, 0, lead);
+            tbFile = Math.min(fileOf(squares[0]), 7 - fileOf(squares[0]));
+        }
+
+        location[0] = stm;
+        location[1] = tbFile;
+        PairsData data = pairs[Math.min(stm, pairs.length - 1)][tbFile];
+
+        for (long rest = position.occupied() ^ leadPawns; rest != 0; rest = popLsb(rest)) {
+            int square = lsb(rest);
+            int piece = position.pieceAt(square);
+            squares[size] = square ^ flipSquares;
+            pieces[size++] = (SYZYGY_TYPES[typeOf(piece)] | (colorOf(piece) == BLACK ? 8 : 0)) ^ flipColor;
+        }
+
+        // Ranger les pièces dans l'ordre de la sous-table
+        for (int i = leadPawnCount; i < size - 1; i++) {
+            for (int j = i + 1; j < size; j++) {
+                if (data.pieces[i] == pieces[j]) {
+                    swap(pieces, i, j);
+                    swap(squares, i, j);
+                    break;
+                }
+            }
+        }
+
+        // Pièce de tête sur les colonnes a-d
+        if (fileOf(squares[0]) > 3) {
+            for (int i = 0; i < size; i++) {
+                squares[i] ^= 7;
+            }
+        }
+
+        long index;
+        if (hasPawns) {
+            index = LEAD_PAWN_INDEX[leadPawnCount][squares[0]];
+            // Tri stable des autres pions de tête par MAP_PAWNS croissant
+            for (int i = 2; i < leadPawnCount; i++) {
+                for (int j = i; j > 1 && MAP_PAWNS[squares[j]] < MAP_PAWNS[squares[j - 1]]; j--) {
+                    swap(squares, j, j - 1);
+                }
+            }
+            for (int i = 1; i < leadPawnCount; i++) {
+                index += BINOMIAL[i][MAP_PAWNS[squares[i]]];
+            }
+        } else {
+            // Sans pions : pièce de tête sur les rangées 1-4, puis sous la diagonale a1-h8
+            if (rankOf(squares[0]) > 3) {
+                for (int i = 0; i < size; i++) {
+                    squares[i] ^= 56;
+                }
+            }
+            for (int i = 0; i < data.groupLength[0]; i++) {
+                if (offDiagonal(squares[i]) == 0) {
+                    continue;
+                }
+                if (offDiagonal(squares[i]) > 0) {
+                    for (int j = i; j < size; j++) {
+                        squares[j] = (squares[j] >>> 3 | squares[j] << 3) & 63;
+                    }
+                }
+                break;
+            }
+            index = hasUniquePieces ? uniquePiecesIndex(squares) : MAP_KK[MAP_A1D1D4[squares[0]]][squares[1]];
+        }
+
+        // Groupes suivants : combinaisons des cases restantes, en ordre croissant
+        index *= data.groupIndex[0];
+        int groupStart = data.groupLength[0];
+        boolean remainingPawns = hasPawns && pawnCount[1] > 0;
+        for (int next = 1; data.groupLength[next] != 0; next++) {
+            int length = data.groupLength[next];
+            Arrays.sort(squares, groupStart, groupStart + length);
+            long n = 0;
+            for (int i = 0; i < length; i++) {
+                int square = squares[groupStart + i];
+                int adjust = 0;
+                for (int j = 0; j < groupStart; j++) {
+                    if (square > squares[j]) {
+                        adjust++;
+                    }
+                }
+                n += BINOMIAL[i + 1][square - adjust - (remainingPawns ? 8 : 0)];
+            }
+            remainingPawns = false;
+            index += n * data.groupIndex[next];
+            groupStart += length;
+        }
+        return index;
+    }
+
+    /**
+     * Index des trois premières pièces quand au moins trois pièces sont uniques :
+     * la première est dans le triangle a1-d1-d4 (ou sur la diagonale), les suivantes
+     * n'occupent pas les cases déjà prises.
+     */
+    private static long uniquePiecesIndex(int[] squares) {
+        int adjust1 = squares[1] > squares[0] ? 1 : 0;
+        int adjust2 = (squares[2] > squares[0] ? 1 : 0) + (squares[2] > squares[1] ? 1 : 0);
+        if (offDiagonal(squares[0]) != 0) {
+            return (MAP_A1D1D4[squares[0]] * 63L + squares[1] - adjust1) * 62 + squares[2] - adjust2;
+        }
+        if (offDiagonal(squares[1]) != 0) {
+            return (6 * 63 + rankOf(squares[0]) * 28 + MAP_B1H1H7[squares[1]]) * 62L + squares[2] - adjust2;
+        }
+        if (offDiagonal(squares[2]) != 0) {
+            return 6 * 63 * 62 + 4 * 28 * 62 + rankOf(squares[0]) * 7 * 28
+                    + (rankOf(squares[1]) - adjust1) * 28 + MAP_B1H1H7[squares[2]];
+        }
+        return 6 * 63 * 62 + 4 * 28 * 62 + 4 * 7 * 28 + rankOf(squares[0]) * 7 * 6
+                + (rankOf(squares[1]) - adjust1) * 6 + rankOf(squares[2]) - adjust2;
+    }
+
+    /**
+     * Convertit une valeur DTZ stockée en demi-coups : les tables rangent la distance
+     * en coups ou en demi-coups selon l'issue, éventuellement à travers une table de
+     * correspondance.
+     */
+    private static int mapDtz(Tables tables, int tbFile, int value, int wdl) {
+        PairsData data = tables.pairs[0][tbFile];
+        int flags = data.flags;
+        if ((flags & PairsData.FLAG_MAPPED) != 0) {
+            int entry = data.mapIndex[WDL_MAP[wdl + 2]] + value;
+            value = (flags & PairsData.FLAG_WIDE) != 0
+                    ? tables.file.u16(tables.mapOffset + 2L * entry)
+                    : tables.file.u8(tables.mapOffset + entry);
+        }
+        if (wdl == Syzygy.WIN && (flags & PairsData.FLAG_WIN_PLIES) == 0
+                || wdl == Syzygy.LOSS && (flags & PairsData.FLAG_LOSS_PLIES) == 0
+                || wdl == Syzygy.CURSED_WIN || wdl == Syzygy.BLESSED_LOSS) {
+            value *= 2;
+        }
+        return value + 1;
+    }
+
+    /**
+     * Écart à la diagonale a1-h8 : négatif dessous, nul dessus, positif au-dessus.
+     */
+    private static int offDiagonal(int square) {
+        return rankOf(square) - fileOf(square);
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
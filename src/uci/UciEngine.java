@@ -0,0 +1,382 @@
+package uci;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import book.PolyglotBook;
+import board.BitboardPosition;
+import board.Bitboards;
+import engine.LazySmpSearch;
+import engine.SearchInfo;
+import engine.SearchLimits;
+import engine.SearchResult;
+import engine.TranspositionTable;
+import movegen.Move;
+import movegen.MoveGenerator;
+import movegen.MoveList;
+import tablebase.Syzygy;
+
+/**
+ * Protocole UCI sur l'entrée et la sortie standard, sans interface graphique.
+ *
+ * Les commandes sont lues sur le thread appelant ; chaque "go" est exécuté sur un thread
+ * de recherche dédié, ce qui permet de recevoir "stop" et "isready" pendant la recherche.
+ *
+ * Commandes prises en charge : uci, isready, ucinewgame, position, go (depth, movetime,
+ * wtime, btime, winc, binc, movestogo, nodes, infinite), stop, setoption (Hash, Threads,
+ * OwnBook, BookFile, SyzygyPath, SyzygyProbeLimit), quit. Avec OwnBook, un coup trouvé
+ * dans le livre Polyglot BookFile est joué sans recherche.
+ * Les commandes inconnues sont ignorées, comme le demande le protocole.
+ */
+public class UciEngine {
+    private static final String NAME = "ChessBot";
+    private static final String AUTHOR = "Lounol72";
+    private static final int MAX_HASH_MB = 65536;
+    private static final int MAX_THREADS = 256;
+    private static final int MAX_PROBE_LIMIT = 7;
+
+    private final BufferedReader input;
+    private final PrintStream output;
+    private final TranspositionTable transpositionTable = new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB);
+    private final LazySmpSearch search = new LazySmpSearch(transpositionTable, 1);
+    private final ExecutorService searchThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "uci-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final BitboardPosition position = new BitboardPosition();
+    private final MoveList moveBuffer = new MoveList();
+    private Future<?> pendingSearch;
+    // Libéré par "stop" : une recherche "go infinite" finie retient son bestmove jusque-là
+    private CountDownLatch stopReceived = new CountDownLatch(0);
+    private PolyglotBook book;
+    private boolean ownBook;
+    private Syzygy tablebases;
+    private int probeLimit = MAX_PROBE_LIMIT;
+
+    public UciEngine(InputStream input, PrintStream output) {
+        this.input = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.output = output;
+        position.setupStartPosition();
+    }
+
+    /**
+     * Lit et exécute les commandes jusqu'à "quit" ou la fin de l'entrée.
+     */
+    public void run() throws IOException {
+        try {
+            String line;
+            while ((line = input.readLine()) != null) {
+                String[] tokens = line.trim().split("\\s+");
+                if (tokens[0].equals("quit")) {
+                    break;
+                }
+                try {
+                    execute(tokens);
+                } catch (IllegalArgumentException e) {
+                    send("info string " + e.getMessage());
+                }
+            }
+        } finally {
+            search.stop();
+            stopReceived.countDown();
+            waitForSearch();
+            searchThread.shutdownNow();
+            search.shutdown();
+            closeBook();
+        }
+    }
+
+    private void execute(String[] tokens) {
+        switch (tokens[0]) {
+            case "uci" -> {
+                send("id name " + NAME);
+                send("id author " + AUTHOR);
+                send("option name Hash type spin default " + TranspositionTable.DEFAULT_SIZE_MB + " min 1 max " + MAX_HASH_MB);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                send("option name OwnBook type check default false");
+                send("option name BookFile type string default <empty>");
+                send("option name SyzygyPath type string default <empty>");
+                send("option name SyzygyProbeLimit type spin default " + MAX_PROBE_LIMIT + " min 0 max " + MAX_PROBE_LIMIT);
+                send("uciok");
+            }
+            case "isready" -> send("readyok");
+            case "ucinewgame" -> {
+                waitForSearch();
+                transpositionTable.clear();
+                position.setupStartPosition();
+            }
+            case "position" -> {
+                waitForSearch();
+                setPosition(tokens);
+            }
+            case "go" -> {
+                waitForSearch();
+                go(tokens);
+            }
+            case "stop" -> {
+                if (pendingSearch != null && !pendingSearch.isDone()) {
+                    search.stop();
+                }
+                stopReceived.countDown();
+            }
+            case "setoption" -> {
+                waitForSearch();
+                setOption(tokens);
+            }
+            default -> {
+                // Commande inconnue ou non prise en charge (debug, register, ponderhit...)
+            }
+        }
+    }
+
+    /**
+     * position [startpos | fen &lt;fen&gt;] [moves &lt;coup&gt;...]
+     */
+    private void setPosition(String[] tokens) {
+        int index = 1;
+        if (index < tokens.length && tokens[index].equals("startpos")) {
+            position.setupStartPosition();
+            index++;
+        } else if (index < tokens.length && tokens[index].equals("fen")) {
+            StringBuilder fen = new StringBuilder();
+            for (index++; index < tokens.length && !tokens[index].equals("moves"); index++) {
+                fen.append(tokens[index]).append(' ');
+            }
+            position.setFromFen(fen.toString().trim());
+        } else {
+            throw new IllegalArgumentException("position must be followed by startpos or fen");
+        }
+
+        if (index < tokens.length && tokens[index].equals("moves")) {
+            for (index++; index < tokens.length; index++) {
+                int move = findMove(tokens[index]);
+                if (move == Move.NONE) {
+                    throw new IllegalArgumentException("Illegal move " + tokens[index]);
+                }
+                position.makeMove(move);
+            }
+        }
+    }
+
+    /**
+     * Cherche un coup légal par sa notation UCI (ex. e2e4, e7e8q).
+     *
+     * @return Le coup encodé, ou Move.NONE s'il n'est pas légal
+     */
+    private int findMove(String uci) {
+        MoveGenerator.generateLegal(position, moveBuffer);
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            if (Move.toUci(moveBuffer.get(i)).equals(uci)) {
+                return moveBuffer.get(i);
+            }
+        }
+        return Move.NONE;
+    }
+
+    private void go(String[] tokens) {
+        SearchLimits limits = new SearchLimits();
+        boolean infinite = false;
+        for (int i = 1; i < tokens.length; i++) {
+            switch (tokens[i]) {
+                case "depth" -> limits.setDepth(Integer.parseInt(value(tokens, ++i)));
+                case "nodes" -> limits.setNodes(Long.parseLong(value(tokens, ++i)));
+                case "movetime" -> limits.setMoveTime(Long.parseLong(value(tokens, ++i)));
+                case "wtime" -> limits.setTime(Bitboards.WHITE, Long.parseLong(value(tokens, ++i)));
+                case "btime" -> limits.setTime(Bitboards.BLACK, Long.parseLong(value(tokens, ++i)));
+                case "winc" -> limits.setIncrement(Bitboards.WHITE, Long.parseLong(value(tokens, ++i)));
+                case "binc" -> limits.setIncrement(Bitboards.BLACK, Long.parseLong(value(tokens, ++i)));
+                case "movestogo" -> limits.setMovesToGo(Integer.parseInt(value(tokens, ++i)));
+                case "infinite" -> {
+                    limits.setInfinite(true);
+                    infinite = true;
+                }
+                default -> {
+                    // searchmoves, ponder, mate : ignorés
+                }
+            }
+        }
+
+        // En mode infini, le bestmove n'est envoyé qu'après "stop", même si la recherche
+        // s'est terminée d'elle-même (mat trouvé, profondeur maximale) ou si le coup vient du livre
+        CountDownLatch stop = new CountDownLatch(infinite ? 1 : 0);
+        stopReceived = stop;
+
+        if (ownBook && book != null) {
+            int bookMove = book.weightedMove(position, ThreadLocalRandom.current());
+            if (bookMove != Move.NONE) {
+                pendingSearch = searchThread.submit(() -> {
+                    awaitStop(stop);
+                    send("bestmove " + Move.toUci(bookMove));
+                });
+                return;
+            }
+        }
+
+        BitboardPosition root = new BitboardPosition(position);
+        pendingSearch = searchThread.submit(() -> {
+            SearchResult result = search.search(root, limits, this::sendInfo);
+            awaitStop(stop);
+            int bestMove = result.bestMove();
+            if (bestMove == Move.NONE) {
+                // Recherche interrompue avant la fin de la première itération
+                MoveList legal = new MoveList();
+                MoveGenerator.generateLegal(root, legal);
+                bestMove = legal.isEmpty() ? Move.NONE : legal.get(0);
+            }
+            if (bestMove == Move.NONE) {
+                send("bestmove 0000");
+            } else if (result.ponderMove() != Move.NONE && bestMove == result.bestMove()) {
+                send("bestmove " + Move.toUci(bestMove) + " ponder " + Move.toUci(result.ponderMove()));
+            } else {
+                send("bestmove " + Move.toUci(bestMove));
+            }
+        });
+    }
+
+    private static void awaitStop(CountDownLatch stop) {
+        try {
+            stop.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Valeur qui suit un mot-clé de la commande.
+     *
+     * @throws IllegalArgumentException si la commande s'arrête sur le mot-clé
+     */
+    private static String value(String[] tokens, int index) {
+        if (index >= tokens.length) {
+            throw new IllegalArgumentException(tokens[index - 1] + " requires a value");
+        }
+        return tokens[index];
+    }
+
+    /**
+     * setoption name &lt;nom&gt; value &lt;valeur&gt; (la valeur peut contenir des espaces)
+     */
+    private void setOption(String[] tokens) {
+        String name = null;
+        String value = null;
+        for (int i = 1; i < tokens.length - 1; i++) {
+            if (tokens[i].equals("name")) {
+                name = tokens[i + 1];
+            } else if (tokens[i].equals("value")) {
+                value = String.join(" ", Arrays.copyOfRange(tokens, i + 1, tokens.length));
+                break;
+            }
+        }
+        if (name == null || value == null) {
+            throw new IllegalArgumentException("setoption requires a name and a value");
+        }
+        switch (name.toLowerCase()) {
+            case "hash" -> {
+                try {
+                    transpositionTable.resize(clamp(Integer.parseInt(value), 1, MAX_HASH_MB));
+                } catch (IllegalStateException e) {
+                    throw new IllegalArgumentException(e.getMessage() + " (table unchanged)");
+                }
+            }
+            case "threads" -> search.setThreads(clamp(Integer.parseInt(value), 1, MAX_THREADS));
+            case "ownbook" -> ownBook = Boolean.parseBoolean(value);
+            case "bookfile" -> openBook(value);
+            case "syzygypath" -> openTablebases(value);
+            case "syzygyprobelimit" -> {
+                probeLimit = clamp(Integer.parseInt(value), 0, MAX_PROBE_LIMIT);
+                search.setTablebases(tablebases, probeLimit);
+            }
+            default -> throw new IllegalArgumentException("Unknown option " + name);
+        }
+    }
+
+    /**
+     * Ouvre le livre Polyglot, ou le ferme si le chemin est vide ou "&lt;empty&gt;".
+     */
+    private void openBook(String file) {
+        closeBook();
+        if (file.isEmpty() || file.equals("<empty>")) {
+            return;
+        }
+        try {
+            book = PolyglotBook.open(Path.of(file));
+        } catch (IOException | IllegalStateException e) {
+            throw new IllegalArgumentException("Cannot open book " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recense les tables Syzygy des répertoires donnés, ou les retire si le chemin est vide.
+     */
+    private void openTablebases(String paths) {
+        tablebases = null;
+        if (!paths.isEmpty() && !paths.equals("<empty>")) {
+            try {
+                tablebases = Syzygy.open(paths);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read tablebases " + paths + ": " + e.getMessage());
+            }
+            send("info string found " + tablebases.tableCount() + " tablebases, up to "
+                    + tablebases.maxPieces() + " pieces");
+        }
+        search.setTablebases(tablebases, probeLimit);
+    }
+
+    private void closeBook() {
+        if (book == null) {
+            return;
+        }
+        try {
+            book.close();
+        } catch (IOException e) {
+            send("info string cannot close book: " + e.getMessage());
+        }
+        book = null;
+    }
+
+    private void sendInfo(SearchInfo info) {
+        send("info " + info);
+    }
+
+    /**
+     * Attend la fin de la recherche en cours, si elle existe. Une commande qui attend la
+     * recherche vaut "stop" pour un bestmove retenu : elle ne peut pas arriver après.
+     */
+    private void waitForSearch() {
+        if (pendingSearch == null) {
+            return;
+        }
+        stopReceived.countDown();
+        try {
+            pendingSearch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            send("info string search failed: " + e.getCause());
+        }
+        pendingSearch = null;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    // Les lignes sont écrites par le thread de lecture et par le thread de recherche
+    private synchronized void send(String line) {
+        output.println(line);
+        output.flush();
+    }
+}
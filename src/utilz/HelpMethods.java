@@ -1,5 +1,6 @@
 package utilz;
 
+import board.Square;
 import pieces.PieceColor;
 
 /**
@@ -22,7 +23,7 @@ public class HelpMethods {
         if (!color.equals("WHITE") && !color.equals("BLACK")) {
             throw new IllegalArgumentException("Color must be either WHITE or BLACK");
         }
-        if (!position.matches("^[a-h][1-8]$")) {
+        if (Square.parse(position) == Square.NONE) {
             throw new IllegalArgumentException("Position must be in the format a1 to h8");
         }
     }
@@ -39,11 +40,28 @@ public class HelpMethods {
         if (position == null || color == null) {
             throw new IllegalArgumentException("Position and color cannot be null");
         }
-        if (!position.matches("^[a-h][1-8]$")) {
+        if (Square.parse(position) == Square.NONE) {
             throw new IllegalArgumentException("Position must be in the format a1 to h8");
         }
     }
     
+    /**
+     * Vérifie que les paramètres de case et de couleur sont valides.
+     * Surcharge par index de case (a1 = 0 .. h8 = 63), sans conversion de chaîne.
+     * 
+     * @param square L'index de la case
+     * @param color La couleur de la pièce
+     * @throws IllegalArgumentException si les paramètres sont invalides
+     */
+    public static void verifyParameters(int square, PieceColor color) {
+        if (color == null) {
+            throw new IllegalArgumentException("Position and color cannot be null");
+        }
+        if (!Square.isValid(square)) {
+            throw new IllegalArgumentException("Square must be between 0 (a1) and 63 (h8)");
+        }
+    }
+    
     /**
      * Vérifie si une position est valide sur l'échiquier.
      * 
@@ -51,6 +69,16 @@ public class HelpMethods {
      * @return true si la position est valide
      */
     public static boolean isValidPosition(String position) {
-        return position != null && position.matches("^[a-h][1-8]$");
+        return Square.parse(position) != Square.NONE;
+    }
+    
+    /**
+     * Vérifie si un index de case est sur l'échiquier.
+     * 
+     * @param square L'index de la case
+     * @return true si la case est valide
+     */
+    public static boolean isValidSquare(int square) {
+        return Square.isValid(square);
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package board;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+/**
+ * Lecture et écriture FEN : une position relue puis réécrite redonne la même chaîne,
+ * et une chaîne mal formée ou incohérente avec le plateau est refusée avant de pouvoir
+ * faire échouer le générateur de coups.
+ */
+class FenTest {
+    private static final String[] VALID = {
+        BitboardPosition.START_FEN,
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+        "4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1",
+        "r3k3/8/8/8/8/8/8/4K2R b Kq - 12 40",
+    };
+    private static final String[] INVALID = {
+        null,
+        "",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq",
+        // Rangées en trop, en moins, trop longues ou trop courtes
+        "4k3/8/8/8/8/8/8/4K3/8/8 w - - 0 1",
+        "4k3/8/8/8/8/8/4K3 w - - 0 1",
+        "4k3/8/8/8/8/8/8/4K4 w - - 0 1",
+        "4k3/8/8/8/8/8/8/4K w - - 0 1",
+        "4k3/8/8/8/8/8/8/4K3p w - - 0 1",
+        // Pièce, trait, roque, prise en passant ou compteurs illisibles
+        "4k3/8/8/8/8/8/8/4X3 w - - 0 1",
+        "4k3/8/8/8/8/8/8/4K3 x - - 0 1",
+        "4k3/8/8/8/8/8/8/4K3 w X - 0 1",
+        "4k3/8/8/8/8/8/8/4K3 w - z9 0 1",
+        "4k3/8/8/8/8/8/8/4K3 w - - a 1",
+        // Roi manquant ou en double
+        "8/8/8/8/8/8/8/4K3 w - - 0 1",
+        "4k3/8/8/8/8/8/8/3KK3 w - - 0 1",
+        // Droits de roque sans le roi et la tour sur leurs cases d'origine
+        "4k3/8/8/8/8/8/8/4K3 w K - 0 1",
+        "4k3/8/8/8/8/8/8/R3K3 w K - 0 1",
+        "r3k3/8/8/8/8/8/8/4K3 w k - 0 1",
+        "r2k3r/8/8/8/8/8/8/4K3 w q - 0 1",
+    };
+
+    @TestFactory
+    List<DynamicTest> roundTrip() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (String fen : VALID) {
+            tests.add(DynamicTest.dynamicTest(fen, () -> {
+                assertEquals(fen, BitboardPosition.fromFen(fen).toFen());
+                assertEquals(fen, new Board(fen).toFen());
+            }));
+        }
+        return tests;
+    }
+
+    @TestFactory
+    List<DynamicTest> rejectsInvalidFen() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (String fen : INVALID) {
+            tests.add(DynamicTest.dynamicTest(String.valueOf(fen),
+                    () -> assertThrows(IllegalArgumentException.class, () -> BitboardPosition.fromFen(fen), fen)));
+        }
+        return tests;
+    }
+
+    @Test
+    void optionalCountersAndUselessEnPassantSquare() {
+        assertEquals("4k3/8/8/8/8/8/8/4K3 w - - 0 1", BitboardPosition.fromFen("4k3/8/8/8/8/8/8/4K3 w - -").toFen());
+        // Aucun pion noir ne peut prendre en e3 : la case n'est pas gardée
+        assertEquals("4k3/8/8/8/4P3/8/8/4K3 b - - 0 1",
+                BitboardPosition.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - e3 0 1").toFen());
+    }
+}
@@ -0,0 +1,88 @@
+package board;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import movegen.Move;
+import movegen.MoveGenerator;
+import movegen.MoveList;
+
+/**
+ * La clé Zobrist tenue à jour par makeMove / unmakeMove doit rester égale à la clé
+ * recalculée (computeKey) sur tous les coups légaux jusqu'à une petite profondeur :
+ * roques, prises en passant, promotions et coup nul compris.
+ */
+class ZobristTest {
+    private static final int DEPTH = 3;
+    private static final String[] FENS = {
+        BitboardPosition.START_FEN,
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+    };
+
+    @TestFactory
+    List<DynamicTest> incrementalKeyMatchesRecomputedKey() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (String fen : FENS) {
+            tests.add(DynamicTest.dynamicTest(fen, () -> walk(BitboardPosition.fromFen(fen), DEPTH, fen)));
+        }
+        return tests;
+    }
+
+    private static void walk(BitboardPosition position, int depth, String fen) {
+        assertEquals(position.computeKey(), position.getKey(), fen);
+        if (depth == 0) {
+            return;
+        }
+        long key = position.getKey();
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegal(position, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.get(i));
+            walk(position, depth - 1, fen);
+            position.unmakeMove();
+            assertEquals(key, position.getKey(), fen);
+        }
+        position.makeNullMove();
+        assertEquals(position.computeKey(), position.getKey(), fen + " (null move)");
+        position.unmakeNullMove();
+        assertEquals(key, position.getKey(), fen);
+    }
+
+    @Test
+    void transpositionsShareTheirKey() {
+        BitboardPosition a = play("g1f3", "g8f6", "b1c3", "b8c6");
+        BitboardPosition b = play("b1c3", "b8c6", "g1f3", "g8f6");
+        assertEquals(a.getKey(), b.getKey());
+        assertEquals(BitboardPosition.fromFen(a.toFen()).getKey(), a.getKey());
+
+        // Même placement, trait différent
+        String black = a.toFen().replace(" w ", " b ");
+        assertNotEquals(a.getKey(), BitboardPosition.fromFen(black).getKey(), "side to move");
+    }
+
+    private static BitboardPosition play(String... uciMoves) {
+        BitboardPosition position = BitboardPosition.fromFen(BitboardPosition.START_FEN);
+        MoveList moves = new MoveList();
+        for (String uci : uciMoves) {
+            MoveGenerator.generateLegal(position, moves);
+            int played = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                if (Move.toUci(moves.get(i)).equals(uci)) {
+                    played = moves.get(i);
+                }
+            }
+            position.makeMove(played);
+        }
+        return position;
+    }
+}
@@ -0,0 +1,66 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import board.BitboardPosition;
+import movegen.MoveGenerator;
+import movegen.MoveList;
+
+/**
+ * Les scores matériel + tables pièce-case, la phase et la clé des pions tenus à jour par
+ * makeMove / unmakeMove doivent égaler un recalcul complet, et l'évaluation rapide
+ * l'évaluation de référence (evaluateFromScratch), sur tous les coups légaux jusqu'à
+ * une petite profondeur.
+ */
+class EvaluationTest {
+    private static final int DEPTH = 3;
+    private static final String[] FENS = {
+        BitboardPosition.START_FEN,
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+    };
+
+    @TestFactory
+    List<DynamicTest> incrementalScoresMatchFullRecompute() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (String fen : FENS) {
+            tests.add(DynamicTest.dynamicTest(fen, () -> walk(BitboardPosition.fromFen(fen), DEPTH, new PawnHashTable())));
+        }
+        return tests;
+    }
+
+    private static void walk(BitboardPosition position, int depth, PawnHashTable pawnTable) {
+        assertTrue(Evaluation.checkIncremental(position));
+        int expected = Evaluation.evaluateFromScratch(position);
+        assertEquals(expected, Evaluation.evaluate(position), position.toFen());
+        assertEquals(expected, Evaluation.evaluate(position, pawnTable), position.toFen());
+        if (depth == 0) {
+            return;
+        }
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegal(position, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.get(i));
+            walk(position, depth - 1, pawnTable);
+            position.unmakeMove();
+        }
+    }
+
+    @Test
+    void startPositionIsBalanced() {
+        BitboardPosition start = BitboardPosition.fromFen(BitboardPosition.START_FEN);
+        assertEquals(0, Evaluation.evaluate(start));
+        BitboardPosition black = BitboardPosition.fromFen(BitboardPosition.START_FEN.replace(" w ", " b "));
+        assertEquals(0, Evaluation.evaluate(black));
+    }
+}
@@ -0,0 +1,88 @@
+package index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import board.BitboardPosition;
+import movegen.Move;
+
+/**
+ * Construction et interrogation d'un petit index : comptes du bilan, parties par
+ * position et par coup, et transpositions qui ne diffèrent que par un double pas sans
+ * prise en passant possible.
+ */
+class PositionIndexTest {
+    // 1. e4 e6 2. d4 et 1. d4 e6 2. e4 mènent à la même position ; la troisième partie
+    // s'arrête sur un coup illégal (la dame noire est enfermée)
+    private static final String GAMES = """
+            [Result "1-0"]
+
+            1. e4 e6 2. d4 d5 1-0
+
+            [Result "0-1"]
+
+            1. d4 e6 2. e4 d5 0-1
+
+            [Result "1/2-1/2"]
+
+            1. e4 Qh4 1/2-1/2
+            """;
+    private static final String TRANSPOSED = "rnbqkbnr/pppp1ppp/4p3/8/3PP3/8/PPP2PPP/RNBQKBNR b KQkq - 0 2";
+
+    @TempDir
+    Path dir;
+
+    private PositionIndex build() throws IOException {
+        Path pgn = dir.resolve("games.pgn");
+        Files.writeString(pgn, GAMES);
+        Path output = dir.resolve("games.idx");
+        PositionIndexBuilder.Summary summary = new PositionIndexBuilder(1, 1, dir).build(List.of(pgn), output);
+        assertEquals(2, summary.games(), "games");
+        assertEquals(1, summary.errors(), "errors");
+        assertEquals(9, summary.plies(), "plies");
+        return PositionIndex.open(output);
+    }
+
+    @Test
+    void transpositionAndFenQueryHitTheSameRecord() throws IOException {
+        try (PositionIndex index = build()) {
+            // La case sautée par le dernier double pas (e3 ou d3) n'entre pas dans la clé
+            for (String ep : new String[] { "-", "d3", "e3" }) {
+                BitboardPosition position = BitboardPosition.fromFen(TRANSPOSED.replace(" - ", " " + ep + " "));
+                MoveStats total = index.stats(position.getKey());
+                assertEquals(2, total.games(), ep);
+                assertEquals(1, total.whiteWins(), ep);
+                assertEquals(1, total.blackWins(), ep);
+
+                List<MoveStats> moves = index.moves(position);
+                assertEquals(1, moves.size(), ep);
+                assertEquals("d7d5", Move.toUci(moves.get(0).move()), ep);
+                assertEquals(2, moves.get(0).games(), ep);
+            }
+        }
+    }
+
+    @Test
+    void finalPositionsAndAbsentPositions() throws IOException {
+        try (PositionIndex index = build()) {
+            BitboardPosition start = BitboardPosition.fromFen(BitboardPosition.START_FEN);
+            List<MoveStats> moves = index.moves(start);
+            assertEquals(2, moves.size());
+
+            // Les deux parties finissent dans la même position, sous le coup nul
+            BitboardPosition end = BitboardPosition.fromFen("rnbqkbnr/ppp2ppp/4p3/3p4/3PP3/8/PPP2PPP/RNBQKBNR w KQkq - 0 3");
+            assertEquals(2, index.stats(end.getKey()).games());
+
+            BitboardPosition absent = BitboardPosition.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+            assertEquals(0, index.stats(absent.getKey()).games());
+            assertEquals(0, index.moves(absent).size());
+        }
+    }
+}
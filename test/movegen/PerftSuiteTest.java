@@ -0,0 +1,37 @@
+package movegen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import board.BitboardPosition;
+
+/**
+ * Garde-fou du générateur de coups : les positions de référence de PerftSuite, jusqu'à
+ * la profondeur dont le compte reste sous MAX_NODES, doivent donner les comptes connus.
+ * Les profondeurs plus coûteuses restent dans le profil Maven "perft".
+ */
+class PerftSuiteTest {
+    private static final long MAX_NODES = 200_000L;
+
+    @TestFactory
+    List<DynamicTest> referencePositions() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Object[] entry : PerftSuite.POSITIONS) {
+            String fen = (String) entry[0];
+            long[] expected = (long[]) entry[1];
+            for (int depth = 1; depth <= expected.length && expected[depth - 1] <= MAX_NODES; depth++) {
+                int d = depth;
+                tests.add(DynamicTest.dynamicTest("perft " + d + " " + fen, () -> {
+                    long nodes = new Perft().perft(BitboardPosition.fromFen(fen), d);
+                    assertEquals(expected[d - 1], nodes, fen + " depth " + d);
+                }));
+            }
+        }
+        return tests;
+    }
+}
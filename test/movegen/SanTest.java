@@ -0,0 +1,111 @@
+package movegen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import board.BitboardPosition;
+
+/**
+ * Notation SAN : écriture des cas particuliers (désambiguïsation, roques, promotions,
+ * prise en passant, échec et mat), lecture des écarts tolérés, et aller-retour
+ * toSan / parse sur tous les coups légaux des positions de référence.
+ */
+class SanTest {
+    // Position FEN, coup UCI et SAN attendue
+    private static final String[][] PRINTED = {
+        { BitboardPosition.START_FEN, "g1f3", "Nf3" },
+        { BitboardPosition.START_FEN, "e2e4", "e4" },
+        { "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "e1g1", "O-O" },
+        { "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "e1c1", "O-O-O" },
+        { "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "e2a6", "Bxa6" },
+        { "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "d5e6", "dxe6" },
+        { "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "c3b5", "Nb5" },
+        { "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3", "e5f6", "exf6" },
+        { "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", "d7c8q", "dxc8=Q" },
+        { "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", "d7c8n", "dxc8=N" },
+        // Désambiguïsation par colonne, par rangée, puis par case
+        { "4k3/8/8/8/8/8/8/R4RK1 w - - 0 1", "a1d1", "Rad1" },
+        { "4k3/8/8/R7/8/8/8/R3K3 w - - 0 1", "a1a3", "R1a3" },
+        { "2k5/8/8/8/4Q2Q/8/K7/7Q w - - 0 1", "h4e1", "Qh4e1" },
+        // Échec et mat
+        { "rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq - 0 2", "d8h4", "Qh4#" },
+        { "4k3/8/8/8/8/8/8/R3K3 w - - 0 1", "a1a8", "Ra8+" },
+    };
+
+    @TestFactory
+    List<DynamicTest> printsSan() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (String[] entry : PRINTED) {
+            tests.add(DynamicTest.dynamicTest(entry[2] + " " + entry[0], () -> {
+                BitboardPosition position = BitboardPosition.fromFen(entry[0]);
+                int move = uci(position, entry[1]);
+                assertEquals(entry[2], San.toSan(position, move));
+                assertEquals(entry[0], position.toFen());
+                assertEquals(move, San.parse(position, entry[2]), entry[2]);
+            }));
+        }
+        return tests;
+    }
+
+    @Test
+    void parsesCommonVariants() {
+        BitboardPosition kiwipete = BitboardPosition.fromFen(
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        assertEquals(uci(kiwipete, "e1g1"), San.parse(kiwipete, "0-0"));
+        assertEquals(uci(kiwipete, "e1c1"), San.parse(kiwipete, "O-O-O+"));
+        assertEquals(uci(kiwipete, "e2a6"), San.parse(kiwipete, "Ba6!?"));
+        assertEquals(uci(kiwipete, "e2a6"), San.parse(kiwipete, "Be2xa6"));
+
+        BitboardPosition promotion = BitboardPosition.fromFen("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8");
+        assertEquals(uci(promotion, "d7c8q"), San.parse(promotion, "dxc8Q"));
+
+        // Illisible, illégal ou ambigu
+        BitboardPosition rooks = BitboardPosition.fromFen("4k3/8/8/8/8/8/8/R4RK1 w - - 0 1");
+        assertEquals(Move.NONE, San.parse(rooks, "Rd1"));
+        assertEquals(Move.NONE, San.parse(rooks, "Ke3"));
+        assertEquals(Move.NONE, San.parse(rooks, "Zz9"));
+        assertEquals(Move.NONE, San.parse(rooks, ""));
+    }
+
+    @TestFactory
+    List<DynamicTest> everyLegalMoveRoundTrips() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Object[] entry : PerftSuite.POSITIONS) {
+            String fen = (String) entry[0];
+            tests.add(DynamicTest.dynamicTest(fen, () -> roundTrip(BitboardPosition.fromFen(fen), 2)));
+        }
+        return tests;
+    }
+
+    private static void roundTrip(BitboardPosition position, int depth) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegal(position, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            String san = San.toSan(position, move);
+            assertEquals(move, San.parse(position, san), position.toFen() + " " + san);
+            if (depth > 1) {
+                position.makeMove(move);
+                roundTrip(position, depth - 1);
+                position.unmakeMove();
+            }
+        }
+    }
+
+    private static int uci(BitboardPosition position, String uci) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegal(position, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.toUci(moves.get(i)).equals(uci)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Illegal move " + uci + " in " + position.toFen());
+    }
+}
@@ -0,0 +1,99 @@
+package pgn;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import board.BitboardPosition;
+import board.Board;
+
+/**
+ * Relecture de parties PGN : comptes de parties, d'erreurs et de demi-coups, quels que
+ * soient le découpage en blocs et le nombre de threads, et position finale de chaque
+ * partie (commentaires, variantes, NAG et tag FEN compris).
+ */
+class PgnReplayTest {
+    private static final String GAMES = """
+            [Event "Commentaires, NAG et variantes"]
+            [Result "1-0"]
+
+            1. e4 {ouverture du pion roi} e5 2. Nf3 $1 Nc6 (2... d6 3. d4) 3. Bb5 a6
+            ; commentaire de fin de ligne
+            4. Ba4 Nf6 5. O-O 1-0
+
+            [Event "Tag FEN, prise en passant et promotion"]
+            [FEN "4k3/1P6/8/8/3p4/8/4P3/4K3 w - - 0 1"]
+            [SetUp "1"]
+            [Result "1/2-1/2"]
+
+            1. e4 dxe3 2. b8=Q+ Kd7 1/2-1/2
+
+            [Event "Coup illégal au troisième demi-coup"]
+            [Result "0-1"]
+
+            1. d4 d5 2. Ke3 Nf6 0-1
+
+            [Event "Tag FEN invalide"]
+            [FEN "4k3/8/8/8/8/8/8/4K3 w K - 0 1"]
+            [Result "*"]
+
+            1. Ke2 *
+
+            [Event "Mat du berger, sans marqueur de résultat"]
+
+            1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7#
+            """;
+    private static final String[] FINAL_FENS = {
+        "r1bqkb1r/1ppp1ppp/p1n2n2/4p3/B3P3/5N2/PPPP1PPP/RNBQ1RK1 b kq - 3 5",
+        "1Q6/3k4/8/8/8/4p3/8/4K3 w - - 1 3",
+        "r1bqkb1r/pppp1Qpp/2n2n2/4p3/2B1P3/8/PPPP1PPP/RNB1K1NR b KQkq - 0 4",
+    };
+
+    @Test
+    void countsDoNotDependOnChunksOrThreads() throws IOException {
+        for (int chunkChars : new int[] { 1, 200, PgnReader.DEFAULT_CHUNK_CHARS }) {
+            for (int threads : new int[] { 1, 3 }) {
+                AtomicLong moves = new AtomicLong();
+                PgnReplay.Report report = PgnReplay.run(new PgnReader(new StringReader(GAMES), chunkChars), threads,
+                        () -> new GameVisitor() {
+                            @Override
+                            public void move(PgnGame game, Board board, int move) {
+                                moves.incrementAndGet();
+                            }
+                        });
+                String label = "chunk " + chunkChars + ", threads " + threads;
+                assertEquals(3, report.games(), label);
+                assertEquals(2, report.errors(), label);
+                // 9 + 4 + 7 coups joués, plus 2 avant le coup illégal
+                assertEquals(22, report.plies(), label);
+                assertEquals(22, moves.get(), label);
+            }
+        }
+    }
+
+    @Test
+    void replaysToTheFinalPosition() throws IOException {
+        List<String> finals = new ArrayList<>();
+        List<Integer> errorPlies = new ArrayList<>();
+        PgnReplay.run(new PgnReader(new StringReader(GAMES), PgnReader.DEFAULT_CHUNK_CHARS), 1, () -> new GameVisitor() {
+            @Override
+            public void game(PgnGame game, Board board) {
+                finals.add(board.toFen());
+            }
+
+            @Override
+            public void error(PgnGame game, int ply) {
+                errorPlies.add(ply);
+            }
+        });
+        assertEquals(List.of(FINAL_FENS), finals);
+        assertEquals(List.of(2, 0), errorPlies);
+        assertEquals(BitboardPosition.START_FEN, new Board().toFen());
+    }
+}